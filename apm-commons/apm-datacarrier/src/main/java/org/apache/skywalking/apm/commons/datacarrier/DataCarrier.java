@@ -20,6 +20,8 @@ package org.apache.skywalking.apm.commons.datacarrier;
 
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.RingBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.WaitStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -46,10 +48,18 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize) {
+        this(name, envPrefix, channelSize, bufferSize, null);
+    }
+
+    /**
+     * @param waitStrategy use the {@link RingBuffer} with this wait strategy as the channels, if not null.
+     */
+    public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, WaitStrategy waitStrategy) {
         this.name = name;
         this.bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         this.channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<T>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING);
+        channels = new Channels<T>(
+            channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING, waitStrategy);
     }
 
     /**
@@ -31,11 +31,21 @@ public class Channels<T> {
     private final long size;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, null);
+    }
+
+    /**
+     * @param waitStrategy use the {@link RingBuffer} with this wait strategy in every channel, if not null.
+     */
+    public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy,
+        WaitStrategy waitStrategy) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (waitStrategy != null) {
+                bufferChannels[i] = new RingBuffer<T>(bufferSize, strategy, waitStrategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<T>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<T>(bufferSize, strategy);
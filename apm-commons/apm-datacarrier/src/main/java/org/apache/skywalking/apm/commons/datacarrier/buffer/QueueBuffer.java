@@ -42,5 +42,16 @@ public interface QueueBuffer<T> {
      */
     void obtain(List<T> consumeList);
 
+    /**
+     * Wait for the new data in the queue, the consumer calls this when there is nothing to consume. The implementation
+     * could return as soon as the data arrives.
+     *
+     * @param timeoutMillis the max time to wait.
+     * @throws InterruptedException if the consumer thread is interrupted.
+     */
+    default void awaitData(long timeoutMillis) throws InterruptedException {
+        Thread.sleep(timeoutMillis);
+    }
+
     int getBufferSize();
 }
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The sequenced ring buffer, every slot carries a sequence to tell whether it is free for the producer or published for
+ * the consumer. Producers claim the slots through the CAS of the tail sequence, and the consumer drains the published
+ * slots in order, no slot scanning and no lock in the save/obtain path.
+ * <p>
+ * The buffer size is rounded up to the power of 2. The {@link WaitStrategy} decides how the producers wait for the free
+ * slots in the {@link BufferStrategy#BLOCKING} strategy, and how the consumer waits for the data.
+ */
+public class RingBuffer<T> implements QueueBuffer<T> {
+    /**
+     * The max time of one wait of the blocked producers, as the sleep of {@link Buffer}.
+     */
+    private static final long MAX_PRODUCER_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Object[] entries;
+    /**
+     * The slot at index i is free for the sequence s when sequences[i] == s, and is published when sequences[i] == s +
+     * 1.
+     */
+    private final AtomicLongArray sequences;
+    private final int mask;
+    /**
+     * The next sequence to be claimed by the producers.
+     */
+    private final AtomicLong tail;
+    /**
+     * The next sequence to be consumed.
+     */
+    private volatile long head;
+    private BufferStrategy strategy;
+    private final Waiter producerWaiter;
+    private final Waiter consumerWaiter;
+
+    RingBuffer(int bufferSize, BufferStrategy strategy, WaitStrategy waitStrategy) {
+        int capacity = 1;
+        while (capacity < bufferSize) {
+            capacity <<= 1;
+        }
+        this.entries = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.tail = new AtomicLong(0);
+        this.head = 0;
+        this.strategy = strategy;
+        this.producerWaiter = Waiter.of(waitStrategy);
+        this.consumerWaiter = Waiter.of(waitStrategy);
+    }
+
+    @Override
+    public boolean save(T data) {
+        int attempt = 0;
+        while (true) {
+            final long sequence = tail.get();
+            final int index = (int) (sequence & mask);
+            final long available = sequences.get(index) - sequence;
+            if (available == 0) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    entries[index] = data;
+                    sequences.lazySet(index, sequence + 1);
+                    consumerWaiter.signal();
+                    return true;
+                }
+            } else if (available < 0) {
+                // The slot of the previous round hasn't been consumed, the buffer is full.
+                if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+                    return false;
+                }
+                try {
+                    producerWaiter.await(attempt++, MAX_PRODUCER_WAIT_NANOS);
+                } catch (InterruptedException e) {
+                    // Ignore the error
+                    return false;
+                }
+            }
+            // Otherwise, the sequence has been claimed by another producer, try the next one.
+        }
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Drain the published data in order. Only one consumer obtains at the same time, the lock is uncontended as every
+     * channel is assigned to one consumer thread.
+     */
+    @Override
+    public synchronized void obtain(List<T> consumeList) {
+        long sequence = head;
+        while (true) {
+            final int index = (int) (sequence & mask);
+            if (sequences.get(index) != sequence + 1) {
+                break;
+            }
+            consumeList.add((T) entries[index]);
+            entries[index] = null;
+            // Free the slot for the next round.
+            sequences.lazySet(index, sequence + entries.length);
+            sequence++;
+        }
+        if (sequence != head) {
+            head = sequence;
+            producerWaiter.signal();
+        }
+    }
+
+    @Override
+    public void awaitData(long timeoutMillis) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int attempt = 0;
+        long remaining;
+        while (isEmpty() && (remaining = deadline - System.nanoTime()) > 0) {
+            consumerWaiter.await(attempt++, remaining);
+        }
+    }
+
+    private boolean isEmpty() {
+        final long sequence = head;
+        return sequences.get((int) (sequence & mask)) != sequence + 1;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return entries.length;
+    }
+}
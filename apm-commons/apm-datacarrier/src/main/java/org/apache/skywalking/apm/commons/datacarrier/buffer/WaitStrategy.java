@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+/**
+ * WaitStrategy decides how the threads wait for the {@link RingBuffer}. The producers wait for the free slots when the
+ * buffer is full in the {@link BufferStrategy#BLOCKING} strategy, and the consumer waits for the new data when the
+ * buffer is empty.
+ */
+public enum WaitStrategy {
+    /**
+     * Spin without giving up the CPU, the lowest latency with a CPU core burnt by every waiting thread.
+     */
+    BUSY_SPIN,
+    /**
+     * Spin for a while, then yield the CPU to the other threads.
+     */
+    YIELDING,
+    /**
+     * Park the thread for a very short time, the balance between the latency and the CPU usage.
+     */
+    PARKING,
+    /**
+     * Wait on the lock condition until signaled, the lowest CPU usage.
+     */
+    BLOCKING
+}
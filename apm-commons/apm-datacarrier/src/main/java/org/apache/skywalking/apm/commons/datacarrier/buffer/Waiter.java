@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Waiter is the implementation of the {@link WaitStrategy} for one side of a {@link RingBuffer}. The waiting thread
+ * checks the status of the buffer again after every {@link #await(int, long)}, so a missed signal only delays the
+ * waiting thread to the max wait time.
+ */
+abstract class Waiter {
+    static Waiter of(WaitStrategy strategy) {
+        switch (strategy) {
+            case BUSY_SPIN:
+                return new BusySpinWaiter();
+            case YIELDING:
+                return new YieldingWaiter();
+            case PARKING:
+                return new ParkingWaiter();
+            default:
+                return new BlockingWaiter();
+        }
+    }
+
+    /**
+     * Wait once for the status change of the buffer.
+     *
+     * @param attempt  the number of the previous waits for the same status.
+     * @param maxNanos the max time to wait.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    abstract void await(int attempt, long maxNanos) throws InterruptedException;
+
+    /**
+     * Wake up the waiting threads, if any.
+     */
+    void signal() {
+    }
+
+    private static class BusySpinWaiter extends Waiter {
+        @Override
+        void await(int attempt, long maxNanos) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static class YieldingWaiter extends Waiter {
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        void await(int attempt, long maxNanos) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (attempt >= SPIN_TRIES) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static class ParkingWaiter extends Waiter {
+        private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+        @Override
+        void await(int attempt, long maxNanos) throws InterruptedException {
+            LockSupport.parkNanos(Math.min(maxNanos, PARK_NANOS));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static class BlockingWaiter extends Waiter {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        /**
+         * The number of the waiting threads, the signal is skipped without the lock when no one is waiting.
+         */
+        private final AtomicInteger waiting = new AtomicInteger(0);
+
+        @Override
+        void await(int attempt, long maxNanos) throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                waiting.incrementAndGet();
+                try {
+                    changed.awaitNanos(maxNanos);
+                } finally {
+                    waiting.decrementAndGet();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        void signal() {
+            if (waiting.get() > 0) {
+                lock.lock();
+                try {
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -52,7 +52,7 @@ public class ConsumerThread<T> extends Thread {
         while (running) {
             if (!consume(consumeList)) {
                 try {
-                    Thread.sleep(consumeCycle);
+                    awaitData();
                 } catch (InterruptedException e) {
                 }
             }
@@ -65,6 +65,18 @@ public class ConsumerThread<T> extends Thread {
         consumer.onExit();
     }
 
+    /**
+     * Wait through the buffer if this thread consumes only one, which could wake up as soon as the data arrives.
+     * Otherwise, sleep a consume cycle.
+     */
+    private void awaitData() throws InterruptedException {
+        if (dataSources.size() == 1) {
+            dataSources.get(0).awaitData(consumeCycle);
+        } else {
+            Thread.sleep(consumeCycle);
+        }
+    }
+
     private boolean consume(List<T> consumeList) {
         for (DataSource dataSource : dataSources) {
             dataSource.obtain(consumeList);
@@ -80,6 +92,11 @@ public class ConsumerThread<T> extends Thread {
             }
             return true;
         }
+        try {
+            consumer.nothingToConsume();
+        } catch (Throwable t) {
+            consumer.onError(consumeList, t);
+        }
         return false;
     }
 
@@ -100,5 +117,9 @@ public class ConsumerThread<T> extends Thread {
         void obtain(List<T> consumeList) {
             sourceBuffer.obtain(consumeList);
         }
+
+        void awaitData(long timeoutMillis) throws InterruptedException {
+            sourceBuffer.awaitData(timeoutMillis);
+        }
     }
 }
@@ -28,4 +28,11 @@ public interface IConsumer<T> {
     void onError(List<T> data, Throwable t);
 
     void onExit();
+
+    /**
+     * Notify the consumer that there is no data in this consume cycle. The consumer could do the time driven works,
+     * such as flushing the buffered data.
+     */
+    default void nothingToConsume() {
+    }
 }
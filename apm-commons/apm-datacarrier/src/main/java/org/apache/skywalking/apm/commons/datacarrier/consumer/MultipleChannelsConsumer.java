@@ -84,6 +84,11 @@ public class MultipleChannelsConsumer extends Thread {
             }
             return true;
         }
+        try {
+            target.consumer.nothingToConsume();
+        } catch (Throwable t) {
+            target.consumer.onError(consumeList, t);
+        }
         return false;
     }
 
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 3 producers and 1 consumer share one buffer of 10000 slots. The producers save in the {@link
+ * BufferStrategy#IF_POSSIBLE} strategy, so they never block when the consumer stops at the end of the iteration.
+ * `consumed` is the number of the data really moved from the producers to the consumer.
+ */
+@BenchmarkMode({Mode.Throughput})
+public class QueueBufferBenchmark {
+    private static final Object DATA = new Object();
+
+    @State(Scope.Group)
+    public static class SharedBuffer {
+        @Param({
+            "buffer",
+            "arrayBlockingQueue",
+            "ringBuffer"
+        })
+        private String type;
+
+        private QueueBuffer<Object> queueBuffer;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            if ("buffer".equals(type)) {
+                queueBuffer = new Buffer<Object>(10000, BufferStrategy.IF_POSSIBLE);
+            } else if ("arrayBlockingQueue".equals(type)) {
+                queueBuffer = new ArrayBlockingQueueBuffer<Object>(10000, BufferStrategy.IF_POSSIBLE);
+            } else {
+                queueBuffer = new RingBuffer<Object>(10000, BufferStrategy.IF_POSSIBLE, WaitStrategy.PARKING);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ConsumerCounters {
+        public long consumed;
+        private final List<Object> consumeList = new ArrayList<Object>(10000);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(3)
+    public boolean save(SharedBuffer shared) {
+        return shared.queueBuffer.save(DATA);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public void obtain(SharedBuffer shared, ConsumerCounters counters) {
+        shared.queueBuffer.obtain(counters.consumeList);
+        counters.consumed += counters.consumeList.size();
+        counters.consumeList.clear();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(QueueBufferBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+    /*
+     * The environment is limited to 1 CPU core, `consumed` is the moved data per second.
+     *
+     * Benchmark                                        (type)   Mode  Cnt        Score         Error  Units
+     * QueueBufferBenchmark.mpsc:consumed                 buffer  thrpt    3   677838.170 ±  293923.152  ops/s
+     * QueueBufferBenchmark.mpsc:consumed     arrayBlockingQueue  thrpt    3   630627.282 ±  554144.889  ops/s
+     * QueueBufferBenchmark.mpsc:consumed             ringBuffer  thrpt    3  1032927.095 ± 2119278.279  ops/s
+     */
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void testRoundUpBufferSize() {
+        Assert.assertEquals(16, new RingBuffer<Integer>(10, BufferStrategy.BLOCKING, WaitStrategy.PARKING)
+            .getBufferSize());
+        Assert.assertEquals(16, new RingBuffer<Integer>(16, BufferStrategy.BLOCKING, WaitStrategy.PARKING)
+            .getBufferSize());
+    }
+
+    @Test
+    public void testSaveAndObtainInOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<Integer>(8, BufferStrategy.IF_POSSIBLE, WaitStrategy.PARKING);
+        List<Integer> consumeList = new ArrayList<Integer>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 5; i++) {
+                Assert.assertTrue(buffer.save(round * 5 + i));
+            }
+            buffer.obtain(consumeList);
+        }
+        Assert.assertEquals(15, consumeList.size());
+        for (int i = 0; i < 15; i++) {
+            Assert.assertEquals(i, consumeList.get(i).intValue());
+        }
+
+        consumeList.clear();
+        buffer.obtain(consumeList);
+        Assert.assertTrue(consumeList.isEmpty());
+    }
+
+    @Test
+    public void testIfPossibleWhenFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<Integer>(4, BufferStrategy.IF_POSSIBLE, WaitStrategy.PARKING);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(buffer.save(i));
+        }
+        Assert.assertFalse(buffer.save(4));
+
+        List<Integer> consumeList = new ArrayList<Integer>();
+        buffer.obtain(consumeList);
+        Assert.assertEquals(4, consumeList.size());
+        Assert.assertTrue(buffer.save(4));
+    }
+
+    @Test
+    public void testBlockingWhenFull() throws InterruptedException {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            final RingBuffer<Integer> buffer = new RingBuffer<Integer>(4, BufferStrategy.BLOCKING, waitStrategy);
+            for (int i = 0; i < 4; i++) {
+                Assert.assertTrue(buffer.save(i));
+            }
+
+            final CountDownLatch saved = new CountDownLatch(1);
+            Thread producer = new Thread(() -> {
+                buffer.save(4);
+                saved.countDown();
+            });
+            producer.start();
+            Assert.assertFalse(saved.await(50, TimeUnit.MILLISECONDS));
+
+            List<Integer> consumeList = new ArrayList<Integer>();
+            buffer.obtain(consumeList);
+            Assert.assertTrue(saved.await(1, TimeUnit.SECONDS));
+
+            consumeList.clear();
+            buffer.obtain(consumeList);
+            Assert.assertEquals(1, consumeList.size());
+            Assert.assertEquals(4, consumeList.get(0).intValue());
+        }
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            final RingBuffer<Integer> buffer = new RingBuffer<Integer>(64, BufferStrategy.BLOCKING, waitStrategy);
+            final int producers = 4;
+            final int perProducer = 2000;
+            List<Thread> threads = new ArrayList<Thread>();
+            for (int p = 0; p < producers; p++) {
+                final int base = p * perProducer;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        buffer.save(base + i);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+
+            Set<Integer> received = new HashSet<Integer>();
+            List<Integer> consumeList = new ArrayList<Integer>();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (received.size() < producers * perProducer && System.currentTimeMillis() < deadline) {
+                buffer.obtain(consumeList);
+                received.addAll(consumeList);
+                consumeList.clear();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            Assert.assertEquals(waitStrategy.name(), producers * perProducer, received.size());
+        }
+    }
+
+    @Test
+    public void testAwaitData() throws InterruptedException {
+        final RingBuffer<Integer> buffer = new RingBuffer<Integer>(4, BufferStrategy.BLOCKING, WaitStrategy.BLOCKING);
+        new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+            }
+            buffer.save(1);
+        }).start();
+
+        long start = System.currentTimeMillis();
+        buffer.awaitData(10000);
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+
+        List<Integer> consumeList = new ArrayList<Integer>();
+        buffer.obtain(consumeList);
+        Assert.assertEquals(1, consumeList.size());
+
+        long startNanos = System.nanoTime();
+        buffer.awaitData(20);
+        Assert.assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+}
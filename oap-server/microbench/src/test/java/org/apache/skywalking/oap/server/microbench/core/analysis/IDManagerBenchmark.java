@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.analysis;
+
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.NodeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The IDs of service, instance and endpoint are built for every source of the trace analysis, and decoded by the query.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Thread)
+public class IDManagerBenchmark {
+    private static final String SERVICE_NAME = "business-zone::order-service";
+    private static final String INSTANCE_NAME = "6b9b1d7c2c1f4b4e9b2d5d0a6e1c7f3a@10.0.12.34";
+    private static final String ENDPOINT_NAME = "/api/v1/orders/{orderId}/items";
+
+    private String serviceId;
+    private String instanceId;
+    private String endpointId;
+    private String endpointRelationId;
+
+    @Setup
+    public void setup() {
+        serviceId = IDManager.ServiceID.buildId(SERVICE_NAME, NodeType.Normal);
+        instanceId = IDManager.ServiceInstanceID.buildId(serviceId, INSTANCE_NAME);
+        endpointId = IDManager.EndpointID.buildId(serviceId, ENDPOINT_NAME);
+        endpointRelationId = IDManager.EndpointID.buildRelationId(
+            new IDManager.EndpointID.EndpointRelationDefine(serviceId, ENDPOINT_NAME, serviceId, ENDPOINT_NAME));
+    }
+
+    @Benchmark
+    public String encodeService() {
+        return IDManager.ServiceID.buildId(SERVICE_NAME, NodeType.Normal);
+    }
+
+    @Benchmark
+    public String encodeInstance() {
+        return IDManager.ServiceInstanceID.buildId(serviceId, INSTANCE_NAME);
+    }
+
+    @Benchmark
+    public String encodeEndpoint() {
+        return IDManager.EndpointID.buildId(serviceId, ENDPOINT_NAME);
+    }
+
+    @Benchmark
+    public Object decodeService() {
+        return IDManager.ServiceID.analysisId(serviceId);
+    }
+
+    @Benchmark
+    public Object decodeInstance() {
+        return IDManager.ServiceInstanceID.analysisId(instanceId);
+    }
+
+    @Benchmark
+    public Object decodeEndpoint() {
+        return IDManager.EndpointID.analysisId(endpointId);
+    }
+
+    @Benchmark
+    public Object decodeEndpointRelation() {
+        return IDManager.EndpointID.analysisRelationId(endpointRelationId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(IDManagerBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
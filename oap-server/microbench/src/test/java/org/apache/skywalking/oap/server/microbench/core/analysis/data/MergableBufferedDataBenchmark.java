@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.analysis.data;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
+import org.apache.skywalking.oap.server.microbench.fixture.EndpointAvgMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The L1 aggregation merges the metrics of the same ID through {@link MergableBufferedData}. One operation is one
+ * accepted metrics, the buffer is read once per {@link #BATCH} metrics, as the flush does.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Thread)
+public class MergableBufferedDataBenchmark {
+    private static final int BATCH = 10000;
+
+    /**
+     * The number of the distinct IDs in one batch, the others are merged.
+     */
+    @Param({
+        "100",
+        "10000"
+    })
+    private int distinct;
+
+    private EndpointAvgMetrics[] metrics;
+
+    @Setup
+    public void setup() {
+        metrics = new EndpointAvgMetrics[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            metrics[i] = EndpointAvgMetrics.of(i % distinct, 202005201230L, i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<EndpointAvgMetrics> acceptAndRead() {
+        MergableBufferedData<EndpointAvgMetrics> buffer = new MergableBufferedData<>();
+        for (EndpointAvgMetrics m : metrics) {
+            buffer.accept(m);
+        }
+        return buffer.read();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(MergableBufferedDataBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
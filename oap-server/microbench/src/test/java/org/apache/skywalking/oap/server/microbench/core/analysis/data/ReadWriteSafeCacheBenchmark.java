@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.analysis.data;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
+import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
+import org.apache.skywalking.oap.server.microbench.fixture.EndpointAvgMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The {@link ReadWriteSafeCache} of the L2 aggregation is written by the consumer threads of the DataCarrier, and read
+ * by the persistence timer at the same time. The writers and the reader of one group share the cache.
+ */
+@BenchmarkMode({Mode.Throughput})
+public class ReadWriteSafeCacheBenchmark {
+    private static final int DISTINCT = 1000;
+
+    @State(Scope.Group)
+    public static class SharedCache {
+        private ReadWriteSafeCache<EndpointAvgMetrics> cache;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            cache = new ReadWriteSafeCache<>(MergableBufferedData::new);
+        }
+    }
+
+    /**
+     * Every write is a new metrics object, as the deserialized remote data received by the L2 aggregation.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+        private int index;
+
+        private EndpointAvgMetrics next() {
+            index = (index + 1) % DISTINCT;
+            return EndpointAvgMetrics.of(index, 202005201230L, index);
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public void write(SharedCache shared, Writer writer) {
+        shared.cache.write(writer.next());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public List<EndpointAvgMetrics> read(SharedCache shared) {
+        return shared.cache.read();
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    @GroupThreads(1)
+    public void writeOnly(SharedCache shared, Writer writer) {
+        shared.cache.write(writer.next());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ReadWriteSafeCacheBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.core.analysis.metrics;
+
+import org.apache.skywalking.oap.server.core.analysis.metrics.ApdexMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.CPMMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.HistogramMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.microbench.fixture.EndpointAvgMetrics;
+import org.apache.skywalking.oap.server.microbench.fixture.ServicePercentileMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The lifecycle of the metrics of every OAL function in one minute. The dispatcher creates the metrics and calls the
+ * entrance combine by every source, the L1 and L2 aggregation combine the metrics of the same ID, and the persistence
+ * calculates the value.
+ *
+ * The longAvg and percentile metrics are the hand-written fixtures of the OAL generated classes. The cpm, apdex and
+ * histogram metrics are minimal subclasses of the functions, without ID, serialization or downsampling, as only the
+ * combine and calculate are measured.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Thread)
+public class MetricsFunctionBenchmark {
+    private static final long TIME_BUCKET = 202005201230L;
+    private static final int SOURCES = 100;
+
+    private final int[] latencies = new int[SOURCES];
+    private EndpointAvgMetrics longAvgMerged;
+    private ServicePercentileMetrics percentileMerged;
+    private CPMMetricsImpl cpmMerged;
+    private ApdexMetricsImpl apdexMerged;
+    private HistogramMetricsImpl histogramMerged;
+
+    @Setup
+    public void setup() {
+        ApdexMetrics.setDICT(name -> 500);
+        for (int i = 0; i < SOURCES; i++) {
+            latencies[i] = (i * 37) % 2000;
+        }
+
+        longAvgMerged = new EndpointAvgMetrics();
+        percentileMerged = new ServicePercentileMetrics();
+        cpmMerged = new CPMMetricsImpl();
+        apdexMerged = new ApdexMetricsImpl();
+        histogramMerged = new HistogramMetricsImpl();
+        for (int latency : latencies) {
+            longAvgMerged.combine(latency, 1);
+            percentileMerged.combine(latency, 10);
+            cpmMerged.combine(1);
+            apdexMerged.combine(latency, "service-a", latency % 50 != 0);
+            histogramMerged.combine(latency, 100, 20);
+        }
+    }
+
+    @Benchmark
+    public long longAvg() {
+        EndpointAvgMetrics metrics = new EndpointAvgMetrics();
+        for (int latency : latencies) {
+            metrics.combine(latency, 1);
+        }
+        metrics.combine(longAvgMerged);
+        metrics.calculate();
+        return metrics.getValue();
+    }
+
+    @Benchmark
+    public int[] percentile() {
+        ServicePercentileMetrics metrics = new ServicePercentileMetrics();
+        for (int latency : latencies) {
+            metrics.combine(latency, 10);
+        }
+        metrics.combine(percentileMerged);
+        metrics.calculate();
+        return metrics.getValues();
+    }
+
+    @Benchmark
+    public long cpm() {
+        CPMMetricsImpl metrics = new CPMMetricsImpl();
+        metrics.setTimeBucket(TIME_BUCKET);
+        for (int i = 0; i < SOURCES; i++) {
+            metrics.combine(1);
+        }
+        metrics.combine(cpmMerged);
+        metrics.calculate();
+        return metrics.getValue();
+    }
+
+    @Benchmark
+    public int apdex() {
+        ApdexMetricsImpl metrics = new ApdexMetricsImpl();
+        for (int latency : latencies) {
+            metrics.combine(latency, "service-a", latency % 50 != 0);
+        }
+        metrics.combine(apdexMerged);
+        metrics.calculate();
+        return metrics.getValue();
+    }
+
+    @Benchmark
+    public Metrics histogram() {
+        HistogramMetricsImpl metrics = new HistogramMetricsImpl();
+        for (int latency : latencies) {
+            metrics.combine(latency, 100, 20);
+        }
+        metrics.combine(histogramMerged);
+        metrics.calculate();
+        return metrics;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(MetricsFunctionBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    private static class CPMMetricsImpl extends CPMMetrics {
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    private static class ApdexMetricsImpl extends ApdexMetrics {
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    private static class HistogramMetricsImpl extends HistogramMetrics {
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
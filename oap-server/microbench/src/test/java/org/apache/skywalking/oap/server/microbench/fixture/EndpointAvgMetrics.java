@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.fixture;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.metrics.LongAvgMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.ColumnWriter;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+
+/**
+ * A hand-written copy of the OAL generated metrics of `endpoint_avg = from(Endpoint.latency).longAvg();`, including
+ * the generated {@link Builder}. The OAL classes are only generated by the OAL runtime when the OAP starts, so they are
+ * not available to the benchmarks. Keep it in sync with the code templates of the oal-rt module.
+ */
+@Getter
+@Setter
+public class EndpointAvgMetrics extends LongAvgMetrics {
+    public static final String INDEX_NAME = "endpoint_avg";
+    public static final String SERVICE_ID = "service_id";
+
+    private String entityId;
+    private String serviceId;
+
+    @Override
+    public String id() {
+        return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 17;
+        result = 31 * result + entityId.hashCode();
+        result = 31 * result + (int) getTimeBucket();
+        return result;
+    }
+
+    @Override
+    public int remoteHashCode() {
+        int result = 17;
+        result = 31 * result + entityId.hashCode();
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        EndpointAvgMetrics metrics = (EndpointAvgMetrics) obj;
+        return entityId.equals(metrics.entityId) && getTimeBucket() == metrics.getTimeBucket();
+    }
+
+    @Override
+    public RemoteData.Builder serialize() {
+        RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+        remoteBuilder.addDataStrings(entityId);
+        remoteBuilder.addDataStrings(serviceId);
+        remoteBuilder.addDataLongs(getSummation());
+        remoteBuilder.addDataLongs(getCount());
+        remoteBuilder.addDataLongs(getValue());
+        remoteBuilder.addDataLongs(getTimeBucket());
+        return remoteBuilder;
+    }
+
+    @Override
+    public void deserialize(RemoteData remoteData) {
+        setEntityId(remoteData.getDataStrings(0));
+        setServiceId(remoteData.getDataStrings(1));
+        setSummation(remoteData.getDataLongs(0));
+        setCount(remoteData.getDataLongs(1));
+        setValue(remoteData.getDataLongs(2));
+        setTimeBucket(remoteData.getDataLongs(3));
+    }
+
+    @Override
+    public Metrics toHour() {
+        EndpointAvgMetrics metrics = copy();
+        metrics.setTimeBucket(toTimeBucketInHour());
+        return metrics;
+    }
+
+    @Override
+    public Metrics toDay() {
+        EndpointAvgMetrics metrics = copy();
+        metrics.setTimeBucket(toTimeBucketInDay());
+        return metrics;
+    }
+
+    private EndpointAvgMetrics copy() {
+        EndpointAvgMetrics metrics = new EndpointAvgMetrics();
+        metrics.setEntityId(entityId);
+        metrics.setServiceId(serviceId);
+        metrics.setSummation(getSummation());
+        metrics.setCount(getCount());
+        metrics.setValue(getValue());
+        return metrics;
+    }
+
+    /**
+     * Create the metrics of the given endpoint in the given minute, as the dispatcher does.
+     */
+    public static EndpointAvgMetrics of(int endpoint, long timeBucket, long latency) {
+        EndpointAvgMetrics metrics = new EndpointAvgMetrics();
+        metrics.setServiceId("c2VydmljZS0x.1");
+        metrics.setEntityId("c2VydmljZS0x.1_L2FwaS92MS9lbmRwb2ludC0" + endpoint);
+        metrics.setTimeBucket(timeBucket);
+        metrics.combine(latency, 1);
+        return metrics;
+    }
+
+    public static class Builder implements StorageBuilder<EndpointAvgMetrics> {
+        @Override
+        public Map<String, Object> data2Map(EndpointAvgMetrics storageData) {
+            Map<String, Object> map = new HashMap<>();
+            map.put(ENTITY_ID, storageData.getEntityId());
+            map.put(SERVICE_ID, storageData.getServiceId());
+            map.put(SUMMATION, storageData.getSummation());
+            map.put(COUNT, storageData.getCount());
+            map.put(VALUE, storageData.getValue());
+            map.put(TIME_BUCKET, storageData.getTimeBucket());
+            return map;
+        }
+
+        @Override
+        public void data2Columns(EndpointAvgMetrics storageData, ColumnWriter writer) throws IOException {
+            writer.write(ENTITY_ID, storageData.getEntityId());
+            writer.write(SERVICE_ID, storageData.getServiceId());
+            writer.write(SUMMATION, new Long(storageData.getSummation()));
+            writer.write(COUNT, new Long(storageData.getCount()));
+            writer.write(VALUE, new Long(storageData.getValue()));
+            writer.write(TIME_BUCKET, new Long(storageData.getTimeBucket()));
+        }
+
+        @Override
+        public EndpointAvgMetrics map2Data(Map<String, Object> dbMap) {
+            EndpointAvgMetrics metrics = new EndpointAvgMetrics();
+            metrics.setEntityId((String) dbMap.get(ENTITY_ID));
+            metrics.setServiceId((String) dbMap.get(SERVICE_ID));
+            metrics.setSummation(((Number) dbMap.get(SUMMATION)).longValue());
+            metrics.setCount(((Number) dbMap.get(COUNT)).longValue());
+            metrics.setValue(((Number) dbMap.get(VALUE)).longValue());
+            metrics.setTimeBucket(((Number) dbMap.get(TIME_BUCKET)).longValue());
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.fixture;
+
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.Log;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanLayer;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+
+/**
+ * SegmentFixtures builds the segments of a typical web service, which is called by an upstream service through HTTP,
+ * runs a local method, queries MySQL, and calls a downstream service through gRPC.
+ */
+public class SegmentFixtures {
+    private static final long START_TIME = 1590000000000L;
+
+    private SegmentFixtures() {
+    }
+
+    /**
+     * @param index distinguishes the trace, and the endpoint in 100 endpoints.
+     * @return the segment with 4 spans.
+     */
+    public static SegmentObject segment(int index) {
+        final String traceId = "trace-" + index;
+        final long start = START_TIME + index;
+
+        SpanObject entry = SpanObject.newBuilder()
+                                     .setSpanId(0)
+                                     .setParentSpanId(-1)
+                                     .setStartTime(start)
+                                     .setEndTime(start + 120)
+                                     .setOperationName("/api/v1/endpoint-" + index % 100)
+                                     .setSpanType(SpanType.Entry)
+                                     .setSpanLayer(SpanLayer.Http)
+                                     .setComponentId(14)
+                                     .addRefs(SegmentReference.newBuilder()
+                                                              .setRefType(RefType.CrossProcess)
+                                                              .setTraceId(traceId)
+                                                              .setParentTraceSegmentId("upstream-segment-" + index)
+                                                              .setParentSpanId(1)
+                                                              .setParentService("gateway")
+                                                              .setParentServiceInstance("gateway-instance-1")
+                                                              .setParentEndpoint("/gateway/endpoint-" + index % 100)
+                                                              .setNetworkAddressUsedAtPeer("10.0.0.1:8080"))
+                                     .addTags(tag("http.method", "GET"))
+                                     .addTags(tag("url", "http://10.0.0.1:8080/api/v1/endpoint-" + index % 100))
+                                     .addTags(tag("status_code", "200"))
+                                     .build();
+
+        SpanObject local = SpanObject.newBuilder()
+                                     .setSpanId(1)
+                                     .setParentSpanId(0)
+                                     .setStartTime(start + 2)
+                                     .setEndTime(start + 10)
+                                     .setOperationName("com.example.Service.prepare()")
+                                     .setSpanType(SpanType.Local)
+                                     .setSpanLayer(SpanLayer.Unknown)
+                                     .build();
+
+        SpanObject database = SpanObject.newBuilder()
+                                        .setSpanId(2)
+                                        .setParentSpanId(0)
+                                        .setStartTime(start + 10)
+                                        .setEndTime(start + 260)
+                                        .setOperationName("Mysql/JDBI/PreparedStatement/executeQuery")
+                                        .setPeer("mysql:3306")
+                                        .setSpanType(SpanType.Exit)
+                                        .setSpanLayer(SpanLayer.Database)
+                                        .setComponentId(5)
+                                        .addTags(tag("db.type", "sql"))
+                                        .addTags(tag("db.instance", "benchmark"))
+                                        .addTags(tag("db.statement", "select id, name from t_user where id = ?"))
+                                        .build();
+
+        SpanObject rpc = SpanObject.newBuilder()
+                                   .setSpanId(3)
+                                   .setParentSpanId(0)
+                                   .setStartTime(start + 60)
+                                   .setEndTime(start + 110)
+                                   .setOperationName("/com.example.Downstream/call")
+                                   .setPeer("downstream:11800")
+                                   .setSpanType(SpanType.Exit)
+                                   .setSpanLayer(SpanLayer.RPCFramework)
+                                   .setComponentId(23)
+                                   .setIsError(index % 10 == 0)
+                                   .addLogs(Log.newBuilder()
+                                               .setTime(start + 110)
+                                               .addData(tag("event", "error"))
+                                               .addData(tag("message", "deadline exceeded")))
+                                   .build();
+
+        return SegmentObject.newBuilder()
+                            .setTraceId(traceId)
+                            .setTraceSegmentId("segment-" + index)
+                            .setService("service-a")
+                            .setServiceInstance("service-a-instance-" + index % 4)
+                            .addSpans(local)
+                            .addSpans(database)
+                            .addSpans(rpc)
+                            .addSpans(entry)
+                            .build();
+    }
+
+    private static KeyStringValuePair tag(String key, String value) {
+        return KeyStringValuePair.newBuilder().setKey(key).setValue(value).build();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.fixture;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.PercentileMetrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.ColumnWriter;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+
+/**
+ * A hand-written copy of the OAL generated metrics of `service_percentile = from(Service.latency).percentile(10);`,
+ * including the generated {@link Builder}. The OAL classes are only generated by the OAL runtime when the OAP starts,
+ * so they are not available to the benchmarks. Keep it in sync with the code templates of the oal-rt module.
+ */
+@Getter
+@Setter
+public class ServicePercentileMetrics extends PercentileMetrics {
+    public static final String INDEX_NAME = "service_percentile";
+
+    private String entityId;
+
+    @Override
+    public String id() {
+        return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 17;
+        result = 31 * result + entityId.hashCode();
+        result = 31 * result + (int) getTimeBucket();
+        return result;
+    }
+
+    @Override
+    public int remoteHashCode() {
+        int result = 17;
+        result = 31 * result + entityId.hashCode();
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ServicePercentileMetrics metrics = (ServicePercentileMetrics) obj;
+        return entityId.equals(metrics.entityId) && getTimeBucket() == metrics.getTimeBucket();
+    }
+
+    @Override
+    public RemoteData.Builder serialize() {
+        RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+        remoteBuilder.addDataStrings(entityId);
+        remoteBuilder.addDataLongs(getTimeBucket());
+        remoteBuilder.addDataIntegers(getPrecision());
+        remoteBuilder.addDataObjectStrings(getDataset().toStorageData());
+        remoteBuilder.addDataObjectStrings(getPercentileValues().toStorageData());
+        return remoteBuilder;
+    }
+
+    @Override
+    public void deserialize(RemoteData remoteData) {
+        setEntityId(remoteData.getDataStrings(0));
+        setTimeBucket(remoteData.getDataLongs(0));
+        setPrecision(remoteData.getDataIntegers(0));
+        setDataset(new DataTable(remoteData.getDataObjectStrings(0)));
+        setPercentileValues(new DataTable(remoteData.getDataObjectStrings(1)));
+    }
+
+    @Override
+    public Metrics toHour() {
+        ServicePercentileMetrics metrics = copy();
+        metrics.setTimeBucket(toTimeBucketInHour());
+        return metrics;
+    }
+
+    @Override
+    public Metrics toDay() {
+        ServicePercentileMetrics metrics = copy();
+        metrics.setTimeBucket(toTimeBucketInDay());
+        return metrics;
+    }
+
+    private ServicePercentileMetrics copy() {
+        ServicePercentileMetrics metrics = new ServicePercentileMetrics();
+        metrics.setEntityId(entityId);
+        metrics.setPrecision(getPrecision());
+        metrics.getDataset().append(getDataset());
+        metrics.getPercentileValues().append(getPercentileValues());
+        return metrics;
+    }
+
+    /**
+     * Create the metrics of the given service in the given minute, as the dispatcher does.
+     */
+    public static ServicePercentileMetrics of(int service, long timeBucket, int latency) {
+        ServicePercentileMetrics metrics = new ServicePercentileMetrics();
+        metrics.setEntityId("c2VydmljZS0" + service + ".1");
+        metrics.setTimeBucket(timeBucket);
+        metrics.combine(latency, 10);
+        return metrics;
+    }
+
+    public static class Builder implements StorageBuilder<ServicePercentileMetrics> {
+        @Override
+        public Map<String, Object> data2Map(ServicePercentileMetrics storageData) {
+            Map<String, Object> map = new HashMap<>();
+            map.put(ENTITY_ID, storageData.getEntityId());
+            map.put(VALUE, storageData.getPercentileValues());
+            map.put(PRECISION, storageData.getPrecision());
+            map.put(DATASET, storageData.getDataset());
+            map.put(TIME_BUCKET, storageData.getTimeBucket());
+            return map;
+        }
+
+        @Override
+        public void data2Columns(ServicePercentileMetrics storageData, ColumnWriter writer) throws IOException {
+            writer.write(ENTITY_ID, storageData.getEntityId());
+            writer.write(VALUE, storageData.getPercentileValues());
+            writer.write(PRECISION, new Integer(storageData.getPrecision()));
+            writer.write(DATASET, storageData.getDataset());
+            writer.write(TIME_BUCKET, new Long(storageData.getTimeBucket()));
+        }
+
+        @Override
+        public ServicePercentileMetrics map2Data(Map<String, Object> dbMap) {
+            ServicePercentileMetrics metrics = new ServicePercentileMetrics();
+            metrics.setEntityId((String) dbMap.get(ENTITY_ID));
+            metrics.setPercentileValues(new DataTable((String) dbMap.get(VALUE)));
+            metrics.setPrecision(((Number) dbMap.get(PRECISION)).intValue());
+            metrics.setDataset(new DataTable((String) dbMap.get(DATASET)));
+            metrics.setTimeBucket(((Number) dbMap.get(TIME_BUCKET)).longValue());
+            return metrics;
+        }
+    }
+}
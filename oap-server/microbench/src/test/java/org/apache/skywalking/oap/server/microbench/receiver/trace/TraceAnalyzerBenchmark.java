@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.receiver.trace;
+
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.cache.NetworkAddressAliasCache;
+import org.apache.skywalking.oap.server.core.config.NamingLengthControl;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.microbench.fixture.SegmentFixtures;
+import org.apache.skywalking.oap.server.receiver.trace.provider.DBLatencyThresholdsAndWatcher;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceModuleProvider;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.receiver.trace.provider.UninstrumentedGatewaysConfig;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParserListenerManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.TraceAnalyzer;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.MultiScopesAnalysisListener;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.NetworkAddressAliasMappingListener;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.SegmentAnalysisListener;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Analyze the segments through the same listeners as the default trace receiver, the sources are counted rather than
+ * dispatched, so the cost of the OAL and the storage is excluded.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Thread)
+public class TraceAnalyzerBenchmark {
+    private static final int SEGMENTS = 1000;
+
+    private final SegmentObject[] segments = new SegmentObject[SEGMENTS];
+    private CountingSourceReceiver sourceReceiver;
+    private ModuleManager moduleManager;
+    private SegmentParserListenerManager listenerManager;
+    private TraceServiceModuleConfig config;
+    private TraceAnalyzer reusedAnalyzer;
+    private int index;
+
+    @Setup
+    public void setup() throws Exception {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = SegmentFixtures.segment(i);
+        }
+
+        sourceReceiver = new CountingSourceReceiver();
+        ModuleDefineTesting coreModule = new ModuleDefineTesting();
+        coreModule.provider().registerServiceImplementation(SourceReceiver.class, sourceReceiver);
+        coreModule.provider().registerServiceImplementation(
+            NetworkAddressAliasCache.class, new NetworkAddressAliasCache(new CoreModuleConfig()));
+        coreModule.provider().registerServiceImplementation(
+            NamingLengthControl.class, new NamingLengthControl(70, 100, 150));
+        moduleManager = mock(ModuleManager.class);
+        when(moduleManager.find(CoreModule.NAME)).thenReturn(coreModule);
+
+        config = new TraceServiceModuleConfig();
+        config.setDbLatencyThresholdsAndWatcher(
+            new DBLatencyThresholdsAndWatcher(config.getSlowDBAccessThreshold(), new TraceModuleProvider()));
+        // Stub only, the invocations on the hot path are not recorded.
+        config.setUninstrumentedGatewaysConfig(
+            mock(UninstrumentedGatewaysConfig.class, withSettings().stubOnly()));
+
+        listenerManager = new SegmentParserListenerManager();
+        listenerManager.add(new MultiScopesAnalysisListener.Factory(moduleManager));
+        listenerManager.add(new NetworkAddressAliasMappingListener.Factory(moduleManager));
+        listenerManager.add(new SegmentAnalysisListener.Factory(moduleManager, config));
+        reusedAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
+    }
+
+    /**
+     * One operation is one segment, the analyzer is created per segment.
+     */
+    @Benchmark
+    public long doAnalysis() {
+        index = (index + 1) % SEGMENTS;
+        new TraceAnalyzer(moduleManager, listenerManager, config).doAnalysis(segments[index]);
+        return sourceReceiver.received;
+    }
+
+    /**
+     * One operation is one segment, the analyzer and its listeners are reused as the receiver does per thread.
+     */
+    @Benchmark
+    public long doAnalysisReused() {
+        index = (index + 1) % SEGMENTS;
+        reusedAnalyzer.doAnalysis(segments[index]);
+        return sourceReceiver.received;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(TraceAnalyzerBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    private static class CountingSourceReceiver implements SourceReceiver {
+        private long received;
+
+        @Override
+        public void receive(Source source) {
+            received++;
+        }
+
+        @Override
+        public DispatcherDetectorListener getDispatcherDetectorListener() {
+            return null;
+        }
+    }
+}
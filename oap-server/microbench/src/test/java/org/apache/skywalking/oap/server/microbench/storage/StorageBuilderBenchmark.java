@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.microbench.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.StorageData;
+import org.apache.skywalking.oap.server.core.storage.model.ColumnName;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+import org.apache.skywalking.oap.server.microbench.fixture.EndpointAvgMetrics;
+import org.apache.skywalking.oap.server.microbench.fixture.ServicePercentileMetrics;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2SQLExecutor;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Convert the metrics into the insert requests of ElasticSearch and JDBC, as the persistence does in every round. The
+ * ElasticSearch documents are built through {@link StorageBuilder#data2Columns}, and the JDBC statements through {@link
+ * StorageBuilder#data2Map}. No request is sent.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Thread)
+public class StorageBuilderBenchmark {
+    private final EsRequestBuilder esRequestBuilder = new EsRequestBuilder();
+    private final JDBCRequestBuilder jdbcRequestBuilder = new JDBCRequestBuilder();
+    private final EndpointAvgMetrics.Builder longAvgBuilder = new EndpointAvgMetrics.Builder();
+    private final ServicePercentileMetrics.Builder percentileBuilder = new ServicePercentileMetrics.Builder();
+    private EndpointAvgMetrics longAvg;
+    private ServicePercentileMetrics percentile;
+
+    @Setup
+    public void setup() {
+        longAvg = EndpointAvgMetrics.of(1, 202005201230L, 120);
+        percentile = ServicePercentileMetrics.of(1, 202005201230L, 120);
+        for (int i = 0; i < 100; i++) {
+            percentile.combine(i * 37 % 2000, 10);
+        }
+        percentile.calculate();
+
+        TableMetaInfo.addModel(new Model(EndpointAvgMetrics.INDEX_NAME, Arrays.asList(
+            column(EndpointAvgMetrics.INDEX_NAME, Metrics.ENTITY_ID, String.class, false),
+            column(EndpointAvgMetrics.INDEX_NAME, EndpointAvgMetrics.SERVICE_ID, String.class, false),
+            column(EndpointAvgMetrics.INDEX_NAME, "summation", long.class, false),
+            column(EndpointAvgMetrics.INDEX_NAME, "count", long.class, false),
+            column(EndpointAvgMetrics.INDEX_NAME, "value", long.class, true),
+            column(EndpointAvgMetrics.INDEX_NAME, Metrics.TIME_BUCKET, long.class, false)
+        ), new ArrayList<>(), 0, DownSampling.Minute, false));
+        TableMetaInfo.addModel(new Model(ServicePercentileMetrics.INDEX_NAME, Arrays.asList(
+            column(ServicePercentileMetrics.INDEX_NAME, Metrics.ENTITY_ID, String.class, false),
+            column(ServicePercentileMetrics.INDEX_NAME, "value", DataTable.class, false),
+            column(ServicePercentileMetrics.INDEX_NAME, "precision", int.class, false),
+            column(ServicePercentileMetrics.INDEX_NAME, "dataset", DataTable.class, false),
+            column(ServicePercentileMetrics.INDEX_NAME, Metrics.TIME_BUCKET, long.class, false)
+        ), new ArrayList<>(), 0, DownSampling.Minute, false));
+    }
+
+    @Benchmark
+    public Map<String, Object> longAvgData2Map() {
+        return longAvgBuilder.data2Map(longAvg);
+    }
+
+    @Benchmark
+    public Map<String, Object> percentileData2Map() {
+        return percentileBuilder.data2Map(percentile);
+    }
+
+    @Benchmark
+    public XContentBuilder longAvgEs() throws IOException {
+        return esRequestBuilder.build(longAvgBuilder, longAvg);
+    }
+
+    @Benchmark
+    public XContentBuilder percentileEs() throws IOException {
+        return esRequestBuilder.build(percentileBuilder, percentile);
+    }
+
+    @Benchmark
+    public SQLExecutor longAvgJDBC() throws IOException {
+        return jdbcRequestBuilder.build(EndpointAvgMetrics.INDEX_NAME, longAvg, longAvgBuilder);
+    }
+
+    @Benchmark
+    public SQLExecutor percentileJDBC() throws IOException {
+        return jdbcRequestBuilder.build(ServicePercentileMetrics.INDEX_NAME, percentile, percentileBuilder);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(StorageBuilderBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    private static ModelColumn column(String modelName, String name, Class<?> type, boolean isValue) {
+        return new ModelColumn(new ColumnName(modelName, name), type, false, false, isValue, 200);
+    }
+
+    /**
+     * Build the document source as the ElasticSearch DAOs.
+     */
+    private static class EsRequestBuilder extends EsDAO {
+        private EsRequestBuilder() {
+            super(null);
+        }
+
+        private <T extends StorageData> XContentBuilder build(StorageBuilder<T> storageBuilder,
+                                                              T storageData) throws IOException {
+            return data2builder(storageBuilder, storageData);
+        }
+    }
+
+    /**
+     * Build the insert statement as the JDBC DAOs.
+     */
+    private static class JDBCRequestBuilder extends H2SQLExecutor {
+        private <T extends StorageData> SQLExecutor build(String modelName, T metrics,
+                                                          StorageBuilder<T> storageBuilder) throws IOException {
+            return getInsertExecutor(modelName, metrics, storageBuilder);
+        }
+    }
+}
@@ -97,6 +97,7 @@ public class OALRuntime implements OALEngine {
     };
     private static final String[] METRICS_BUILDER_CLASS_METHODS = {
         "data2Map",
+        "data2Columns",
         "map2Data"
     };
 
@@ -0,0 +1,29 @@
+public void data2Columns(org.apache.skywalking.oap.server.core.storage.StorageData input, org.apache.skywalking.oap.server.core.storage.ColumnWriter writer) throws java.io.IOException {
+${metricsClassPackage}${metricsName}Metrics storageData = (${metricsClassPackage}${metricsName}Metrics)input;
+<#list fieldsFromSource as field>
+    <#if field.typeName == "long">
+        writer.write("${field.columnName}", new Long(storageData.${field.fieldGetter}()));
+    <#elseif field.typeName == "int">
+        writer.write("${field.columnName}", new Integer(storageData.${field.fieldGetter}()));
+    <#elseif field.typeName == "double">
+        writer.write("${field.columnName}", new Double(storageData.${field.fieldGetter}()));
+    <#elseif field.typeName == "float">
+        writer.write("${field.columnName}", new Float(storageData.${field.fieldGetter}()));
+    <#else>
+        writer.write("${field.columnName}", storageData.${field.fieldGetter}());
+    </#if>
+</#list>
+<#list persistentFields as field>
+    <#if field.typeName == "long">
+        writer.write("${field.columnName}", new Long(storageData.${field.fieldGetter}()));
+    <#elseif field.typeName == "int">
+        writer.write("${field.columnName}", new Integer(storageData.${field.fieldGetter}()));
+    <#elseif field.typeName == "double">
+        writer.write("${field.columnName}", new Double(storageData.${field.fieldGetter}()));
+    <#elseif field.typeName == "float">
+        writer.write("${field.columnName}", new Float(storageData.${field.fieldGetter}()));
+    <#else>
+        writer.write("${field.columnName}", storageData.${field.fieldGetter}());
+    </#if>
+</#list>
+}
@@ -41,6 +41,34 @@ public class CoreModuleConfig extends ModuleConfig {
     private int maxConcurrentCallsPerConnection;
     private int maxMessageSize;
     private boolean enableDatabaseSession;
+    /**
+     * The timeout of the metrics in the database session, for the minute, hour and day metrics. Unit is millisecond.
+     * The metrics are reloaded from the storage after timeout.
+     */
+    private long minuteMetricsSessionTimeout = 70_000L;
+    private long hourMetricsSessionTimeout = 600_000L;
+    private long dayMetricsSessionTimeout = 600_000L;
+    /**
+     * The max number of the metrics in the database session of every minute, hour and day model. A model holds the
+     * metrics of one metrics name in one downsampling.
+     */
+    private long maxSizeOfMinuteMetricsSession = 100_000L;
+    private long maxSizeOfHourMetricsSession = 50_000L;
+    private long maxSizeOfDayMetricsSession = 50_000L;
+    /**
+     * The max number of the cached metrics values of the closed time buckets, used by the metrics queries. 0 means no
+     * cache.
+     */
+    private long maxSizeOfMetricsQueryCache = 100_000L;
+    /**
+     * The delay after the end of a time bucket, the metrics values of the time bucket could be cached by the queries.
+     * It should cover the L1 aggregation, the L2 aggregation and the persistent period. Unit is second.
+     */
+    private long metricsQueryCacheClosedDelay = 300;
+    /**
+     * The max number of cached encoded and decoded names of the service, instance and endpoint ids. 0 means no cache.
+     */
+    private long maxSizeOfIDCache = 100_000L;
     private int topNReportPeriod;
     private final List<String> downsampling;
     /**
@@ -48,10 +76,27 @@ public class CoreModuleConfig extends ModuleConfig {
      */
 
     private long persistentPeriod = 3;
+    /**
+     * The number of threads used to prepare and execute the persistence of metrics data in parallel.
+     */
+    private int prepareThreads = 2;
+    /**
+     * The max number of prepared requests, executed by one prepare thread in one batch.
+     */
+    private int maxSyncOperationNum = 50000;
+    /**
+     * The period of flushing the L1 aggregated metrics to the L2 aggregation. The metrics received in one period are
+     * merged before sending. Unit is millisecond.
+     */
+    private long l1FlushPeriod = 500;
 
     private boolean enableDataKeeperExecutor = true;
 
     private int dataKeeperExecutePeriod = 5;
+    /**
+     * The number of threads removing the expired data of the models in parallel.
+     */
+    private int dataKeeperExecuteThreads = 2;
     /**
      * The time to live of all metrics data. Unit is day.
      */
@@ -71,6 +116,15 @@ public class CoreModuleConfig extends ModuleConfig {
      */
 
     private int remoteTimeout = 20;
+    /**
+     * The gRPC compressor name of cluster internal communication, such as gzip. Empty means no compression.
+     */
+    private String remoteCompression = "";
+    /**
+     * The selector of the metrics routed to the L2 aggregation, hashCode or consistentHash. All OAP nodes must use the
+     * same one, so switching it requires restarting the whole cluster together rather than a rolling upgrade.
+     */
+    private String remoteHashSelector = "hashCode";
     /**
      * The size of network address alias.
      */
@@ -111,6 +165,29 @@ public class CoreModuleConfig extends ModuleConfig {
      * In the current practice, we don't recommend the length over 190.
      */
     private int endpointNameMaxLength = 150;
+    /**
+     * Save the segment binary deflated with a preset dictionary. The segments saved before are still readable. Keep it
+     * off until all OAP nodes are upgraded, as the older OAP can't read the compressed segments.
+     */
+    private boolean segmentBinaryCompression = false;
+    /**
+     * Save the labeled metrics values, such as the heatmap buckets, in the compact format. The values saved before are
+     * still readable. Keep it off until all OAP nodes are upgraded, as the older OAP can't read the compact format.
+     */
+    private boolean compactDataTable = false;
+    /**
+     * The max number of records of every model waiting to be persisted.
+     */
+    private int recordPersistentQueueSize = 10_000;
+    /**
+     * The number of threads building the insert requests of the records and pushing them into the storage batch.
+     */
+    private int recordPersistentThreads = 2;
+    /**
+     * The policy of the record arriving when the persistent queue is full, drop or block. Drop keeps the receiver
+     * threads away from the slow storage, block pushes the back pressure to the agents.
+     */
+    private String recordQueueFullPolicy = "drop";
 
     public CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
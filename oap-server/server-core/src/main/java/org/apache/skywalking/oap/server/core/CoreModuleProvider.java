@@ -24,10 +24,14 @@ import org.apache.skywalking.oap.server.configuration.api.ConfigurationModule;
 import org.apache.skywalking.oap.server.configuration.api.DynamicConfigurationService;
 import org.apache.skywalking.oap.server.core.analysis.ApdexThresholdConfig;
 import org.apache.skywalking.oap.server.core.analysis.DisableRegister;
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.StreamAnnotationListener;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentBinaryCodec;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.apache.skywalking.oap.server.core.analysis.metrics.ApdexMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
+import org.apache.skywalking.oap.server.core.analysis.worker.RecordStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNStreamProcessor;
 import org.apache.skywalking.oap.server.core.annotation.AnnotationScan;
 import org.apache.skywalking.oap.server.core.cache.CacheUpdateTimer;
@@ -85,6 +89,7 @@ import org.apache.skywalking.oap.server.library.server.ServerException;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCServer;
 import org.apache.skywalking.oap.server.library.server.jetty.JettyServer;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 /**
  * Core module provider includes the recommended and default implementations of {@link CoreModule#services()}. All
@@ -202,7 +207,8 @@ public class CoreModuleProvider extends ModuleProvider {
         this.registerServiceImplementation(IWorkerInstanceGetter.class, instancesService);
         this.registerServiceImplementation(IWorkerInstanceSetter.class, instancesService);
 
-        this.registerServiceImplementation(RemoteSenderService.class, new RemoteSenderService(getManager()));
+        this.registerServiceImplementation(
+            RemoteSenderService.class, new RemoteSenderService(getManager(), moduleConfig.getRemoteHashSelector()));
         this.registerServiceImplementation(ModelCreator.class, storageModels);
         this.registerServiceImplementation(IModelManager.class, storageModels);
         this.registerServiceImplementation(ModelManipulator.class, storageModels);
@@ -212,7 +218,10 @@ public class CoreModuleProvider extends ModuleProvider {
 
         this.registerServiceImplementation(TopologyQueryService.class, new TopologyQueryService(getManager()));
         this.registerServiceImplementation(MetricsMetadataQueryService.class, new MetricsMetadataQueryService());
-        this.registerServiceImplementation(MetricsQueryService.class, new MetricsQueryService(getManager()));
+        this.registerServiceImplementation(
+            MetricsQueryService.class, new MetricsQueryService(getManager(), moduleConfig.getMaxSizeOfMetricsQueryCache(),
+                                                               moduleConfig.getMetricsQueryCacheClosedDelay() * 1000
+            ));
         this.registerServiceImplementation(TraceQueryService.class, new TraceQueryService(getManager()));
         this.registerServiceImplementation(LogQueryService.class, new LogQueryService(getManager()));
         this.registerServiceImplementation(MetadataQueryService.class, new MetadataQueryService(getManager()));
@@ -242,10 +251,33 @@ public class CoreModuleProvider extends ModuleProvider {
         } else {
             this.remoteClientManager = new RemoteClientManager(getManager(), moduleConfig.getRemoteTimeout());
         }
+        remoteClientManager.setRemoteCompression(moduleConfig.getRemoteCompression());
         this.registerServiceImplementation(RemoteClientManager.class, remoteClientManager);
 
         MetricsStreamProcessor.getInstance().setEnableDatabaseSession(moduleConfig.isEnableDatabaseSession());
+        MetricsStreamProcessor.getInstance()
+                              .setMinuteMetricsSessionTimeout(moduleConfig.getMinuteMetricsSessionTimeout());
+        MetricsStreamProcessor.getInstance().setHourMetricsSessionTimeout(moduleConfig.getHourMetricsSessionTimeout());
+        MetricsStreamProcessor.getInstance().setDayMetricsSessionTimeout(moduleConfig.getDayMetricsSessionTimeout());
+        MetricsStreamProcessor.getInstance()
+                              .setMaxSizeOfMinuteMetricsSession(moduleConfig.getMaxSizeOfMinuteMetricsSession());
+        MetricsStreamProcessor.getInstance()
+                              .setMaxSizeOfHourMetricsSession(moduleConfig.getMaxSizeOfHourMetricsSession());
+        MetricsStreamProcessor.getInstance()
+                              .setMaxSizeOfDayMetricsSession(moduleConfig.getMaxSizeOfDayMetricsSession());
+        MetricsStreamProcessor.getInstance().setL1FlushPeriod(moduleConfig.getL1FlushPeriod());
         TopNStreamProcessor.getInstance().setTopNWorkerReportCycle(moduleConfig.getTopNReportPeriod());
+        SegmentBinaryCodec.setCompressionEnabled(moduleConfig.isSegmentBinaryCompression());
+        DataTable.setCompactStorageData(moduleConfig.isCompactDataTable());
+        IDManager.setCacheSize(moduleConfig.getMaxSizeOfIDCache());
+        RecordStreamProcessor.getInstance().setRecordPersistentQueueSize(moduleConfig.getRecordPersistentQueueSize());
+        RecordStreamProcessor.getInstance().setRecordPersistentThreads(moduleConfig.getRecordPersistentThreads());
+        try {
+            RecordStreamProcessor.getInstance().setRecordQueueFullPolicy(
+                RecordStreamProcessor.QueueFullPolicy.of(moduleConfig.getRecordQueueFullPolicy()));
+        } catch (IllegalArgumentException e) {
+            throw new ModuleStartException("Invalid core/recordQueueFullPolicy. " + e.getMessage(), e);
+        }
         apdexThresholdConfig = new ApdexThresholdConfig(this);
         ApdexMetrics.setDICT(apdexThresholdConfig);
     }
@@ -283,6 +315,10 @@ public class CoreModuleProvider extends ModuleProvider {
                                                                               .getService(
                                                                                   DynamicConfigurationService.class);
         dynamicConfigurationService.registerConfigChangeWatcher(apdexThresholdConfig);
+
+        IDManager.setCacheTelemetry(getManager().find(TelemetryModule.NAME)
+                                                .provider()
+                                                .getService(MetricsCreator.class));
     }
 
     @Override
@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.oap.server.core.analysis;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import lombok.EqualsAndHashCode;
@@ -26,11 +28,47 @@ import lombok.RequiredArgsConstructor;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * IDManager includes all ID encode/decode functions for service, service instance and endpoint.
+ * <p>
+ * The encoded and decoded names are kept in a bounded cache, as the same service, instance and endpoint names are
+ * encoded for every span. An encoded name and its literal are put into the cache together, so the repeated encoding
+ * and decoding of a name return one string instance. The ids composed of the encoded names, such as the service id
+ * with its node type flag, are still concatenated for every call, the sources keep their built entity id instead, as
+ * the source is dispatched to many metrics.
  */
 public class IDManager {
+    private static volatile Cache<String, String> ENCODED_CACHE = buildCache(100_000);
+    private static volatile Cache<String, String> DECODED_CACHE = buildCache(100_000);
+    private static volatile CounterMetrics CACHE_HIT_COUNTER;
+    private static volatile CounterMetrics CACHE_MISS_COUNTER;
+
+    /**
+     * Reset the max size of the encoding and decoding caches. Size 0 means no cache.
+     */
+    public static void setCacheSize(long maxSize) {
+        ENCODED_CACHE = buildCache(maxSize);
+        DECODED_CACHE = buildCache(maxSize);
+    }
+
+    /**
+     * Report the hit and miss counts of the encoding and decoding caches through the telemetry.
+     */
+    public static void setCacheTelemetry(MetricsCreator metricsCreator) {
+        CACHE_HIT_COUNTER = metricsCreator.createCounter(
+            "id_cache_hit_count", "The hit count of the entity ID encoding cache.", MetricsTag.EMPTY_KEY,
+            MetricsTag.EMPTY_VALUE
+        );
+        CACHE_MISS_COUNTER = metricsCreator.createCounter(
+            "id_cache_miss_count", "The miss count of the entity ID encoding cache.", MetricsTag.EMPTY_KEY,
+            MetricsTag.EMPTY_VALUE
+        );
+    }
+
     /**
      * Service ID related functions.
      */
@@ -278,7 +316,18 @@ public class IDManager {
      * @return Base74 encoded UTF-8 string
      */
     private static String encode(String text) {
-        return new String(Base64.getEncoder().encode(text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        final Cache<String, String> encodedCache = ENCODED_CACHE;
+        String encoded = encodedCache.getIfPresent(text);
+        if (encoded != null) {
+            hit();
+            return encoded;
+        }
+        miss();
+        encoded = new String(
+            Base64.getEncoder().encode(text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        encodedCache.put(text, encoded);
+        DECODED_CACHE.put(encoded, text);
+        return encoded;
     }
 
     /**
@@ -286,6 +335,34 @@ public class IDManager {
      * @return normal literal string
      */
     private static String decode(String base64text) {
-        return new String(Base64.getDecoder().decode(base64text), StandardCharsets.UTF_8);
+        final Cache<String, String> decodedCache = DECODED_CACHE;
+        String text = decodedCache.getIfPresent(base64text);
+        if (text != null) {
+            hit();
+            return text;
+        }
+        miss();
+        text = new String(Base64.getDecoder().decode(base64text), StandardCharsets.UTF_8);
+        decodedCache.put(base64text, text);
+        ENCODED_CACHE.put(text, base64text);
+        return text;
+    }
+
+    private static Cache<String, String> buildCache(long maxSize) {
+        return CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    private static void hit() {
+        final CounterMetrics counter = CACHE_HIT_COUNTER;
+        if (counter != null) {
+            counter.inc();
+        }
+    }
+
+    private static void miss() {
+        final CounterMetrics counter = CACHE_MISS_COUNTER;
+        if (counter != null) {
+            counter.inc();
+        }
     }
 }
@@ -18,20 +18,23 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 
 /**
  * MergableBufferedData is a thread no safe implementation of {@link BufferedData}. {@link Metrics} in this cache would
  * be {@link Metrics#combine(Metrics)} if their {@link Metrics#id()}s are same.
  *
+ * The metrics are keyed by themselves, the {@link Object#hashCode()} and {@link Object#equals(Object)} of the metrics
+ * are consistent with the {@link Metrics#id()}, and avoid building the ID string of every metrics.
+ *
  * Concurrency {@link #accept(Metrics)}s and {@link #read()} while {@link #accept(Metrics)} are both not recommended.
  */
 public class MergableBufferedData<METRICS extends Metrics> implements BufferedData<METRICS> {
-    private Map<String, METRICS> buffer;
+    private Map<METRICS, METRICS> buffer;
 
     public MergableBufferedData() {
         buffer = new HashMap<>();
@@ -46,19 +49,25 @@ public class MergableBufferedData<METRICS extends Metrics> implements BufferedDa
      */
     @Override
     public void accept(final METRICS data) {
-        final String id = data.id();
-        final METRICS existed = buffer.get(id);
+        final METRICS existed = buffer.get(data);
         if (existed == null) {
-            buffer.put(id, data);
+            buffer.put(data, data);
         } else {
             existed.combine(data);
         }
     }
 
+    /**
+     * @return the number of the merged metrics in the cache.
+     */
+    public int size() {
+        return buffer.size();
+    }
+
     @Override
     public List<METRICS> read() {
         try {
-            return buffer.values().stream().collect(Collectors.toList());
+            return new ArrayList<>(buffer.values());
         } finally {
             buffer.clear();
         }
@@ -18,77 +18,180 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * ReadWriteSafeCache provides a read/write isolated cache.
+ *
+ * Every writer thread owns a {@link Stripe}, which hosts its own pair of read/write switchable buffers. Writers never
+ * share a buffer, so {@link #write(Object)} is lock free. {@link #read()} swaps the buffers of every stripe, waits for
+ * the in-flight write(if any) of the previous epoch finished, then drains and merges them through a new buffer.
  */
 public class ReadWriteSafeCache<T> {
     /**
-     * Pointer of read buffer.
+     * Creator of the buffers, all buffers of this cache share the same merge/limit logic.
+     */
+    private final Supplier<BufferedData<T>> bufferCreator;
+    /**
+     * The stripe owned by the current writer thread.
      */
-    private volatile BufferedData<T> readBufferPointer;
+    private final ThreadLocal<Stripe<T>> localStripe;
     /**
-     * Pointer of write buffer.
+     * All stripes registered by the writer threads.
      */
-    private volatile BufferedData<T> writeBufferPointer;
+    private final List<Stripe<T>> stripes;
     /**
-     * Read/Write lock.
+     * Lock between readers only, writers never touch it.
      */
-    private final ReentrantLock lock;
+    private final ReentrantLock readLock;
 
     /**
-     * Build the Cache through two given buffer instances.
+     * Build the Cache through the given buffer creator.
      *
-     * @param buffer1 read/write switchable buffer
-     * @param buffer2 read/write switchable buffer. It is the write buffer at the beginning.
+     * @param bufferCreator creates the read/write switchable buffer for every writer thread.
      */
-    public ReadWriteSafeCache(BufferedData<T> buffer1, BufferedData<T> buffer2) {
-        readBufferPointer = buffer1;
-        writeBufferPointer = buffer2;
-        lock = new ReentrantLock();
+    public ReadWriteSafeCache(Supplier<BufferedData<T>> bufferCreator) {
+        this.bufferCreator = bufferCreator;
+        this.stripes = new CopyOnWriteArrayList<>();
+        this.localStripe = ThreadLocal.withInitial(() -> {
+            Stripe<T> stripe = new Stripe<>(bufferCreator.get(), bufferCreator.get());
+            stripes.add(stripe);
+            return stripe;
+        });
+        this.readLock = new ReentrantLock();
     }
 
     /**
-     * Write the into the {@link #writeBufferPointer} buffer.
+     * Write the data into the write buffer of the current thread stripe.
      *
      * @param data to enqueue.
      */
     public void write(T data) {
-        lock.lock();
-        try {
-            writeBufferPointer.accept(data);
-        } finally {
-            lock.unlock();
-        }
+        localStripe.get().write(data);
     }
 
     /**
-     * Write the collection of data into the {@link #writeBufferPointer} buffer.
+     * Write the collection of data into the write buffer of the current thread stripe.
      *
      * @param data to enqueue.
      */
     public void write(List<T> data) {
-        lock.lock();
+        localStripe.get().write(data);
+    }
+
+    /**
+     * Switch the read and write buffers of all stripes, and read the merged data.
+     *
+     * @return all data written since the last read.
+     */
+    public List<T> read() {
+        readLock.lock();
         try {
-            data.forEach(writeBufferPointer::accept);
+            List<T> first = null;
+            BufferedData<T> merged = null;
+            for (Stripe<T> stripe : stripes) {
+                List<T> data = stripe.swapAndRead();
+                if (data.isEmpty()) {
+                    continue;
+                }
+                if (first == null) {
+                    first = data;
+                    continue;
+                }
+                if (merged == null) {
+                    // Same ID could exist in different stripes, merge them through a new buffer.
+                    merged = bufferCreator.get();
+                    first.forEach(merged::accept);
+                }
+                data.forEach(merged::accept);
+            }
+
+            if (merged != null) {
+                return merged.read();
+            }
+            return first == null ? new ArrayList<>(0) : first;
         } finally {
-            lock.unlock();
+            readLock.unlock();
         }
     }
 
-    public List<T> read() {
-        lock.lock();
-        try {
-            // Switch the read and write pointers, when there is no writing.
+    /**
+     * @return the number of stripes, which equals the number of threads have written into this cache.
+     */
+    public int stripeSize() {
+        return stripes.size();
+    }
+
+    /**
+     * Stripe is a single writer, single reader read/write isolated buffer pair. The swap is epoch based, the writer
+     * announces the buffer it is writing, the reader waits for the announcement of the previous epoch cleared.
+     */
+    private static class Stripe<T> {
+        /**
+         * Pointer of read buffer, only accessed by the reader.
+         */
+        private BufferedData<T> readBufferPointer;
+        /**
+         * Pointer of write buffer.
+         */
+        private volatile BufferedData<T> writeBufferPointer;
+        /**
+         * The buffer being written by the owner thread, null if no writing.
+         */
+        private volatile BufferedData<T> writingBuffer;
+
+        private Stripe(BufferedData<T> buffer1, BufferedData<T> buffer2) {
+            readBufferPointer = buffer1;
+            writeBufferPointer = buffer2;
+        }
+
+        private void write(T data) {
+            BufferedData<T> buffer = acquire();
+            try {
+                buffer.accept(data);
+            } finally {
+                writingBuffer = null;
+            }
+        }
+
+        private void write(List<T> data) {
+            BufferedData<T> buffer = acquire();
+            try {
+                data.forEach(buffer::accept);
+            } finally {
+                writingBuffer = null;
+            }
+        }
+
+        /**
+         * Announce the writing buffer, and make sure it is still the write buffer after the announcement. Otherwise,
+         * the reader may have switched the pointers and not seen the announcement.
+         */
+        private BufferedData<T> acquire() {
+            BufferedData<T> buffer;
+            do {
+                buffer = writeBufferPointer;
+                writingBuffer = buffer;
+            }
+            while (buffer != writeBufferPointer);
+            return buffer;
+        }
+
+        private List<T> swapAndRead() {
             BufferedData<T> tempPointer = writeBufferPointer;
             writeBufferPointer = readBufferPointer;
             readBufferPointer = tempPointer;
 
+            // Wait for the writing of the previous epoch finished.
+            while (writingBuffer == tempPointer) {
+                Thread.yield();
+            }
+
             return readBufferPointer.read();
-        } finally {
-            lock.unlock();
         }
     }
 }
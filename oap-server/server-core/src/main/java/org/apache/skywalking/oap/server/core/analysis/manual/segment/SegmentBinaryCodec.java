@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * The codec of {@link SegmentRecord#getDataBinary()}. The segment is persisted as the deflated protobuf bytes with a
+ * preset dictionary of the strings repeated in nearly every span, such as the tag keys, the HTTP methods and the SQL
+ * keywords, while the service, endpoint and peer names repeated inside one segment are folded by the deflate window.
+ *
+ * <p>The encoded binary starts with {@link #MAGIC}, which could never be the first byte of a serialized
+ * SegmentObject, as field number 0 is illegal in protobuf. So {@link #decode(byte[])} reads the segments saved before
+ * the compression is activated, or by an OAP of the older version, as is.
+ */
+public class SegmentBinaryCodec {
+    static final byte MAGIC = 0x00;
+    static final byte FORMAT_DEFLATE = 0x01;
+
+    /**
+     * The most common strings are put at the end, as the closer to the end, the shorter the distance codes are.
+     */
+    private static final byte[] DICTIONARY = StringUtil.join(
+        '|',
+        "java.lang.", "org.springframework.", "org.apache.", "Exception", ".java:", "at ", "error.kind", "message",
+        "stack", "event", "mq.broker", "mq.topic", "mq.queue", "cache.key", "cache.op", "cache.type", "db.bind_vars",
+        "db.instance", "db.type", "Redis", "Mysql", "sql", "INSERT INTO ", "UPDATE ", " WHERE ", " FROM ", "SELECT ",
+        "db.statement", "status_code", "PUT", "DELETE", "POST", "GET", "http.method", "https://", "http://", "url",
+        "localhost", "127.0.0.1"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The deflater and the scratch buffer of every persistence thread, reset per segment rather than allocating the
+     * native zlib state per segment.
+     */
+    private static final ThreadLocal<Encoder> ENCODERS = ThreadLocal.withInitial(Encoder::new);
+
+    private static volatile boolean COMPRESSION_ENABLED = false;
+
+    public static void setCompressionEnabled(boolean enabled) {
+        COMPRESSION_ENABLED = enabled;
+    }
+
+    /**
+     * @return the compressed binary when the compression is activated and makes the binary shorter, otherwise the
+     * original one.
+     */
+    public static byte[] encode(byte[] dataBinary) {
+        if (!COMPRESSION_ENABLED || dataBinary == null || dataBinary.length == 0) {
+            return dataBinary;
+        }
+
+        final Encoder encoder = ENCODERS.get();
+        final Deflater deflater = encoder.deflater;
+        deflater.reset();
+        deflater.setDictionary(DICTIONARY);
+        deflater.setInput(dataBinary);
+        deflater.finish();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(dataBinary.length / 2 + 16);
+        output.write(MAGIC);
+        output.write(FORMAT_DEFLATE);
+        final byte[] buffer = encoder.buffer;
+        while (!deflater.finished()) {
+            output.write(buffer, 0, deflater.deflate(buffer));
+            if (output.size() >= dataBinary.length) {
+                return dataBinary;
+            }
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * @return the serialized SegmentObject, no matter the binary is compressed or not.
+     * @throws IOException if the binary is in an unknown format or broken.
+     */
+    public static byte[] decode(byte[] dataBinary) throws IOException {
+        if (dataBinary == null || dataBinary.length == 0 || dataBinary[0] != MAGIC) {
+            return dataBinary;
+        }
+        if (dataBinary.length < 2 || dataBinary[1] != FORMAT_DEFLATE) {
+            throw new IOException("Unknown format of the segment binary.");
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(dataBinary, 2, dataBinary.length - 2);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(dataBinary.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int size = inflater.inflate(buffer);
+                if (size == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY);
+                    } else if (inflater.needsInput()) {
+                        throw new IOException("The segment binary is truncated.");
+                    }
+                }
+                output.write(buffer, 0, size);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static class Encoder {
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final byte[] buffer = new byte[1024];
+    }
+}
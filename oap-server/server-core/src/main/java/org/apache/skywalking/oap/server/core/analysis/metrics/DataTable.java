@@ -21,26 +21,37 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
-import lombok.EqualsAndHashCode;
-import lombok.ToString;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
 
 /**
- * DataTable includes a hashmap to store string key and long value. It enhanced the serialization capability.
+ * DataTable includes a map to store string key and long value. It enhanced the serialization capability.
+ *
+ * The keys in the integer literal format are hosted by a primitive {@link IntKeyLongValueHashMap}, which could be
+ * accessed through the int key APIs without any boxing. Other keys, such as {@link
+ * org.apache.skywalking.oap.server.core.query.type.Bucket#INFINITE_NEGATIVE}, are hosted by a {@link HashMap}.
  */
-@ToString
-@EqualsAndHashCode
 public class DataTable implements StorageDataComplexObject<DataTable> {
+    /**
+     * The leading char of the compact storage format, see {@link #toStorageData()}.
+     */
+    private static final char COMPACT_FORMAT = '#';
+    private static volatile boolean COMPACT_STORAGE_DATA = false;
+
+    private final IntKeyLongValueHashMap intData;
+    /**
+     * Lazy initialized, most of the data tables only have int keys.
+     */
     private HashMap<String, Long> data;
 
     public DataTable() {
-        data = new HashMap<>();
+        intData = new IntKeyLongValueHashMap();
     }
 
     public DataTable(int initialCapacity) {
-        data = new HashMap<>(initialCapacity);
+        intData = new IntKeyLongValueHashMap(initialCapacity);
     }
 
     public DataTable(String data) {
@@ -49,85 +60,247 @@ public class DataTable implements StorageDataComplexObject<DataTable> {
     }
 
     public Long get(String key) {
-        return data.get(key);
+        if (isIntKey(key)) {
+            final int intKey = Integer.parseInt(key);
+            return intData.containsKey(intKey) ? intData.get(intKey, 0) : null;
+        }
+        return data == null ? null : data.get(key);
+    }
+
+    /**
+     * @return the value of the key, or the given default value if the key doesn't exist.
+     */
+    public long get(int key, long defaultValue) {
+        return intData.get(key, defaultValue);
     }
 
     public void put(String key, Long value) {
-        data.put(key, value);
+        if (isIntKey(key)) {
+            intData.put(Integer.parseInt(key), value);
+        } else {
+            stringData().put(key, value);
+        }
+    }
+
+    public void put(int key, long value) {
+        intData.put(key, value);
     }
 
     /**
      * Accumulate the value with existing value in the same given key.
      */
     public void valueAccumulation(String key, Long value) {
-        Long element = data.get(key);
-        if (element == null) {
-            element = value;
+        if (isIntKey(key)) {
+            intData.accumulate(Integer.parseInt(key), value);
         } else {
-            element += value;
+            stringData().merge(key, value, Long::sum);
         }
-        data.put(key, element);
+    }
+
+    /**
+     * Accumulate the value with existing value in the same given key.
+     */
+    public void valueAccumulation(int key, long value) {
+        intData.accumulate(key, value);
     }
 
     /**
      * @return the sum of all values.
      */
     public long sumOfValues() {
-        return data.values().stream().mapToLong(element -> element).sum();
+        long sum = intData.sumOfValues();
+        if (data != null) {
+            sum += data.values().stream().mapToLong(element -> element).sum();
+        }
+        return sum;
     }
 
     public boolean keysEqual(DataTable that) {
-        if (this.data.keySet().size() != that.data.keySet().size()) {
+        if (!this.intData.keysEqual(that.intData)) {
             return false;
         }
-        return this.data.keySet().equals(that.data.keySet());
+        return this.stringKeysSize() == that.stringKeysSize()
+            && (this.stringKeysSize() == 0 || this.data.keySet().equals(that.data.keySet()));
     }
 
     public List<String> sortedKeys(Comparator<String> keyComparator) {
-        return data.keySet().stream().sorted(keyComparator).collect(Collectors.toList());
+        return keys().stream().sorted(keyComparator).collect(Collectors.toList());
     }
 
     public List<Long> sortedValues(Comparator<String> keyComparator) {
-        final List<String> collect = data.keySet().stream().sorted(keyComparator).collect(Collectors.toList());
+        final List<String> collect = sortedKeys(keyComparator);
         List<Long> values = new ArrayList<>(collect.size());
-        collect.forEach(key -> values.add(data.get(key)));
+        collect.forEach(key -> values.add(get(key)));
         return values;
     }
 
+    /**
+     * @return the int keys in the ascending order. The keys not in the integer literal format are not included.
+     */
+    public int[] sortedIntKeys() {
+        return intData.sortedKeys();
+    }
+
     public boolean hasData() {
-        return !data.isEmpty();
+        return size() != 0;
     }
 
     public boolean hasKey(String key) {
-        return data.containsKey(key);
+        if (isIntKey(key)) {
+            return intData.containsKey(Integer.parseInt(key));
+        }
+        return data != null && data.containsKey(key);
+    }
+
+    public boolean hasKey(int key) {
+        return intData.containsKey(key);
     }
 
     public int size() {
-        return data.size();
+        return intData.size() + stringKeysSize();
     }
 
+    /**
+     * Activate the compact storage format. All OAP nodes should read the format before it is activated, as the format is
+     * used in the cluster internal communication too.
+     */
+    public static void setCompactStorageData(boolean compactStorageData) {
+        COMPACT_STORAGE_DATA = compactStorageData;
+    }
+
+    /**
+     * The string keys go first, then the int keys in the ascending order.
+     *
+     * <p>When the compact format is activated, the int keys with the common step, such as the buckets of the
+     * histogram, are formatted as `#firstKey,step|value,value,...`, the value is empty if the key doesn't exist.
+     */
     @Override
     public String toStorageData() {
-        StringBuilder builder = new StringBuilder();
+        if (COMPACT_STORAGE_DATA && stringKeysSize() == 0) {
+            final String compact = toCompactStorageData();
+            if (compact != null) {
+                return compact;
+            }
+        }
 
-        this.data.forEach((key, value) -> {
+        StringBuilder builder = new StringBuilder(size() * 8);
+
+        if (data != null) {
+            data.forEach((key, value) -> {
+                if (builder.length() != 0) {
+                    // For the first element.
+                    builder.append(Const.ARRAY_SPLIT);
+                }
+                builder.append(key).append(Const.KEY_VALUE_SPLIT).append(value);
+            });
+        }
+        for (int key : intData.sortedKeys()) {
             if (builder.length() != 0) {
                 // For the first element.
                 builder.append(Const.ARRAY_SPLIT);
             }
-            builder.append(key).append(Const.KEY_VALUE_SPLIT).append(value);
-        });
+            builder.append(key).append(Const.KEY_VALUE_SPLIT).append(intData.get(key, 0));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the data in the compact format, or null if the keys don't share a step, or there are too many holes.
+     */
+    private String toCompactStorageData() {
+        final int[] keys = intData.sortedKeys();
+        if (keys.length < 2) {
+            return null;
+        }
+        long step = 0;
+        for (int i = 1; i < keys.length; i++) {
+            step = gcd(step, (long) keys[i] - keys[i - 1]);
+        }
+        final long slots = ((long) keys[keys.length - 1] - keys[0]) / step + 1;
+        if (slots > keys.length * 2L) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder(keys.length * 4 + 16);
+        builder.append(COMPACT_FORMAT).append(keys[0]).append(Const.KEY_VALUE_SPLIT).append(step)
+               .append(Const.ARRAY_SPLIT);
+        long key = keys[0];
+        for (int i = 0; i < keys.length; key += step) {
+            if (key != keys[0]) {
+                builder.append(Const.KEY_VALUE_SPLIT);
+            }
+            if (key == keys[i]) {
+                builder.append(intData.get(keys[i], 0));
+                i++;
+            }
+        }
         return builder.toString();
     }
 
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            final long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    /**
+     * Read the data in the both of the compact and the `key,value|key,value` formats.
+     */
     @Override
     public void toObject(String data) {
-        String[] keyValues = data.split(Const.ARRAY_PARSER_SPLIT);
-        for (String keyValue : keyValues) {
-            final String[] keyValuePair = keyValue.split(Const.KEY_VALUE_SPLIT);
-            if (keyValuePair.length == 2) {
-                this.data.put(keyValuePair[0], Long.parseLong(keyValuePair[1]));
+        if (!data.isEmpty() && data.charAt(0) == COMPACT_FORMAT) {
+            compactToObject(data);
+            return;
+        }
+
+        int start = 0;
+        final int length = data.length();
+        while (start < length) {
+            int end = data.indexOf(Const.ARRAY_SPLIT, start);
+            if (end < 0) {
+                end = length;
             }
+            final int split = data.indexOf(Const.KEY_VALUE_SPLIT, start);
+            // Only the `key,value` pair is accepted.
+            if (split >= start && split < end - 1) {
+                final int next = data.indexOf(Const.KEY_VALUE_SPLIT, split + 1);
+                if (next < 0 || next >= end) {
+                    final String key = data.substring(start, split);
+                    final long value = Long.parseLong(data.substring(split + 1, end));
+                    if (isIntKey(key)) {
+                        intData.put(Integer.parseInt(key), value);
+                    } else {
+                        stringData().put(key, value);
+                    }
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    private void compactToObject(String data) {
+        final int stepSplit = data.indexOf(Const.KEY_VALUE_SPLIT);
+        final int valuesStart = data.indexOf(Const.ARRAY_SPLIT);
+        if (stepSplit < 0 || valuesStart < stepSplit) {
+            return;
+        }
+        long key = Long.parseLong(data.substring(1, stepSplit));
+        final long step = Long.parseLong(data.substring(stepSplit + 1, valuesStart));
+        int start = valuesStart + 1;
+        final int length = data.length();
+        while (start <= length) {
+            int end = data.indexOf(Const.KEY_VALUE_SPLIT, start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                intData.put((int) key, Long.parseLong(data.substring(start, end)));
+            }
+            key += step;
+            start = end + 1;
         }
     }
 
@@ -137,14 +310,87 @@ public class DataTable implements StorageDataComplexObject<DataTable> {
     }
 
     public void append(DataTable dataTable) {
-        dataTable.data.forEach((key, value) -> {
-            Long current = this.data.get(key);
-            if (current == null) {
-                current = value;
-            } else {
-                current += value;
+        this.intData.accumulate(dataTable.intData);
+        if (dataTable.data != null) {
+            dataTable.data.forEach((key, value) -> stringData().merge(key, value, Long::sum));
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DataTable)) {
+            return false;
+        }
+        final DataTable that = (DataTable) o;
+        if (!intData.equals(that.intData)) {
+            return false;
+        }
+        if (stringKeysSize() == 0 || that.stringKeysSize() == 0) {
+            return stringKeysSize() == that.stringKeysSize();
+        }
+        return Objects.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return intData.hashCode() + (stringKeysSize() == 0 ? 0 : data.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "DataTable(data=" + toStorageData() + ")";
+    }
+
+    private List<String> keys() {
+        List<String> keys = new ArrayList<>(size());
+        if (data != null) {
+            keys.addAll(data.keySet());
+        }
+        for (int key : intData.sortedKeys()) {
+            keys.add(String.valueOf(key));
+        }
+        return keys;
+    }
+
+    private int stringKeysSize() {
+        return data == null ? 0 : data.size();
+    }
+
+    private HashMap<String, Long> stringData() {
+        if (data == null) {
+            data = new HashMap<>();
+        }
+        return data;
+    }
+
+    /**
+     * @return true if the key is the canonical literal of an int, which could be converted back to the same string.
+     */
+    private static boolean isIntKey(String key) {
+        final int length = key.length();
+        if (length == 0 || length > 11) {
+            return false;
+        }
+        int start = key.charAt(0) == '-' ? 1 : 0;
+        if (start == length) {
+            return false;
+        }
+        if (key.charAt(start) == '0' && (length > start + 1 || start == 1)) {
+            // Leading zero or `-0`.
+            return false;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            final char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
             }
-            this.data.put(key, current);
-        });
+            value = value * 10 + (c - '0');
+        }
+        value = start == 1 ? -value : value;
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
     }
 }
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Arrays;
+
+/**
+ * IntKeyLongValueHashMap is an open addressing hash map with primitive int keys and long values. It never boxes the
+ * key or value, and doesn't support removing, which is enough for the histogram like dataset.
+ *
+ * This is not thread safe.
+ */
+public class IntKeyLongValueHashMap {
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    /**
+     * Resize when size reaches this threshold, 3/4 of the capacity.
+     */
+    private int threshold;
+
+    public IntKeyLongValueHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the number of the elements could be hold without resizing.
+     */
+    public IntKeyLongValueHashMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 <= expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return used[indexOf(key)];
+    }
+
+    /**
+     * @return the value of the key, or the given default value if the key doesn't exist.
+     */
+    public long get(int key, long defaultValue) {
+        int index = indexOf(key);
+        return used[index] ? values[index] : defaultValue;
+    }
+
+    public void put(int key, long value) {
+        int index = indexOf(key);
+        if (used[index]) {
+            values[index] = value;
+            return;
+        }
+        insertAt(index, key, value);
+    }
+
+    /**
+     * Accumulate the value with existing value in the same given key.
+     */
+    public void accumulate(int key, long value) {
+        int index = indexOf(key);
+        if (used[index]) {
+            values[index] += value;
+            return;
+        }
+        insertAt(index, key, value);
+    }
+
+    /**
+     * Accumulate all elements of the given map into this map.
+     */
+    public void accumulate(IntKeyLongValueHashMap that) {
+        for (int i = 0; i < that.used.length; i++) {
+            if (that.used[i]) {
+                accumulate(that.keys[i], that.values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the sum of all values.
+     */
+    public long sumOfValues() {
+        long sum = 0;
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return all keys in the ascending order.
+     */
+    public int[] sortedKeys() {
+        int[] result = new int[size];
+        int idx = 0;
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                result[idx++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    public boolean keysEqual(IntKeyLongValueHashMap that) {
+        if (this.size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < used.length; i++) {
+            if (used[i] && !that.containsKey(keys[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntKeyLongValueHashMap)) {
+            return false;
+        }
+        IntKeyLongValueHashMap that = (IntKeyLongValueHashMap) o;
+        if (this.size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                int index = that.indexOf(keys[i]);
+                if (!that.used[index] || that.values[index] != values[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Same as the hash code of a java.util.Map, which is independent of the element order.
+        int hashCode = 0;
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                hashCode += Integer.hashCode(keys[i]) ^ Long.hashCode(values[i]);
+            }
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int key : sortedKeys()) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(get(key, 0));
+        }
+        return builder.append('}').toString();
+    }
+
+    private void insertAt(int index, int key, long value) {
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size >= threshold) {
+            rehash();
+        }
+    }
+
+    /**
+     * @return the slot of the given key, or the empty slot the key should be inserted.
+     */
+    private int indexOf(int key) {
+        int mask = used.length - 1;
+        int index = mix(key) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldUsed.length << 1);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                used[index] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        threshold = capacity * 3 / 4;
+    }
+
+    /**
+     * Spread the keys, as the histogram keys are usually multiples of the step.
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(int key, long value);
+    }
+}
@@ -42,12 +42,6 @@ public abstract class Metrics extends StreamData implements StorageData {
     @Column(columnName = TIME_BUCKET)
     private long timeBucket;
 
-    /**
-     * Time in the cache, only work when MetricsPersistentWorker#enableDatabaseSession == true.
-     */
-    @Getter
-    private long survivalTime = 0L;
-
     /**
      * Merge the given metrics instance, these two must be the same metrics type.
      *
@@ -74,15 +68,6 @@ public abstract class Metrics extends StreamData implements StorageData {
      */
     public abstract Metrics toDay();
 
-    /**
-     * Extend the {@link #survivalTime}
-     *
-     * @param value to extend
-     */
-    public void extendSurvivalTime(long value) {
-        survivalTime += value;
-    }
-
     public long toTimeBucketInHour() {
         if (isMinuteBucket()) {
             return timeBucket / 100;
@@ -18,9 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.stream.IntStream;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
@@ -72,8 +69,7 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
         this.isCalculated = false;
         this.precision = precision;
 
-        String index = String.valueOf(value / precision);
-        dataset.valueAccumulation(index, 1L);
+        dataset.valueAccumulation(value / precision, 1L);
     }
 
     @Override
@@ -95,18 +91,18 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
             }
 
             int count = 0;
-            final List<String> sortedKeys = dataset.sortedKeys(Comparator.comparingInt(Integer::parseInt));
+            final int[] sortedKeys = dataset.sortedIntKeys();
 
             int loopIndex = 0;
-            for (String key : sortedKeys) {
-                final Long value = dataset.get(key);
+            for (int key : sortedKeys) {
+                final long value = dataset.get(key, 0);
 
                 count += value;
                 for (int rankIdx = loopIndex; rankIdx < roofs.length; rankIdx++) {
                     int roof = roofs[rankIdx];
 
                     if (count >= roof) {
-                        percentileValues.put(String.valueOf(rankIdx), Long.parseLong(key) * precision);
+                        percentileValues.put(rankIdx, (long) key * precision);
                         loopIndex++;
                     } else {
                         break;
@@ -117,9 +113,11 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
     }
 
     public int[] getValues() {
-        return percentileValues.sortedValues(Comparator.comparingInt(Integer::parseInt))
-                               .stream()
-                               .flatMapToInt(l -> IntStream.of(l.intValue()))
-                               .toArray();
+        final int[] sortedKeys = percentileValues.sortedIntKeys();
+        int[] values = new int[sortedKeys.length];
+        for (int i = 0; i < sortedKeys.length; i++) {
+            values[i] = (int) percentileValues.get(sortedKeys[i], 0);
+        }
+        return values;
     }
 }
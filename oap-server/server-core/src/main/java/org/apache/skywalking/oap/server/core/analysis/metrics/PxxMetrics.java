@@ -18,8 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
-import java.util.Comparator;
-import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
@@ -67,14 +65,7 @@ public abstract class PxxMetrics extends Metrics implements IntValueHolder {
         this.isCalculated = false;
         this.precision = precision;
 
-        String index = String.valueOf(value / precision);
-        Long element = detailGroup.get(index);
-        if (element == null) {
-            element = 1L;
-        } else {
-            element++;
-        }
-        detailGroup.put(index, element);
+        detailGroup.valueAccumulation(value / precision, 1L);
     }
 
     @Override
@@ -93,13 +84,12 @@ public abstract class PxxMetrics extends Metrics implements IntValueHolder {
             int roof = Math.round(total * percentileRank * 1.0f / 100);
 
             long count = 0;
-            final List<String> sortedKeys = detailGroup.sortedKeys(Comparator.comparingInt(Integer::parseInt));
+            final int[] sortedKeys = detailGroup.sortedIntKeys();
 
-            for (String index : sortedKeys) {
-                final Long value = detailGroup.get(index);
-                count += value;
+            for (int index : sortedKeys) {
+                count += detailGroup.get(index, 0);
                 if (count >= roof) {
-                    this.value = Integer.parseInt(index) * precision;
+                    this.value = index * precision;
                     return;
                 }
             }
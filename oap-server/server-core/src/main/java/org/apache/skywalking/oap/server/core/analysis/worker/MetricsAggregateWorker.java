@@ -31,6 +31,7 @@ import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
@@ -39,19 +40,34 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
  * it merges the data just after the receiver analysis. The metrics belonging to the same entity, metrics type and time
  * bucket, the L1 aggregation will merge them into one metrics object to reduce the unnecessary memory and network
  * payload.
+ *
+ * The metrics are merged in the flush period, rather than in every consume cycle, and sent to the next worker together
+ * when the period ends.
  */
 @Slf4j
 public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
     private AbstractWorker<Metrics> nextWorker;
     private final DataCarrier<Metrics> dataCarrier;
     private final MergableBufferedData<Metrics> mergeDataCache;
+    private final long l1FlushPeriod;
     private CounterMetrics aggregationCounter;
+    private CounterMetrics flushCounter;
+    private GaugeMetrics mergeRatio;
+    private long lastSendTime = 0;
+    /**
+     * The number of metrics accepted in the current flush period.
+     */
+    private long acceptedInPeriod = 0;
 
+    /**
+     * @param l1FlushPeriod the period of flushing the merged metrics to the next worker, in millisecond.
+     */
     MetricsAggregateWorker(ModuleDefineHolder moduleDefineHolder, AbstractWorker<Metrics> nextWorker,
-                           String modelName) {
+                           String modelName, long l1FlushPeriod) {
         super(moduleDefineHolder);
         this.nextWorker = nextWorker;
-        this.mergeDataCache = new MergableBufferedData();
+        this.mergeDataCache = new MergableBufferedData<>();
+        this.l1FlushPeriod = l1FlushPeriod;
         String name = "METRICS_L1_AGGREGATION";
         this.dataCarrier = new DataCarrier<>("MetricsAggregateWorker." + modelName, name, 2, 10000);
 
@@ -71,6 +87,15 @@ public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
             "metrics_aggregation", "The number of rows in aggregation",
             new MetricsTag.Keys("metricName", "level", "dimensionality"), new MetricsTag.Values(modelName, "1", "min")
         );
+        flushCounter = metricsCreator.createCounter(
+            "metrics_aggregation_flush", "The number of merged rows sent to the next level aggregation",
+            new MetricsTag.Keys("metricName", "level", "dimensionality"), new MetricsTag.Values(modelName, "1", "min")
+        );
+        mergeRatio = metricsCreator.createGauge(
+            "metrics_aggregation_merge_ratio",
+            "The number of rows in aggregation divided by the merged rows in the last flush period",
+            new MetricsTag.Keys("metricName", "level", "dimensionality"), new MetricsTag.Values(modelName, "1", "min")
+        );
     }
 
     /**
@@ -92,8 +117,30 @@ public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
             aggregationCounter.inc();
             mergeDataCache.accept(metrics);
         });
+        acceptedInPeriod += metricsList.size();
+
+        flush();
+    }
+
+    /**
+     * Send the merged metrics to the next worker, if the flush period ends.
+     */
+    private void flush() {
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastSendTime < l1FlushPeriod) {
+            return;
+        }
+        lastSendTime = currentTime;
+        if (acceptedInPeriod == 0) {
+            return;
+        }
+
+        final List<Metrics> merged = mergeDataCache.read();
+        flushCounter.inc(merged.size());
+        mergeRatio.setValue((double) acceptedInPeriod / merged.size());
+        acceptedInPeriod = 0;
 
-        mergeDataCache.read().forEach(
+        merged.forEach(
             data -> {
                 if (log.isDebugEnabled()) {
                     log.debug(data.toString());
@@ -118,6 +165,11 @@ public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
             log.error(t.getMessage(), t);
         }
 
+        @Override
+        public void nothingToConsume() {
+            MetricsAggregateWorker.this.flush();
+        }
+
         @Override
         public void onExit() {
         }
@@ -22,7 +22,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,24 +30,40 @@ import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPoolFactory;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
 import org.apache.skywalking.oap.server.core.analysis.data.MergableBufferedData;
 import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * MetricsPersistentWorker is an extension of {@link PersistenceWorker} and focuses on the Metrics data persistent.
  */
 @Slf4j
 public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
+    /**
+     * The nodes discover the cluster changes independently, every 5 seconds. The metrics in this period after the
+     * change could still be routed by the previous cluster.
+     */
+    private static final long CLUSTER_CHANGE_GRACE_PERIOD = 10_000L;
+
     private final Model model;
-    private final Map<Metrics, Metrics> context;
+    private final MetricsSessionCache sessionCache;
+    private final PersistedMetricsFilter persistedFilter;
+    private final CounterMetrics skippedReadCounter;
     private final IMetricsDAO metricsDAO;
     private final Optional<AbstractWorker<Metrics>> nextAlarmWorker;
     private final Optional<AbstractWorker<ExportEvent>> nextExportWorker;
@@ -56,13 +71,19 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     private final Optional<MetricsTransWorker> transWorker;
     private final boolean enableDatabaseSession;
     private final boolean supportUpdate;
+    /**
+     * The metrics inserted in this round, they are cached and recorded in the {@link #persistedFilter} only after the
+     * insert requests are executed.
+     */
+    private final List<Metrics> insertedMetrics = new ArrayList<>();
 
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
                             AbstractWorker<Metrics> nextAlarmWorker, AbstractWorker<ExportEvent> nextExportWorker,
-                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate) {
-        super(moduleDefineHolder, new ReadWriteSafeCache<>(new MergableBufferedData(), new MergableBufferedData()));
+                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate,
+                            long sessionTimeout, long maxSizeOfSession) {
+        super(moduleDefineHolder, model.getName(), new ReadWriteSafeCache<>(MergableBufferedData::new));
         this.model = model;
-        this.context = new HashMap<>(100);
+        this.sessionCache = new MetricsSessionCache(moduleDefineHolder, model, sessionTimeout, maxSizeOfSession);
         this.enableDatabaseSession = enableDatabaseSession;
         this.metricsDAO = metricsDAO;
         this.nextAlarmWorker = Optional.ofNullable(nextAlarmWorker);
@@ -70,6 +91,25 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         this.transWorker = Optional.ofNullable(transWorker);
         this.supportUpdate = supportUpdate;
 
+        /*
+         * Hard coded the initial capacity of one time bucket, the filter grows when it is full. Keep the current time
+         * bucket, and the previous ones for the late data.
+         */
+        this.persistedFilter = new PersistedMetricsFilter(timeBucket(model, System.currentTimeMillis()), 10000, 3);
+        moduleDefineHolder.find(CoreModule.NAME)
+                          .provider()
+                          .getService(RemoteClientManager.class)
+                          .addListener(remoteClients -> persistedFilter.markUnknownUntil(
+                              timeBucket(model, System.currentTimeMillis() + CLUSTER_CHANGE_GRACE_PERIOD)));
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        this.skippedReadCounter = metricsCreator.createCounter(
+            "metrics_persistent_skipped_read_count", "The number of new metrics inserted without reading the storage",
+            new MetricsTag.Keys("metricName", "dimensionality"),
+            new MetricsTag.Values(model.getName(), model.getDownsampling().getName())
+        );
+
         String name = "METRICS_L2_AGGREGATION";
         int size = BulkConsumePool.Creator.recommendMaxSize() / 8;
         if (size == 0) {
@@ -90,13 +130,31 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
      * Create the leaf MetricsPersistentWorker, no next step.
      */
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
-                            boolean enableDatabaseSession, boolean supportUpdate) {
+                            boolean enableDatabaseSession, boolean supportUpdate,
+                            long sessionTimeout, long maxSizeOfSession) {
         this(moduleDefineHolder, model, metricsDAO,
              null, null, null,
-             enableDatabaseSession, supportUpdate
+             enableDatabaseSession, supportUpdate, sessionTimeout, maxSizeOfSession
         );
     }
 
+    /**
+     * @return the time bucket of the given timestamp, such as the one in which this worker starts or the cluster
+     * changes, metrics of the time buckets before and including it may have been persisted by others, such as the node
+     * before reboot. {@link Long#MAX_VALUE} if the downsampling is not for metrics, then no metrics is treated as new.
+     */
+    private static long timeBucket(Model model, long timestamp) {
+        final DownSampling downsampling = model.getDownsampling();
+        switch (downsampling) {
+            case Minute:
+            case Hour:
+            case Day:
+                return TimeBucket.getTimeBucket(timestamp, downsampling);
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+
     /**
      * Accept all metrics data and push them into the queue for serial processing
      */
@@ -143,7 +201,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     private void flushDataToStorage(List<Metrics> metricsList,
                                     List<PrepareRequest> prepareRequests) {
         try {
-            loadFromStorage(metricsList);
+            final Map<Metrics, Metrics> context = loadFromStorage(metricsList);
 
             for (Metrics metrics : metricsList) {
                 Metrics cachedMetrics = context.get(metrics);
@@ -172,6 +230,7 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                     metrics.calculate();
                     prepareRequests.add(metricsDAO.prepareBatchInsert(model, metrics));
                     nextWorker(metrics);
+                    insertedMetrics.add(metrics);
                 }
             }
         } catch (Throwable t) {
@@ -188,16 +247,22 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     }
 
     /**
-     * Load data from the storage, if {@link #enableDatabaseSession} == true, only load data when the id doesn't exist.
+     * Load data from the storage, if {@link #enableDatabaseSession} == true, only load data when the id doesn't exist in
+     * the session cache. The metrics absolutely not persisted, according to the {@link #persistedFilter}, are not
+     * loaded.
+     *
+     * @return the existing metrics of the given metrics, from the session cache or the storage.
      */
-    private void loadFromStorage(List<Metrics> metrics) throws IOException {
-        if (!enableDatabaseSession) {
-            context.clear();
-        }
-
+    private Map<Metrics, Metrics> loadFromStorage(List<Metrics> metrics) throws IOException {
+        Map<Metrics, Metrics> context = new HashMap<>(metrics.size());
         List<String> notInCacheIds = new ArrayList<>();
         for (Metrics metric : metrics) {
-            if (!context.containsKey(metric)) {
+            Metrics cachedMetrics = enableDatabaseSession ? sessionCache.get(metric) : null;
+            if (cachedMetrics != null) {
+                context.put(cachedMetrics, cachedMetrics);
+            } else if (persistedFilter.isNew(metric)) {
+                skippedReadCounter.inc();
+            } else {
                 notInCacheIds.add(metric.id());
             }
         }
@@ -206,22 +271,40 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
             List<Metrics> metricsList = metricsDAO.multiGet(model, notInCacheIds);
             for (Metrics metric : metricsList) {
                 context.put(metric, metric);
+                persistedFilter.persisted(metric);
+                if (enableDatabaseSession) {
+                    sessionCache.put(metric);
+                }
             }
         }
+        return context;
     }
 
+    /**
+     * The inserted metrics are the same as the ones in the storage after a successful flush, cache them to avoid
+     * reading back in the next round. Nothing is cached after a failed flush, the metrics are read back if they exist.
+     *
+     * The inserted metrics are recorded in the {@link #persistedFilter} in both cases, as a failed flush could have
+     * persisted some of them, they should be read back rather than treated as new.
+     */
+    @Override
+    public void afterFlush(boolean succeeded) {
+        for (Metrics metrics : insertedMetrics) {
+            persistedFilter.persisted(metrics);
+            if (succeeded && enableDatabaseSession) {
+                sessionCache.put(metrics);
+            }
+        }
+        insertedMetrics.clear();
+    }
+
+    /**
+     * The expiration of the session is controlled by the {@link MetricsSessionCache}, only clean up here.
+     */
     @Override
     public void endOfRound(long tookTime) {
         if (enableDatabaseSession) {
-            Iterator<Metrics> iterator = context.values().iterator();
-            while (iterator.hasNext()) {
-                Metrics metrics = iterator.next();
-                metrics.extendSurvivalTime(tookTime);
-                // 70,000ms means more than one minute.
-                if (metrics.getSurvivalTime() > 70000) {
-                    iterator.remove();
-                }
-            }
+            sessionCache.cleanUp();
         }
     }
 
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * MetricsSessionCache hosts the metrics, which have been loaded from or saved into the storage, of one model. It is
+ * bounded by the max size, and the metrics expire after the timeout since they are put, then they will be reloaded
+ * from the storage.
+ *
+ * The cached metrics are the same instances changed and persisted by the {@link MetricsPersistentWorker}, so they keep
+ * consistent with the storage, unless the OAP cluster changes and the metrics are routed to another node.
+ */
+class MetricsSessionCache {
+    private final Cache<Metrics, Metrics> cache;
+    private final CounterMetrics hitCounter;
+    private final CounterMetrics missCounter;
+    private final CounterMetrics evictionCounter;
+    private final GaugeMetrics sizeGauge;
+
+    /**
+     * @param timeout in millisecond.
+     * @param maxSize the max number of metrics of this model.
+     */
+    MetricsSessionCache(ModuleDefineHolder moduleDefineHolder, Model model, long timeout, long maxSize) {
+        this(moduleDefineHolder, model, timeout, maxSize, Ticker.systemTicker());
+    }
+
+    MetricsSessionCache(ModuleDefineHolder moduleDefineHolder, Model model, long timeout, long maxSize,
+                        Ticker ticker) {
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        final MetricsTag.Keys keys = new MetricsTag.Keys("metricName", "dimensionality");
+        final MetricsTag.Values values = new MetricsTag.Values(model.getName(), model.getDownsampling().getName());
+        hitCounter = metricsCreator.createCounter(
+            "metrics_persistent_session_hit_count", "The number of metrics found in the session cache", keys, values);
+        missCounter = metricsCreator.createCounter(
+            "metrics_persistent_session_miss_count", "The number of metrics not found in the session cache", keys,
+            values
+        );
+        evictionCounter = metricsCreator.createCounter(
+            "metrics_persistent_session_eviction_count", "The number of metrics evicted from the session cache", keys,
+            values
+        );
+        sizeGauge = metricsCreator.createGauge(
+            "metrics_persistent_session_size", "The number of metrics in the session cache", keys, values);
+
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(maxSize)
+                            .expireAfterWrite(timeout, TimeUnit.MILLISECONDS)
+                            .ticker(ticker)
+                            .<Metrics, Metrics>removalListener(notification -> {
+                                if (notification.wasEvicted()) {
+                                    evictionCounter.inc();
+                                }
+                            })
+                            .build();
+    }
+
+    /**
+     * @return the cached metrics, or NULL if it doesn't exist or has expired.
+     */
+    Metrics get(Metrics metrics) {
+        final Metrics cached = cache.getIfPresent(metrics);
+        if (cached == null) {
+            missCounter.inc();
+        } else {
+            hitCounter.inc();
+        }
+        return cached;
+    }
+
+    void put(Metrics metrics) {
+        cache.put(metrics, metrics);
+    }
+
+    /**
+     * Clean up the expired metrics, and report the size.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+        sizeGauge.setValue(cache.size());
+    }
+}
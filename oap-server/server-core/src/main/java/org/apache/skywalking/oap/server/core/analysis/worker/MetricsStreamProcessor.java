@@ -75,6 +75,36 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
     @Getter
     private boolean enableDatabaseSession;
 
+    /**
+     * Hold and forward the session cache settings in CoreModuleConfig to the persistent worker. The timeouts are in
+     * millisecond.
+     */
+    @Setter
+    @Getter
+    private long minuteMetricsSessionTimeout = 70_000L;
+    @Setter
+    @Getter
+    private long hourMetricsSessionTimeout = 600_000L;
+    @Setter
+    @Getter
+    private long dayMetricsSessionTimeout = 600_000L;
+    @Setter
+    @Getter
+    private long maxSizeOfMinuteMetricsSession = 100_000L;
+    @Setter
+    @Getter
+    private long maxSizeOfHourMetricsSession = 50_000L;
+    @Setter
+    @Getter
+    private long maxSizeOfDayMetricsSession = 50_000L;
+
+    /**
+     * Hold and forward CoreModuleConfig#l1FlushPeriod to the L1 aggregation worker. Unit is millisecond.
+     */
+    @Setter
+    @Getter
+    private long l1FlushPeriod = 500L;
+
     public static MetricsStreamProcessor getInstance() {
         return PROCESSOR;
     }
@@ -162,7 +192,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
 
         MetricsRemoteWorker remoteWorker = new MetricsRemoteWorker(moduleDefineHolder, remoteReceiverWorkerName);
         MetricsAggregateWorker aggregateWorker = new MetricsAggregateWorker(
-            moduleDefineHolder, remoteWorker, stream.getName());
+            moduleDefineHolder, remoteWorker, stream.getName(), l1FlushPeriod);
 
         entryWorkers.put(metricsClass, aggregateWorker);
     }
@@ -177,7 +207,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
 
         MetricsPersistentWorker minutePersistentWorker = new MetricsPersistentWorker(
             moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker, enableDatabaseSession,
-            supportUpdate
+            supportUpdate, sessionTimeout(model), maxSizeOfSession(model)
         );
         persistentWorkers.add(minutePersistentWorker);
 
@@ -189,9 +219,33 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                                                        Model model,
                                                        boolean supportUpdate) {
         MetricsPersistentWorker persistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, enableDatabaseSession, supportUpdate);
+            moduleDefineHolder, model, metricsDAO, enableDatabaseSession, supportUpdate, sessionTimeout(model),
+            maxSizeOfSession(model)
+        );
         persistentWorkers.add(persistentWorker);
 
         return persistentWorker;
     }
+
+    private long sessionTimeout(Model model) {
+        switch (model.getDownsampling()) {
+            case Hour:
+                return hourMetricsSessionTimeout;
+            case Day:
+                return dayMetricsSessionTimeout;
+            default:
+                return minuteMetricsSessionTimeout;
+        }
+    }
+
+    private long maxSizeOfSession(Model model) {
+        switch (model.getDownsampling()) {
+            case Hour:
+                return maxSizeOfHourMetricsSession;
+            case Day:
+                return maxSizeOfDayMetricsSession;
+            default:
+                return maxSizeOfMinuteMetricsSession;
+        }
+    }
 }
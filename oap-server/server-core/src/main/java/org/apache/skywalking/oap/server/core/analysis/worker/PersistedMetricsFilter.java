@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+
+/**
+ * PersistedMetricsFilter tracks the IDs of the metrics persisted by this OAP node, grouped by time bucket, through the
+ * bloom filters.
+ *
+ * The metrics are routed to the L2 aggregation node by their IDs, so the metrics of a time bucket which begins after
+ * this node started could only be persisted by this node. If the ID is not in the filter of its time bucket, the
+ * metrics is new, and no need to read it back from the storage. A false positive of the bloom filter only causes an
+ * unnecessary read.
+ *
+ * The filters of the time buckets before the start of this node, or evicted due to the max number of the time buckets,
+ * are unknown, the metrics of them are never treated as new. When the cluster membership changes, the metrics could
+ * have been persisted by other nodes before the change, so the time buckets until the change are unknown too, see
+ * {@link #markUnknownUntil(long)}.
+ *
+ * This is not thread safe, the persistence of one worker is executed by one thread in every round. Only
+ * {@link #markUnknownUntil(long)} could be called by other threads.
+ */
+class PersistedMetricsFilter {
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final int expectedInsertions;
+    private final int maxTimeBuckets;
+    private final TreeMap<Long, ScalableFilter> filters;
+    /**
+     * The time buckets equal or older than this are unknown.
+     */
+    private final AtomicLong unknownUntil;
+
+    /**
+     * @param startTimeBucket    the time bucket in which this node started.
+     * @param expectedInsertions the initial capacity of the filter of one time bucket.
+     * @param maxTimeBuckets     the max number of the time buckets tracked.
+     */
+    PersistedMetricsFilter(long startTimeBucket, int expectedInsertions, int maxTimeBuckets) {
+        this.unknownUntil = new AtomicLong(startTimeBucket);
+        this.expectedInsertions = expectedInsertions;
+        this.maxTimeBuckets = maxTimeBuckets;
+        this.filters = new TreeMap<>();
+    }
+
+    /**
+     * @return true if the metrics is absolutely not in the storage.
+     */
+    boolean isNew(Metrics metrics) {
+        final long timeBucket = metrics.getTimeBucket();
+        if (timeBucket <= unknownUntil.get()) {
+            return false;
+        }
+        final ScalableFilter filter = filters.get(timeBucket);
+        return filter == null || !filter.mightContain(metrics.id());
+    }
+
+    /**
+     * Record the metrics existing in the storage.
+     */
+    void persisted(Metrics metrics) {
+        final long timeBucket = metrics.getTimeBucket();
+        if (timeBucket <= unknownUntil.get()) {
+            return;
+        }
+        filters.computeIfAbsent(timeBucket, bucket -> new ScalableFilter(expectedInsertions))
+               .put(metrics.id());
+
+        while (filters.size() > maxTimeBuckets) {
+            final Map.Entry<Long, ScalableFilter> oldest = filters.pollFirstEntry();
+            markUnknownUntil(oldest.getKey());
+        }
+    }
+
+    /**
+     * Treat the time buckets equal or older than the given one as unknown, the metrics of them are never new.
+     */
+    void markUnknownUntil(long timeBucket) {
+        unknownUntil.accumulateAndGet(timeBucket, Math::max);
+    }
+
+    /**
+     * @return the number of the tracked time buckets.
+     */
+    int size() {
+        return filters.size();
+    }
+
+    /**
+     * ScalableFilter adds a new bloom filter with double capacity when the last one is full, to keep the false positive
+     * probability, and the memory is proportional to the number of the IDs.
+     */
+    private static class ScalableFilter {
+        private final List<BloomFilter<CharSequence>> filters = new ArrayList<>(2);
+        private BloomFilter<CharSequence> current;
+        private long capacity;
+
+        private ScalableFilter(long capacity) {
+            grow(capacity);
+        }
+
+        private void grow(long capacity) {
+            this.capacity = capacity;
+            current = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity,
+                                         FALSE_POSITIVE_PROBABILITY
+            );
+            filters.add(current);
+        }
+
+        private boolean mightContain(String id) {
+            for (BloomFilter<CharSequence> filter : filters) {
+                if (filter.mightContain(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void put(String id) {
+            if (current.approximateElementCount() >= capacity) {
+                grow(capacity * 2);
+            }
+            current.put(id);
+        }
+    }
+}
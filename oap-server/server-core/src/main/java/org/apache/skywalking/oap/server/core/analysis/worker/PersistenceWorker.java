@@ -28,6 +28,11 @@ import org.apache.skywalking.oap.server.core.storage.StorageData;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * PersistenceWorker take the responsibility to pushing data to the final storage. The target storage is based on the
@@ -39,10 +44,29 @@ import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 public abstract class PersistenceWorker<INPUT extends StorageData> extends AbstractWorker<INPUT> {
     @Getter(AccessLevel.PROTECTED)
     private final ReadWriteSafeCache<INPUT> cache;
+    private final HistogramMetrics swapLatency;
+    private final HistogramMetrics prepareLatency;
+    private final GaugeMetrics bufferSize;
 
-    PersistenceWorker(ModuleDefineHolder moduleDefineHolder, ReadWriteSafeCache<INPUT> cache) {
+    PersistenceWorker(ModuleDefineHolder moduleDefineHolder, String modelName, ReadWriteSafeCache<INPUT> cache) {
         super(moduleDefineHolder);
         this.cache = cache;
+
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        swapLatency = metricsCreator.createHistogramMetric(
+            "persistence_cache_swap_latency", "Latency of swapping and draining the persistence cache",
+            new MetricsTag.Keys("metricName"), new MetricsTag.Values(modelName)
+        );
+        prepareLatency = metricsCreator.createHistogramMetric(
+            "persistence_worker_prepare_latency", "Latency of the prepare stage of the persistence worker",
+            new MetricsTag.Keys("metricName"), new MetricsTag.Values(modelName)
+        );
+        bufferSize = metricsCreator.createGauge(
+            "persistence_cache_buffer_size", "The number of data drained from the persistence cache in the last round",
+            new MetricsTag.Keys("metricName"), new MetricsTag.Values(modelName)
+        );
     }
 
     /**
@@ -60,6 +84,14 @@ public abstract class PersistenceWorker<INPUT extends StorageData> extends Abstr
      */
     public abstract void endOfRound(long tookTime);
 
+    /**
+     * Notification for the worker after the requests prepared by it in this round are executed.
+     *
+     * @param succeeded false if the execution failed, then some of the requests may not have been persisted.
+     */
+    public void afterFlush(boolean succeeded) {
+    }
+
     /**
      * Prepare the batch persistence, transfer all prepared data to the executable data format based on the storage
      * implementations.
@@ -70,7 +102,20 @@ public abstract class PersistenceWorker<INPUT extends StorageData> extends Abstr
     public abstract void prepareBatch(Collection<INPUT> lastCollection, List<PrepareRequest> prepareRequests);
 
     public void buildBatchRequests(List<PrepareRequest> prepareRequests) {
-        final List<INPUT> dataList = getCache().read();
-        prepareBatch(dataList, prepareRequests);
+        final List<INPUT> dataList;
+        HistogramMetrics.Timer timer = swapLatency.createTimer();
+        try {
+            dataList = getCache().read();
+        } finally {
+            timer.finish();
+        }
+        bufferSize.setValue(dataList.size());
+
+        timer = prepareLatency.createTimer();
+        try {
+            prepareBatch(dataList, prepareRequests);
+        } finally {
+            timer.finish();
+        }
     }
 }
@@ -19,6 +19,15 @@
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPoolFactory;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.record.Record;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
@@ -26,10 +35,25 @@ import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * RecordPersistentWorker queues the records in a bounded queue of the model, and the threads of the shared record
+ * persistent pool build the insert requests and push them into the batch DAO. So the receiver threads never wait for
+ * the storage. When the queue is full, the record is dropped or the receiver thread waits, according to the {@link
+ * RecordStreamProcessor.QueueFullPolicy}.
+ *
+ * When the OAP stops, the worker refuses the new records, and the queued records are persisted in the synchronous mode,
+ * as the asynchronous batch of the storage isn't flushed then.
+ */
 public class RecordPersistentWorker extends AbstractWorker<Record> {
 
     private static final Logger logger = LoggerFactory.getLogger(RecordPersistentWorker.class);
@@ -37,21 +61,114 @@ public class RecordPersistentWorker extends AbstractWorker<Record> {
     private final Model model;
     private final IRecordDAO recordDAO;
     private final IBatchDAO batchDAO;
+    private final DataCarrier<Record> dataCarrier;
+    /**
+     * The number of records queued but not consumed yet.
+     */
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final GaugeMetrics queueDepthGauge;
+    private final CounterMetrics droppedCounter;
+    private volatile boolean shutdown = false;
 
-    RecordPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IRecordDAO recordDAO) {
+    RecordPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IRecordDAO recordDAO,
+                           int queueSize, int poolSize, RecordStreamProcessor.QueueFullPolicy queueFullPolicy) {
         super(moduleDefineHolder);
         this.model = model;
         this.recordDAO = recordDAO;
         this.batchDAO = moduleDefineHolder.find(StorageModule.NAME).provider().getService(IBatchDAO.class);
+
+        String name = "RECORD_PERSISTENT";
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, poolSize, 20);
+        try {
+            ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
+        } catch (Exception e) {
+            throw new UnexpectedException(e.getMessage(), e);
+        }
+        this.dataCarrier = new DataCarrier<>("RecordPersistentWorker." + model.getName(), name, 1, queueSize);
+        this.dataCarrier.setBufferStrategy(
+            RecordStreamProcessor.QueueFullPolicy.DROP.equals(queueFullPolicy)
+                ? BufferStrategy.IF_POSSIBLE : BufferStrategy.BLOCKING);
+        this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new PersistentConsumer());
+
+        MetricsCreator metricsCreator = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        queueDepthGauge = metricsCreator.createGauge(
+            "record_persistent_queue_depth", "The number of records waiting to be persisted",
+            new MetricsTag.Keys("metricName"), new MetricsTag.Values(model.getName())
+        );
+        droppedCounter = metricsCreator.createCounter(
+            "record_persistent_dropped", "The number of records dropped as the persistent queue is full",
+            new MetricsTag.Keys("metricName"), new MetricsTag.Values(model.getName())
+        );
     }
 
+    /**
+     * RecordPersistentWorker#in operation does include enqueue only
+     */
     @Override
     public void in(Record record) {
+        if (!shutdown && dataCarrier.produce(record)) {
+            queueDepthGauge.setValue(queueDepth.incrementAndGet());
+        } else {
+            droppedCounter.inc();
+        }
+    }
+
+    private void onWork(List<Record> records) {
+        List<PrepareRequest> insertRequests = new ArrayList<>(records.size());
         try {
-            InsertRequest insertRequest = recordDAO.prepareBatchInsert(model, record);
-            batchDAO.asynchronous(insertRequest);
+            for (Record record : records) {
+                try {
+                    insertRequests.add(recordDAO.prepareBatchInsert(model, record));
+                } catch (IOException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+
+            if (shutdown) {
+                batchDAO.synchronous(insertRequests);
+            } else {
+                insertRequests.forEach(insertRequest -> batchDAO.asynchronous((InsertRequest) insertRequest));
+            }
         } catch (IOException e) {
             logger.error(e.getMessage(), e);
+        } finally {
+            queueDepthGauge.setValue(queueDepth.addAndGet(-records.size()));
+        }
+    }
+
+    /**
+     * Refuse the new records, and persist the queued records in the synchronous mode from now on.
+     */
+    void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * @return the number of the records queued or being persisted.
+     */
+    long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    private class PersistentConsumer implements IConsumer<Record> {
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(List<Record> data) {
+            RecordPersistentWorker.this.onWork(data);
+        }
+
+        @Override
+        public void onError(List<Record> data, Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+
+        @Override
+        public void onExit() {
         }
     }
 }
@@ -18,8 +18,13 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.DisableRegister;
@@ -36,11 +41,33 @@ import org.apache.skywalking.oap.server.core.storage.model.ModelCreator;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 
+@Slf4j
 public class RecordStreamProcessor implements StreamProcessor<Record> {
 
     private final static RecordStreamProcessor PROCESSOR = new RecordStreamProcessor();
+    /**
+     * The max milliseconds to wait for the queued records persisted when the OAP stops.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 10_000L;
 
     private Map<Class<? extends Record>, RecordPersistentWorker> workers = new HashMap<>();
+    /**
+     * The flushers of the records buffered out of the stream, run before the workers stop, the last added first.
+     */
+    private final Deque<Runnable> shutdownFlushers = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Hold and forward the record persistent settings in CoreModuleConfig to the persistent workers.
+     */
+    @Setter
+    @Getter
+    private int recordPersistentQueueSize = 10_000;
+    @Setter
+    @Getter
+    private int recordPersistentThreads = 2;
+    @Setter
+    @Getter
+    private QueueFullPolicy recordQueueFullPolicy = QueueFullPolicy.DROP;
 
     public static RecordStreamProcessor getInstance() {
         return PROCESSOR;
@@ -70,8 +97,81 @@ public class RecordStreamProcessor implements StreamProcessor<Record> {
         ModelCreator modelSetter = moduleDefineHolder.find(CoreModule.NAME).provider().getService(ModelCreator.class);
         Model model = modelSetter.add(
             recordClass, stream.scopeId(), new Storage(stream.name(), DownSampling.Second), true);
-        RecordPersistentWorker persistentWorker = new RecordPersistentWorker(moduleDefineHolder, model, recordDAO);
+        RecordPersistentWorker persistentWorker = new RecordPersistentWorker(
+            moduleDefineHolder, model, recordDAO, recordPersistentQueueSize, recordPersistentThreads,
+            recordQueueFullPolicy
+        );
 
+        if (workers.isEmpty()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "RecordStreamProcessor-shutdown"));
+        }
         workers.put(recordClass, persistentWorker);
     }
+
+    /**
+     * Add the flusher of the records buffered before they are sent into the stream, such as by the trace tail sampler.
+     * It runs when the OAP stops, before the workers refuse the new records, so the flushed records are persisted too.
+     * The flushers run in the reverse order of the addition, so the upstream stage, which is usually built after the
+     * downstream ones it feeds, flushes into them before they flush.
+     */
+    public void addShutdownFlusher(Runnable flusher) {
+        shutdownFlushers.addFirst(flusher);
+    }
+
+    /**
+     * Run the shutdown flushers, stop the workers, and wait for their queued records persisted, at most {@link
+     * #SHUTDOWN_TIMEOUT} milliseconds.
+     */
+    private void shutdown() {
+        for (Runnable flusher : shutdownFlushers) {
+            try {
+                flusher.run();
+            } catch (Throwable t) {
+                log.error("Shutdown flush failure.", t);
+            }
+        }
+        workers.values().forEach(RecordPersistentWorker::shutdown);
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+        long queued;
+        while ((queued = workers.values().stream().mapToLong(RecordPersistentWorker::getQueueDepth).sum()) > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("{} queued records are not persisted before the OAP stops.", queued);
+                return;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * The policy of the record which arrives when the persistent queue of its model is full.
+     */
+    public enum QueueFullPolicy {
+        /**
+         * Drop the record, the receiver thread never waits for the storage.
+         */
+        DROP,
+        /**
+         * Wait until the queue has room, the back pressure goes to the receiver thread and the agents.
+         */
+        BLOCK;
+
+        /**
+         * @param name of the policy in the config, case insensitive.
+         * @throws IllegalArgumentException if the name is not a policy.
+         */
+        public static QueueFullPolicy of(String name) {
+            for (QueueFullPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name == null ? null : name.trim())) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException(
+                "Unknown queue full policy: " + name + ", it should be drop or block.");
+        }
+    }
 }
@@ -45,9 +45,7 @@ public class TopNWorker extends PersistenceWorker<TopN> {
     TopNWorker(ModuleDefineHolder moduleDefineHolder, Model model, int topNSize, long reportPeriod,
                IRecordDAO recordDAO) {
         super(
-            moduleDefineHolder,
-            new ReadWriteSafeCache<>(new LimitedSizeBufferedData<>(topNSize), new LimitedSizeBufferedData<>(topNSize))
-        );
+            moduleDefineHolder, model.getName(), new ReadWriteSafeCache<>(() -> new LimitedSizeBufferedData<>(topNSize)));
         this.recordDAO = recordDAO;
         this.model = model;
         this.dataCarrier = new DataCarrier<>("TopNWorker", 1, 1000);
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+
+/**
+ * MetricsQueryCache holds the values of the closed time buckets, which are not changed anymore, as the metrics of the
+ * time bucket have been persisted. A time bucket is closed once it ends {@link #closedDelay} ago. The queries read the
+ * closed time buckets from the cache, and only read the rest from the storage.
+ */
+class MetricsQueryCache {
+    private final Cache<String, Long> values;
+    /**
+     * The period after the time bucket ends, in millisecond. All metrics of the time bucket should have been persisted
+     * in the period.
+     */
+    private final long closedDelay;
+    private final CounterMetrics hitCounter;
+    private final CounterMetrics missCounter;
+
+    MetricsQueryCache(long maxSize, long closedDelay, CounterMetrics hitCounter, CounterMetrics missCounter) {
+        this.values = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        this.closedDelay = closedDelay;
+        this.hitCounter = hitCounter;
+        this.missCounter = missCounter;
+    }
+
+    /**
+     * @return the index of the first point in the given points, which should be read from the storage. The points
+     * before it are all cached for every label.
+     */
+    int firstUncachedPoint(String metricsName, List<String> labels, List<PointOfTime> points, String entityId) {
+        int index = 0;
+        for (; index < points.size(); index++) {
+            String id = points.get(index).id(entityId);
+            boolean cached = true;
+            for (String label : labels) {
+                if (values.getIfPresent(key(metricsName, label, id)) == null) {
+                    cached = false;
+                    break;
+                }
+            }
+            if (!cached) {
+                break;
+            }
+        }
+        hitCounter.inc(index);
+        missCounter.inc(points.size() - index);
+        return index;
+    }
+
+    /**
+     * @return the values of the points before the given index, which have been checked by {@link
+     * #firstUncachedPoint(String, List, List, String)}.
+     */
+    MetricsValues read(String metricsName, String label, List<PointOfTime> points, int toIndex, String entityId) {
+        MetricsValues metricsValues = new MetricsValues();
+        metricsValues.setLabel(label);
+        for (int i = 0; i < toIndex; i++) {
+            String id = points.get(i).id(entityId);
+            Long value = values.getIfPresent(key(metricsName, label, id));
+            KVInt kvInt = new KVInt();
+            kvInt.setId(id);
+            kvInt.setValue(value == null ? 0 : value);
+            metricsValues.getValues().addKVInt(kvInt);
+        }
+        return metricsValues;
+    }
+
+    /**
+     * Cache the values of the closed time buckets read from the storage.
+     */
+    void write(String metricsName, MetricsValues metricsValues, Step step) {
+        long closedTime = System.currentTimeMillis() - closedDelay;
+        for (KVInt kvInt : metricsValues.getValues().getValues()) {
+            String id = kvInt.getId();
+            int separator = id.indexOf(Const.ID_CONNECTOR);
+            long timeBucket = Long.parseLong(separator < 0 ? id : id.substring(0, separator));
+            String date = DurationUtils.INSTANCE.timeBucketToDurationDate(step, timeBucket);
+            if (DurationUtils.INSTANCE.endTimeToTimestamp(step, date) <= closedTime) {
+                values.put(key(metricsName, metricsValues.getLabel(), id), kvInt.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the duration from the point of the given index to the end of the given duration.
+     */
+    static Duration subDuration(Duration duration, List<PointOfTime> points, int fromIndex) {
+        Duration subDuration = new Duration();
+        subDuration.setStep(duration.getStep());
+        subDuration.setStart(
+            DurationUtils.INSTANCE.timeBucketToDurationDate(duration.getStep(), points.get(fromIndex).getPoint()));
+        subDuration.setEnd(duration.getEnd());
+        return subDuration;
+    }
+
+    private static String key(String metricsName, String label, String id) {
+        return metricsName + Const.ID_CONNECTOR + label + Const.ID_CONNECTOR + id;
+    }
+}
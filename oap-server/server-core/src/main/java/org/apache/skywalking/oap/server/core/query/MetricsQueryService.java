@@ -19,8 +19,16 @@
 package org.apache.skywalking.oap.server.core.query;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
 import org.apache.skywalking.oap.server.core.query.input.Duration;
 import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
 import org.apache.skywalking.oap.server.core.query.type.HeatMap;
@@ -30,14 +38,32 @@ import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetad
 import org.apache.skywalking.oap.server.core.storage.query.IMetricsQueryDAO;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.module.Service;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 @Slf4j
 public class MetricsQueryService implements Service {
     private final ModuleManager moduleManager;
     private IMetricsQueryDAO metricQueryDAO;
+    /**
+     * The max number of cached values of the closed time buckets, 0 means no cache.
+     */
+    private final long maxSizeOfQueryCache;
+    /**
+     * The delay after the end of the time bucket, the values of the time bucket could be cached. Unit is millisecond.
+     */
+    private final long queryCacheClosedDelay;
+    private MetricsQueryCache queryCache;
 
     public MetricsQueryService(ModuleManager moduleManager) {
+        this(moduleManager, 0, 0);
+    }
+
+    public MetricsQueryService(ModuleManager moduleManager, long maxSizeOfQueryCache, long queryCacheClosedDelay) {
         this.moduleManager = moduleManager;
+        this.maxSizeOfQueryCache = maxSizeOfQueryCache;
+        this.queryCacheClosedDelay = queryCacheClosedDelay;
     }
 
     private IMetricsQueryDAO getMetricQueryDAO() {
@@ -47,6 +73,26 @@ public class MetricsQueryService implements Service {
         return metricQueryDAO;
     }
 
+    private MetricsQueryCache getQueryCache() {
+        if (queryCache == null) {
+            MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                                         .provider()
+                                                         .getService(MetricsCreator.class);
+            queryCache = new MetricsQueryCache(
+                maxSizeOfQueryCache, queryCacheClosedDelay,
+                metricsCreator.createCounter(
+                    "metrics_query_cache_hit", "The number of metrics values read from the query cache",
+                    MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+                ),
+                metricsCreator.createCounter(
+                    "metrics_query_cache_miss", "The number of metrics values read from the storage",
+                    MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+                )
+            );
+        }
+        return queryCache;
+    }
+
     /**
      * Read metrics single value in the duration of required metrics
      */
@@ -56,30 +102,147 @@ public class MetricsQueryService implements Service {
     }
 
     /**
-     * Read time-series values in the duration of required metrics
+     * Read time-series values in the duration of required metrics. The values are in the coarser step, if the duration
+     * has more points than {@link Duration#getMaxPoints()}, see {@link MetricsValues#getStep()}.
      */
-    public MetricsValues readMetricsValues(MetricsCondition condition, Duration duration) throws IOException {
-        return getMetricQueryDAO().readMetricsValues(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
+    public MetricsValues readMetricsValues(MetricsCondition condition, Duration queryDuration) throws IOException {
+        final Duration duration = adaptStep(queryDuration);
+        final MetricsValues metricsValues = readMetricsValuesInStep(condition, duration);
+        metricsValues.setStep(duration.getStep());
+        return metricsValues;
+    }
+
+    private MetricsValues readMetricsValuesInStep(MetricsCondition condition, Duration duration) throws IOException {
+        final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        if (maxSizeOfQueryCache <= 0) {
+            return getMetricQueryDAO().readMetricsValues(condition, valueCName, duration);
+        }
+
+        final MetricsQueryCache cache = getQueryCache();
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final String entityId = condition.getEntity().buildId();
+        final int cachedPoints = cache.firstUncachedPoint(
+            condition.getName(), Collections.singletonList(null), points, entityId);
+
+        MetricsValues metricsValues = cache.read(condition.getName(), null, points, cachedPoints, entityId);
+        if (cachedPoints < points.size()) {
+            MetricsValues readValues = getMetricQueryDAO().readMetricsValues(
+                condition, valueCName, MetricsQueryCache.subDuration(duration, points, cachedPoints));
+            cache.write(condition.getName(), readValues, duration.getStep());
+            metricsValues.getValues().getValues().addAll(readValues.getValues().getValues());
+        }
+        return metricsValues;
     }
 
     /**
-     * Read value in the given time duration, usually as a linear.
+     * Read value in the given time duration, usually as a linear. The values are in the coarser step, if the duration
+     * has more points than {@link Duration#getMaxPoints()}, see {@link MetricsValues#getStep()}.
      *
      * @param labels the labels you need to query.
      */
     public List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition,
                                                         List<String> labels,
-                                                        Duration duration) throws IOException {
-        return getMetricQueryDAO().readLabeledMetricsValues(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), labels, duration);
+                                                        Duration queryDuration) throws IOException {
+        final Duration duration = adaptStep(queryDuration);
+        final List<MetricsValues> labeledValues = readLabeledMetricsValuesInStep(condition, labels, duration);
+        labeledValues.forEach(metricsValues -> metricsValues.setStep(duration.getStep()));
+        return labeledValues;
+    }
+
+    private List<MetricsValues> readLabeledMetricsValuesInStep(MetricsCondition condition,
+                                                               List<String> labels,
+                                                               Duration duration) throws IOException {
+        final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        if (maxSizeOfQueryCache <= 0) {
+            return getMetricQueryDAO().readLabeledMetricsValues(condition, valueCName, labels, duration);
+        }
+
+        final MetricsQueryCache cache = getQueryCache();
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final String entityId = condition.getEntity().buildId();
+        final int cachedPoints = cache.firstUncachedPoint(condition.getName(), labels, points, entityId);
+
+        Map<String, MetricsValues> readValues = new HashMap<>();
+        if (cachedPoints < points.size()) {
+            getMetricQueryDAO().readLabeledMetricsValues(
+                condition, valueCName, labels, MetricsQueryCache.subDuration(duration, points, cachedPoints)
+            ).forEach(values -> {
+                cache.write(condition.getName(), values, duration.getStep());
+                readValues.put(values.getLabel(), values);
+            });
+        }
+
+        List<MetricsValues> labeledValues = new ArrayList<>(labels.size());
+        for (String label : labels) {
+            MetricsValues metricsValues = cache.read(condition.getName(), label, points, cachedPoints, entityId);
+            if (readValues.containsKey(label)) {
+                metricsValues.getValues().getValues().addAll(readValues.get(label).getValues().getValues());
+            }
+            labeledValues.add(metricsValues);
+        }
+        return labeledValues;
     }
 
     /**
-     * Heatmap is bucket based value statistic result.
+     * Heatmap is bucket based value statistic result. The columns are in the coarser step, if the duration has more
+     * points than {@link Duration#getMaxPoints()}, see {@link HeatMap#getStep()}.
      */
-    public HeatMap readHeatMap(MetricsCondition condition, Duration duration) throws IOException {
-        return getMetricQueryDAO().readHeatMap(
+    public HeatMap readHeatMap(MetricsCondition condition, Duration queryDuration) throws IOException {
+        final Duration duration = adaptStep(queryDuration);
+        final HeatMap heatMap = getMetricQueryDAO().readHeatMap(
             condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
+        heatMap.setStep(duration.getStep());
+        return heatMap;
+    }
+
+    /**
+     * @return the duration in the coarser step, if the duration has more points than the max points requested and the
+     * metrics of the coarser step are generated by the downsampling.
+     */
+    private Duration adaptStep(Duration duration) {
+        if (duration.getMaxPoints() == null || duration.getMaxPoints() <= 0) {
+            return duration;
+        }
+        DownSamplingConfigService downSamplingConfig = moduleManager.find(CoreModule.NAME)
+                                                                    .provider()
+                                                                    .getService(DownSamplingConfigService.class);
+        return adaptStep(
+            duration, duration.getMaxPoints(), downSamplingConfig.shouldToHour(), downSamplingConfig.shouldToDay());
+    }
+
+    static Duration adaptStep(Duration duration, int maxPoints, boolean hourEnabled, boolean dayEnabled) {
+        Duration adapted = duration;
+        while (countPoints(adapted) > maxPoints) {
+            final Step coarserStep;
+            if (Step.MINUTE.equals(adapted.getStep()) && hourEnabled) {
+                coarserStep = Step.HOUR;
+            } else if (Step.HOUR.equals(adapted.getStep()) && dayEnabled) {
+                coarserStep = Step.DAY;
+            } else {
+                break;
+            }
+            final int dateLength = Step.HOUR.equals(coarserStep) ? "yyyy-MM-dd HH".length() : "yyyy-MM-dd".length();
+            Duration coarser = new Duration();
+            coarser.setStep(coarserStep);
+            coarser.setStart(adapted.getStart().substring(0, dateLength));
+            coarser.setEnd(adapted.getEnd().substring(0, dateLength));
+            adapted = coarser;
+        }
+        return adapted;
+    }
+
+    private static long countPoints(Duration duration) {
+        final long start = DurationUtils.INSTANCE.startTimeToTimestamp(duration.getStep(), duration.getStart());
+        final long end = DurationUtils.INSTANCE.endTimeToTimestamp(duration.getStep(), duration.getEnd());
+        switch (duration.getStep()) {
+            case DAY:
+                return TimeUnit.MILLISECONDS.toDays(end - start);
+            case HOUR:
+                return TimeUnit.MILLISECONDS.toHours(end - start);
+            case MINUTE:
+                return TimeUnit.MILLISECONDS.toMinutes(end - start);
+            default:
+                return TimeUnit.MILLISECONDS.toSeconds(end - start);
+        }
     }
 }
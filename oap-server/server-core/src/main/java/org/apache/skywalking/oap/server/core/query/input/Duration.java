@@ -20,15 +20,23 @@ package org.apache.skywalking.oap.server.core.query.input;
 
 import java.util.List;
 import lombok.Getter;
+import lombok.Setter;
 import org.apache.skywalking.oap.server.core.query.DurationUtils;
 import org.apache.skywalking.oap.server.core.query.PointOfTime;
 import org.apache.skywalking.oap.server.core.query.enumeration.Step;
 
 @Getter
+@Setter
 public class Duration {
     private String start;
     private String end;
     private Step step;
+    /**
+     * Optional, the max number of points of the time-series queries. The query reads the coarser step, such as hour
+     * rather than minute, when the duration has more points, and the step read is returned with the values. Null means
+     * no limit.
+     */
+    private Integer maxPoints;
 
     /**
      * See {@link DurationUtils#convertToTimeBucket(String)}
@@ -25,6 +25,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
 
 /**
  * HeatMap represents the value distribution in the defined buckets.
@@ -35,6 +36,11 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 public class HeatMap {
     private List<HeatMapColumn> values = new ArrayList<>(10);
     private List<Bucket> buckets = null;
+    /**
+     * The step of the columns, which is coarser than the step of the query if the max points are reached.
+     */
+    @Setter
+    private Step step;
 
     public void addBucket(Bucket bucket) {
         this.buckets.add(bucket);
@@ -20,7 +20,9 @@ package org.apache.skywalking.oap.server.core.query.type;
 
 import java.util.ArrayList;
 import java.util.List;
+import lombok.Getter;
 
+@Getter
 public class IntValues {
     private List<KVInt> values = new ArrayList<>();
 
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.query.type;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
 
 /**
  * @since 8.0.0
@@ -29,4 +30,8 @@ import lombok.Setter;
 public class MetricsValues {
     private String label;
     private IntValues values = new IntValues();
+    /**
+     * The step of the values, which is coarser than the step of the query if the max points are reached.
+     */
+    private Step step;
 }
@@ -23,8 +23,10 @@ import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.selector.ConsistentHashSelector;
 import org.apache.skywalking.oap.server.core.remote.selector.ForeverFirstSelector;
 import org.apache.skywalking.oap.server.core.remote.selector.HashCodeSelector;
+import org.apache.skywalking.oap.server.core.remote.selector.RemoteClientSelector;
 import org.apache.skywalking.oap.server.core.remote.selector.RollingSelector;
 import org.apache.skywalking.oap.server.core.remote.selector.Selector;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
@@ -39,14 +41,39 @@ import org.slf4j.LoggerFactory;
 public class RemoteSenderService implements Service {
     private static final Logger logger = LoggerFactory.getLogger(RemoteSenderService.class);
 
+    /**
+     * Select the target by the modulo of the hash code, most of the data move to another node when the OAP cluster
+     * changes.
+     */
+    public static final String HASH_CODE = "hashCode";
+    /**
+     * Select the target through a consistent hash ring, only about 1/N of the data move when the OAP cluster changes.
+     */
+    public static final String CONSISTENT_HASH = "consistentHash";
+
     private final ModuleManager moduleManager;
-    private final HashCodeSelector hashCodeSelector;
+    private final RemoteClientSelector hashCodeSelector;
     private final ForeverFirstSelector foreverFirstSelector;
     private final RollingSelector rollingSelector;
 
     public RemoteSenderService(ModuleManager moduleManager) {
+        this(moduleManager, HASH_CODE);
+    }
+
+    /**
+     * @param hashSelector the implementation of {@link Selector#HashCode}, {@link #HASH_CODE} or {@link
+     *                     #CONSISTENT_HASH}. All OAP nodes must use the same one, the metrics of one id are
+     *                     aggregated by different nodes otherwise.
+     */
+    public RemoteSenderService(ModuleManager moduleManager, String hashSelector) {
         this.moduleManager = moduleManager;
-        this.hashCodeSelector = new HashCodeSelector();
+        if (HASH_CODE.equals(hashSelector)) {
+            this.hashCodeSelector = new HashCodeSelector();
+        } else if (CONSISTENT_HASH.equals(hashSelector)) {
+            this.hashCodeSelector = new ConsistentHashSelector();
+        } else {
+            throw new IllegalArgumentException("Unknown remote hash selector: " + hashSelector);
+        }
         this.foreverFirstSelector = new ForeverFirstSelector();
         this.rollingSelector = new RollingSelector();
     }
@@ -18,14 +18,17 @@
 
 package org.apache.skywalking.oap.server.core.remote;
 
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBatch;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.WorkerIds;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
 import org.apache.skywalking.oap.server.core.worker.RemoteHandleWorker;
@@ -43,6 +46,10 @@ import org.slf4j.LoggerFactory;
  * This class is Server-side streaming RPC implementation. It's a common service for OAP servers to receive message from
  * each others. The stream data id is used to find the object to deserialize message. The next worker id is used to find
  * the worker to process message.
+ *
+ * The batched protocol, {@link #batchCall(StreamObserver)}, receives the stream data of one worker in a single frame.
+ * The worker is identified by the integer id, which the client fetches through {@link #workerIds(Empty,
+ * StreamObserver)}.
  */
 public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBase implements GRPCHandler {
 
@@ -97,15 +104,7 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
      */
     @Override
     public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
-        if (Objects.isNull(workerInstanceGetter)) {
-            synchronized (RemoteServiceHandler.class) {
-                if (Objects.isNull(workerInstanceGetter)) {
-                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
-                                                             .provider()
-                                                             .getService(IWorkerInstanceGetter.class);
-                }
-            }
-        }
+        final IWorkerInstanceGetter instanceGetter = getWorkerInstanceGetter();
 
         return new StreamObserver<RemoteMessage>() {
             @Override
@@ -116,23 +115,15 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
                     String nextWorkerName = message.getNextWorkerName();
                     RemoteData remoteData = message.getRemoteData();
 
-                    try {
-                        RemoteHandleWorker handleWorker = workerInstanceGetter.get(nextWorkerName);
-                        if (handleWorker != null) {
-                            AbstractWorker nextWorker = handleWorker.getWorker();
-                            StreamData streamData = handleWorker.getStreamDataClass().newInstance();
-                            streamData.deserialize(remoteData);
-                            nextWorker.in(streamData);
-                        } else {
-                            remoteInTargetNotFoundCounter.inc();
-                            logger.warn(
-                                "Work name [{}] not found. Check OAL script, make sure they are same in the whole cluster.",
-                                nextWorkerName
-                            );
-                        }
-                    } catch (Throwable t) {
-                        remoteInErrorCounter.inc();
-                        logger.error(t.getMessage(), t);
+                    RemoteHandleWorker handleWorker = instanceGetter.get(nextWorkerName);
+                    if (handleWorker != null) {
+                        handle(handleWorker, remoteData);
+                    } else {
+                        remoteInTargetNotFoundCounter.inc();
+                        logger.warn(
+                            "Work name [{}] not found. Check OAL script, make sure they are same in the whole cluster.",
+                            nextWorkerName
+                        );
                     }
                 } finally {
                     timer.finish();
@@ -151,4 +142,99 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
             }
         };
     }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc}. Answer the ids of all remote handle workers in this OAP node.
+     */
+    @Override
+    public void workerIds(Empty request, StreamObserver<WorkerIds> responseObserver) {
+        final IWorkerInstanceGetter instanceGetter = getWorkerInstanceGetter();
+        responseObserver.onNext(WorkerIds.newBuilder()
+                                         .setVersion(instanceGetter.getWorkerIdsVersion())
+                                         .putAllIds(instanceGetter.getWorkerIds())
+                                         .build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc}. Continue the distributed aggregation at the current OAP node, the
+     * frames are requested one by one through the gRPC flow control, so the slow workers push back the clients.
+     */
+    @Override
+    public StreamObserver<RemoteBatch> batchCall(StreamObserver<Empty> responseObserver) {
+        final IWorkerInstanceGetter instanceGetter = getWorkerInstanceGetter();
+
+        return new StreamObserver<RemoteBatch>() {
+            private boolean rejected = false;
+
+            @Override
+            public void onNext(RemoteBatch batch) {
+                if (rejected) {
+                    return;
+                }
+                if (batch.getVersion() != instanceGetter.getWorkerIdsVersion()) {
+                    rejected = true;
+                    responseObserver.onError(Status.FAILED_PRECONDITION
+                                                 .withDescription("Worker ids version mismatched, fetch again.")
+                                                 .asRuntimeException());
+                    return;
+                }
+
+                RemoteHandleWorker handleWorker = instanceGetter.get(batch.getWorkerId());
+                if (handleWorker == null) {
+                    remoteInTargetNotFoundCounter.inc(batch.getRemoteDataCount());
+                    logger.warn("Work id [{}] not found.", batch.getWorkerId());
+                    return;
+                }
+                for (RemoteData remoteData : batch.getRemoteDataList()) {
+                    remoteInCounter.inc();
+                    HistogramMetrics.Timer timer = remoteInHistogram.createTimer();
+                    try {
+                        handle(handleWorker, remoteData);
+                    } finally {
+                        timer.finish();
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                logger.error(throwable.getMessage(), throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                if (rejected) {
+                    return;
+                }
+                responseObserver.onNext(Empty.newBuilder().build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private void handle(RemoteHandleWorker handleWorker, RemoteData remoteData) {
+        try {
+            AbstractWorker nextWorker = handleWorker.getWorker();
+            StreamData streamData = handleWorker.newStreamData();
+            streamData.deserialize(remoteData);
+            nextWorker.in(streamData);
+        } catch (Throwable t) {
+            remoteInErrorCounter.inc();
+            logger.error(t.getMessage(), t);
+        }
+    }
+
+    private IWorkerInstanceGetter getWorkerInstanceGetter() {
+        if (Objects.isNull(workerInstanceGetter)) {
+            synchronized (RemoteServiceHandler.class) {
+                if (Objects.isNull(workerInstanceGetter)) {
+                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
+                                                             .provider()
+                                                             .getService(IWorkerInstanceGetter.class);
+                }
+            }
+        }
+        return workerInstanceGetter;
+    }
 }
@@ -18,19 +18,26 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import com.google.common.base.Strings;
 import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.netty.handler.ssl.SslContext;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBatch;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.WorkerIds;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
@@ -43,22 +50,52 @@ import org.slf4j.LoggerFactory;
 /**
  * This is a wrapper of the gRPC client for sending message to each other OAP server. It contains a block queue to
  * buffering the message and sending the message by batch.
+ *
+ * The messages of the same worker are packed into one {@link RemoteBatch} frame, the worker is identified by the integer
+ * id fetched from the remote server at the first time. The frames are sent through a long-lived stream, which waits
+ * for the gRPC flow control when the remote server is slow. If the remote server doesn't support the batched protocol,
+ * the messages are sent one by one as the previous version.
+ *
+ * The worker ids are fetched again before every new stream, as the stream may connect to a restarted remote server. If
+ * the remote server still rejects the ids version, all stream data sent through the stream are counted as dropped.
  */
 public class GRPCRemoteClient implements RemoteClient {
 
     private static final Logger logger = LoggerFactory.getLogger(GRPCRemoteClient.class);
 
+    /**
+     * Hard coded the max number of stream data in one frame, keep the frame far below the max message size of gRPC.
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final int channelSize;
     private final int bufferSize;
     private final Address address;
-    private final AtomicInteger concurrentStreamObserverNumber = new AtomicInteger(0);
     private SslContext sslContext;
     private GRPCClient client;
     private DataCarrier<RemoteMessage> carrier;
     private boolean isConnect;
     private CounterMetrics remoteOutCounter;
     private CounterMetrics remoteOutErrorCounter;
+    private CounterMetrics remoteOutDroppedCounter;
     private int remoteTimeout;
+    /**
+     * The gRPC compressor name of the messages, such as gzip. Empty means no compression.
+     */
+    private final String compression;
+    /**
+     * The worker ids of the remote server, NULL if not fetched or invalidated by the remote server.
+     */
+    private volatile WorkerIds workerIds;
+    /**
+     * True if the remote server only supports the legacy protocol.
+     */
+    private volatile boolean legacy = false;
+    /**
+     * The streams, only accessed by the consumer thread.
+     */
+    private RemoteStream<RemoteBatch> batchStream;
+    private RemoteStream<RemoteMessage> legacyStream;
 
     public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
                             final Address address,
@@ -66,13 +103,23 @@ public class GRPCRemoteClient implements RemoteClient {
                             final int bufferSize,
                             final int remoteTimeout,
                             final SslContext sslContext) {
+        this(moduleDefineHolder, address, channelSize, bufferSize, remoteTimeout, sslContext, null);
+    }
+
+    public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
+                            final Address address,
+                            final int channelSize,
+                            final int bufferSize,
+                            final int remoteTimeout,
+                            final SslContext sslContext,
+                            final String compression) {
 
         this.address = address;
         this.channelSize = channelSize;
         this.bufferSize = bufferSize;
         this.remoteTimeout = remoteTimeout;
         this.sslContext = sslContext;
-
+        this.compression = Strings.nullToEmpty(compression);
         remoteOutCounter = moduleDefineHolder.find(TelemetryModule.NAME)
                                              .provider()
                                              .getService(MetricsCreator.class)
@@ -83,6 +130,15 @@ public class GRPCRemoteClient implements RemoteClient {
                                                   .getService(MetricsCreator.class)
                                                   .createCounter("remote_out_error_count", "The error number(client side) of inside remote inside aggregate rpc.", new MetricsTag.Keys("dest", "self"), new MetricsTag.Values(address
                                                                                                                                                                                                                                   .toString(), "N"));
+        remoteOutDroppedCounter = moduleDefineHolder.find(TelemetryModule.NAME)
+                                                    .provider()
+                                                    .getService(MetricsCreator.class)
+                                                    .createCounter(
+                                                        "remote_out_dropped_count",
+                                                        "The number(client side) of stream data rejected by the remote server due to the mismatched worker ids.",
+                                                        new MetricsTag.Keys("dest", "self"),
+                                                        new MetricsTag.Values(address.toString(), "N")
+                                                    );
     }
 
     @Override
@@ -115,7 +171,11 @@ public class GRPCRemoteClient implements RemoteClient {
     }
 
     RemoteServiceGrpc.RemoteServiceStub getStub() {
-        return RemoteServiceGrpc.newStub(getChannel());
+        RemoteServiceGrpc.RemoteServiceStub stub = RemoteServiceGrpc.newStub(getChannel());
+        if (!compression.isEmpty()) {
+            stub = stub.withCompression(compression);
+        }
+        return stub;
     }
 
     DataCarrier<RemoteMessage> getDataCarrier() {
@@ -152,12 +212,12 @@ public class GRPCRemoteClient implements RemoteClient {
         @Override
         public void consume(List<RemoteMessage> remoteMessages) {
             try {
-                StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
-                for (RemoteMessage remoteMessage : remoteMessages) {
-                    remoteOutCounter.inc();
-                    streamObserver.onNext(remoteMessage);
+                if (legacy) {
+                    sendOneByOne(remoteMessages);
+                } else {
+                    sendInBatch(remoteMessages);
                 }
-                streamObserver.onCompleted();
+                remoteOutCounter.inc(remoteMessages.size());
             } catch (Throwable t) {
                 remoteOutErrorCounter.inc();
                 logger.error(t.getMessage(), t);
@@ -171,50 +231,221 @@ public class GRPCRemoteClient implements RemoteClient {
 
         @Override
         public void onExit() {
+            if (batchStream != null) {
+                batchStream.complete();
+            }
+            if (legacyStream != null) {
+                legacyStream.complete();
+            }
         }
     }
 
     /**
-     * Create a gRPC stream observer to sending stream data, one stream observer could send multiple stream data by a
-     * single consume. The max number of concurrency allowed at the same time is 10.
+     * Fetch the worker ids from the remote server. Switch to the legacy protocol if the remote server doesn't support.
      *
-     * @return stream observer
+     * @return the fetched worker ids, or NULL if the remote server only supports the legacy protocol.
      */
-    private StreamObserver<RemoteMessage> createStreamObserver() {
-        int sleepTotalMillis = 0;
-        int sleepMillis = 10;
-        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
-            concurrentStreamObserverNumber.addAndGet(-1);
+    private WorkerIds fetchWorkerIds() {
+        try {
+            final WorkerIds ids = RemoteServiceGrpc.newBlockingStub(getChannel())
+                                                   .withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS)
+                                                   .workerIds(Empty.getDefaultInstance());
+            workerIds = ids;
+            return ids;
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() != Status.Code.UNIMPLEMENTED) {
+                throw e;
+            }
+            logger.info("Remote server {} doesn't support the batched protocol, use the legacy one.", address);
+            legacy = true;
+            return null;
+        }
+    }
 
-            try {
-                Thread.sleep(sleepMillis);
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage(), e);
+    private void sendInBatch(List<RemoteMessage> remoteMessages) throws InterruptedException {
+        // The field is cleared by the stream observer when the remote server rejects the ids, read it only once.
+        WorkerIds ids = workerIds;
+        if (ids == null || batchStream == null || !batchStream.isAvailable()) {
+            ids = fetchWorkerIds();
+            if (ids == null) {
+                sendOneByOne(remoteMessages);
+                return;
+            }
+        }
+
+        boolean refreshed = false;
+        final Map<String, RemoteBatch.Builder> batches = new HashMap<>();
+        final RemoteStream<RemoteBatch> stream = getBatchStream();
+        for (RemoteMessage remoteMessage : remoteMessages) {
+            final String workerName = remoteMessage.getNextWorkerName();
+            RemoteBatch.Builder batch = batches.get(workerName);
+            if (batch == null) {
+                Integer workerId = ids.getIdsMap().get(workerName);
+                if (workerId == null && !refreshed) {
+                    // The worker may be registered after the ids fetched, try again once in every round.
+                    refreshed = true;
+                    final WorkerIds fetched = fetchWorkerIds();
+                    if (fetched != null) {
+                        ids = fetched;
+                        workerId = ids.getIdsMap().get(workerName);
+                    }
+                }
+                if (workerId == null) {
+                    remoteOutErrorCounter.inc();
+                    logger.warn("Work name [{}] not found in the remote server {}.", workerName, address);
+                    continue;
+                }
+                batch = RemoteBatch.newBuilder().setVersion(ids.getVersion()).setWorkerId(workerId);
+                batches.put(workerName, batch);
+            }
+
+            batch.addRemoteData(remoteMessage.getRemoteData());
+            if (batch.getRemoteDataCount() >= MAX_BATCH_SIZE) {
+                stream.send(batch.build(), batch.getRemoteDataCount());
+                batch.clearRemoteData();
+            }
+        }
+
+        for (RemoteBatch.Builder batch : batches.values()) {
+            if (batch.getRemoteDataCount() > 0) {
+                stream.send(batch.build(), batch.getRemoteDataCount());
             }
+        }
+    }
 
-            sleepTotalMillis += sleepMillis;
+    private void sendOneByOne(List<RemoteMessage> remoteMessages) throws InterruptedException {
+        final RemoteStream<RemoteMessage> stream = getLegacyStream();
+        for (RemoteMessage remoteMessage : remoteMessages) {
+            stream.send(remoteMessage, 1);
+        }
+    }
 
-            if (sleepTotalMillis > 60000) {
-                logger.warn("Remote client block times over 60 seconds.");
+    /**
+     * @return the opened stream, or create a new one if the previous is closed or has been used over the remote
+     * timeout. The streams are renewed, so the connections could be balanced when the remote servers change.
+     */
+    private RemoteStream<RemoteBatch> getBatchStream() {
+        if (batchStream == null || !batchStream.isAvailable()) {
+            if (batchStream != null) {
+                batchStream.complete();
             }
+            batchStream = new RemoteStream<>();
+            getStub().batchCall(batchStream);
         }
+        return batchStream;
+    }
 
-        return getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS).call(new StreamObserver<Empty>() {
-            @Override
-            public void onNext(Empty empty) {
+    private RemoteStream<RemoteMessage> getLegacyStream() {
+        if (legacyStream == null || !legacyStream.isAvailable()) {
+            if (legacyStream != null) {
+                legacyStream.complete();
             }
+            legacyStream = new RemoteStream<>();
+            getStub().call(legacyStream);
+        }
+        return legacyStream;
+    }
 
-            @Override
-            public void onError(Throwable throwable) {
-                concurrentStreamObserverNumber.addAndGet(-1);
-                logger.error(throwable.getMessage(), throwable);
+    /**
+     * RemoteStream is a long-lived client stream, the sending waits until the stream is ready according to the gRPC
+     * flow control, rather than sleeping and limiting the number of the streams.
+     */
+    private class RemoteStream<REQ> implements ClientResponseObserver<REQ, Empty> {
+        private final long createTime = System.currentTimeMillis();
+        private final Object readyLock = new Object();
+        private ClientCallStreamObserver<REQ> requestStream;
+        private volatile boolean closed = false;
+        /**
+         * The number of stream data sent through this stream, and whether they are rejected by the remote server,
+         * guarded by the sentLock.
+         */
+        private final Object sentLock = new Object();
+        private long sentData = 0;
+        private boolean rejected = false;
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<REQ> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(this::notifyReady);
+        }
+
+        private boolean isAvailable() {
+            return !closed && System.currentTimeMillis() - createTime < TimeUnit.SECONDS.toMillis(remoteTimeout);
+        }
+
+        /**
+         * Send the message when the stream is ready, cancel the stream if it is not ready in the remote timeout.
+         *
+         * @param dataCount the number of stream data in the message.
+         */
+        private void send(REQ message, int dataCount) throws InterruptedException {
+            if (!requestStream.isReady()) {
+                final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(remoteTimeout);
+                synchronized (readyLock) {
+                    while (!requestStream.isReady()) {
+                        if (closed) {
+                            throw new IllegalStateException("Remote stream to " + address + " has been closed.");
+                        }
+                        final long waitMillis = deadline - System.currentTimeMillis();
+                        if (waitMillis <= 0) {
+                            closed = true;
+                            requestStream.cancel("Remote client blocked over the remote timeout.", null);
+                            throw new IllegalStateException(
+                                "Remote client to " + address + " blocked over " + remoteTimeout + " seconds.");
+                        }
+                        readyLock.wait(waitMillis);
+                    }
+                }
             }
+            synchronized (sentLock) {
+                requestStream.onNext(message);
+                if (rejected) {
+                    remoteOutDroppedCounter.inc(dataCount);
+                } else {
+                    sentData += dataCount;
+                }
+            }
+        }
+
+        private void complete() {
+            if (!closed) {
+                closed = true;
+                requestStream.onCompleted();
+            }
+        }
+
+        private void notifyReady() {
+            synchronized (readyLock) {
+                readyLock.notifyAll();
+            }
+        }
 
-            @Override
-            public void onCompleted() {
-                concurrentStreamObserverNumber.addAndGet(-1);
+        @Override
+        public void onNext(Empty empty) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closed = true;
+            notifyReady();
+            if (Status.fromThrowable(throwable).getCode() == Status.Code.FAILED_PRECONDITION) {
+                // The remote server restarted, the worker ids should be fetched again. The version is checked from the
+                // first frame, so none of the stream data sent through this stream has been accepted.
+                workerIds = null;
+                synchronized (sentLock) {
+                    rejected = true;
+                    remoteOutDroppedCounter.inc(sentData);
+                }
             }
-        });
+            remoteOutErrorCounter.inc();
+            logger.error(throwable.getMessage(), throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            closed = true;
+            notifyReady();
+        }
     }
 
     @Override
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -64,6 +65,12 @@ public class RemoteClientManager implements Service {
     private volatile List<RemoteClient> usingClients;
     private GaugeMetrics gauge;
     private int remoteTimeout;
+    private final List<RemoteClientsChangeListener> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * The gRPC compressor name of the cluster internal communication, such as gzip. Empty means no compression.
+     */
+    @Setter
+    private String remoteCompression;
 
     /**
      * Initial the manager for all remote communication clients.
@@ -183,6 +190,13 @@ public class RemoteClientManager implements Service {
         return usingClients;
     }
 
+    /**
+     * Register the listener notified after the remote clients are rebuilt.
+     */
+    public void addListener(RemoteClientsChangeListener listener) {
+        listeners.add(listener);
+    }
+
     /**
      * Compare clients between exist clients and remote instance collection. Move the clients into new client collection
      * which are alive to avoid create a new channel. Shutdown the clients which could not find in cluster config.
@@ -221,7 +235,8 @@ public class RemoteClientManager implements Service {
                         newRemoteClients.add(client);
                     } else {
                         RemoteClient client;
-                        client = new GRPCRemoteClient(moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext);
+                        client = new GRPCRemoteClient(
+                            moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext, remoteCompression);
                         client.connect();
                         newRemoteClients.add(client);
                     }
@@ -232,6 +247,13 @@ public class RemoteClientManager implements Service {
         //for stable ordering for rolling selector
         Collections.sort(newRemoteClients);
         this.usingClients = ImmutableList.copyOf(newRemoteClients);
+        listeners.forEach(listener -> {
+            try {
+                listener.onChanged(usingClients);
+            } catch (Throwable t) {
+                logger.error(t.getMessage(), t);
+            }
+        });
 
         remoteClientCollection.values()
                               .stream()
@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.client;
+
+import java.util.List;
+
+/**
+ * RemoteClientsChangeListener is notified by the {@link RemoteClientManager} when the remote clients are rebuilt, which
+ * means the OAP cluster membership changed, and the data could be routed to other nodes.
+ */
+public interface RemoteClientsChangeListener {
+    /**
+     * @param remoteClients the latest remote clients, including the one of this node.
+     */
+    void onChanged(List<RemoteClient> remoteClients);
+}
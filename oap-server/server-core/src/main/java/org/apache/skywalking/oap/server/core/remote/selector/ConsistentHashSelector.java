@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+
+/**
+ * ConsistentHashSelector places every client on a hash ring as a number of virtual nodes, hashed from the address. The
+ * stream data goes to the first virtual node clockwise from its {@link StreamData#remoteHashCode()}. When an OAP node
+ * joins or leaves, only the stream data on the ring segments of that node move, about 1/N of all, rather than almost
+ * all of them in {@link HashCodeSelector}. So the L2 aggregation keeps most of its session.
+ *
+ * The ring only depends on the addresses, so all OAP nodes choose the same target with the same client list.
+ */
+public class ConsistentHashSelector implements RemoteClientSelector {
+    private static final int VIRTUAL_NODES = 160;
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+    private volatile Ring ring;
+
+    @Override
+    public RemoteClient select(List<RemoteClient> clients, StreamData streamData) {
+        Ring current = ring;
+        if (current == null || current.clients != clients) {
+            current = new Ring(clients);
+            ring = current;
+        }
+        return current.select(mix(streamData.remoteHashCode()));
+    }
+
+    /**
+     * The remote hash codes are polynomial hash of the IDs, mix them to spread over the ring.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static class Ring {
+        /**
+         * The client list the ring built from, the list is replaced rather than changed by the client manager.
+         */
+        private final List<RemoteClient> clients;
+        private final int[] hashes;
+        private final RemoteClient[] owners;
+
+        private Ring(List<RemoteClient> clients) {
+            this.clients = clients;
+            final long[] points = new long[clients.size() * VIRTUAL_NODES];
+            int index = 0;
+            for (int i = 0; i < clients.size(); i++) {
+                final String address = clients.get(i).getAddress().toString();
+                for (int v = 0; v < VIRTUAL_NODES; v++) {
+                    final int hash = HASH_FUNCTION.hashString(address + "#" + v, StandardCharsets.UTF_8).asInt();
+                    // High 32 bits are the hash for sorting, low 32 bits are the client index.
+                    points[index++] = ((long) hash << 32) | i;
+                }
+            }
+            Arrays.sort(points);
+
+            hashes = new int[points.length];
+            owners = new RemoteClient[points.length];
+            for (int i = 0; i < points.length; i++) {
+                hashes[i] = (int) (points[i] >> 32);
+                owners[i] = clients.get((int) points[i]);
+            }
+        }
+
+        private RemoteClient select(int hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                index = -index - 1;
+                if (index == hashes.length) {
+                    index = 0;
+                }
+            }
+            return owners[index];
+        }
+    }
+}
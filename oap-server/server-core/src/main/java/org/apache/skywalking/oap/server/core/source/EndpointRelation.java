@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.source;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.skywalking.apm.util.StringUtil;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.NodeType;
 
@@ -30,6 +31,8 @@ import static org.apache.skywalking.oap.server.core.source.DefaultScopeDefine.EN
 @ScopeDefaultColumn.VirtualColumnDefinition(fieldName = "entityId", columnName = "entity_id", isID = true, type = String.class)
 public class EndpointRelation extends Source {
 
+    private String entityId;
+
     @Override
     public int scope() {
         return DefaultScopeDefine.ENDPOINT_RELATION;
@@ -37,9 +40,12 @@ public class EndpointRelation extends Source {
 
     @Override
     public String getEntityId() {
-        return IDManager.EndpointID.buildRelationId(new IDManager.EndpointID.EndpointRelationDefine(
-            serviceId, endpoint, childServiceId, childEndpoint
-        ));
+        if (StringUtil.isEmpty(entityId)) {
+            entityId = IDManager.EndpointID.buildRelationId(new IDManager.EndpointID.EndpointRelationDefine(
+                serviceId, endpoint, childServiceId, childEndpoint
+            ));
+        }
+        return entityId;
     }
 
     @Getter
@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import java.io.IOException;
+
+/**
+ * ColumnWriter receives the columns of a storage entity one by one, see {@link StorageBuilder#data2Columns}.
+ */
+@FunctionalInterface
+public interface ColumnWriter {
+    /**
+     * @param columnName the column name, same as the key of {@link StorageBuilder#data2Map}.
+     * @param value      the column value, same as the value of {@link StorageBuilder#data2Map}.
+     */
+    void write(String columnName, Object value) throws IOException;
+}
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import java.io.IOException;
 import java.util.List;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
@@ -42,6 +43,7 @@ public interface IBatchDAO extends DAO {
      * changes are required queryable after method returns.
      *
      * @param prepareRequests data to insert or update. No delete happens in streaming mode.
+     * @throws IOException if any of the requests is not confirmed by the database.
      */
-    void synchronous(List<PrepareRequest> prepareRequests);
+    void synchronous(List<PrepareRequest> prepareRequests) throws IOException;
 }
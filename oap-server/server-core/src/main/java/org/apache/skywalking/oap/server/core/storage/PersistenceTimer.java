@@ -18,10 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.CoreModuleConfig;
@@ -37,6 +43,19 @@ import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
+/**
+ * PersistenceTimer drives all {@link PersistenceWorker}s to flush their data into the storage periodically.
+ *
+ * The workers are prepared in parallel by {@link CoreModuleConfig#getPrepareThreads()} threads. Every thread executes
+ * its prepared requests once they reach {@link CoreModuleConfig#getMaxSyncOperationNum()}, so the storage execution of
+ * one thread overlaps the preparation of others. The next round is scheduled only after all threads finished, so a slow
+ * flush delays the next round rather than piling up.
+ *
+ * Every worker is notified by {@link PersistenceWorker#afterFlush(boolean)} once the batch including its requests is
+ * executed. The prepare latency is reported once per round, as the sum of the prepare time of all workers. A failed
+ * worker is counted as an error and skipped, the requests prepared by other workers on the same thread are still
+ * executed.
+ */
 @Slf4j
 public enum PersistenceTimer {
     INSTANCE;
@@ -45,8 +64,11 @@ public enum PersistenceTimer {
     private CounterMetrics errorCounter;
     private HistogramMetrics prepareLatency;
     private HistogramMetrics executeLatency;
+    private HistogramMetrics allLatency;
     private long lastTime = System.currentTimeMillis();
-    private final List<PrepareRequest> prepareRequests = new ArrayList<>(50000);
+    private ExecutorService prepareExecutorService;
+    private int prepareThreads;
+    private int maxSyncOperationNum;
 
     PersistenceTimer() {
         this.debug = System.getProperty("debug") != null;
@@ -71,9 +93,21 @@ public enum PersistenceTimer {
             "persistence_timer_bulk_execute_latency", "Latency of the execute stage in persistence timer",
             MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
         );
+        allLatency = metricsCreator.createHistogramMetric(
+            "persistence_timer_bulk_all_latency", "Latency of the whole round in persistence timer",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
 
         if (!isStarted) {
-            Executors.newSingleThreadScheduledExecutor()
+            prepareThreads = Math.max(1, moduleConfig.getPrepareThreads());
+            maxSyncOperationNum = moduleConfig.getMaxSyncOperationNum();
+            prepareExecutorService = Executors.newFixedThreadPool(
+                prepareThreads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("PersistenceTimer-prepare-%d").build()
+            );
+
+            Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("PersistenceTimer-%d").build())
                      .scheduleWithFixedDelay(
                          new RunnableWithExceptionProtection(() -> extractDataAndSave(batchDAO), t -> log
                              .error("Extract data and save failure.", t)), 5, moduleConfig.getPersistentPeriod(),
@@ -91,48 +125,41 @@ public enum PersistenceTimer {
 
         long startTime = System.currentTimeMillis();
 
+        HistogramMetrics.Timer allTimer = allLatency.createTimer();
         try {
-            HistogramMetrics.Timer timer = prepareLatency.createTimer();
-
-            try {
-                List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
-                persistenceWorkers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
-                persistenceWorkers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
-
-                persistenceWorkers.forEach(worker -> {
-                    if (log.isDebugEnabled()) {
-                        log.debug("extract {} worker data and save", worker.getClass().getName());
+            List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
+            persistenceWorkers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
+            persistenceWorkers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
+
+            final long tookTime = startTime - lastTime;
+            final BlockingQueue<PersistenceWorker> workerQueue = new LinkedBlockingQueue<>(persistenceWorkers);
+            final long roundStart = System.nanoTime();
+            final AtomicLong lastPrepareEnd = new AtomicLong(roundStart);
+            final CountDownLatch countDownLatch = new CountDownLatch(prepareThreads);
+            for (int i = 0; i < prepareThreads; i++) {
+                prepareExecutorService.submit(() -> {
+                    try {
+                        prepareAndExecute(workerQueue, batchDAO, tookTime, lastPrepareEnd);
+                    } finally {
+                        countDownLatch.countDown();
                     }
-
-                    worker.buildBatchRequests(prepareRequests);
-
-                    worker.endOfRound(System.currentTimeMillis() - lastTime);
                 });
-
-                if (debug) {
-                    log.info("build batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
-                }
-            } finally {
-                timer.finish();
             }
 
-            HistogramMetrics.Timer executeLatencyTimer = executeLatency.createTimer();
-            try {
-                if (CollectionUtils.isNotEmpty(prepareRequests)) {
-                    batchDAO.synchronous(prepareRequests);
-                }
-            } finally {
-                executeLatencyTimer.finish();
-            }
+            countDownLatch.await();
+            // The wall time since the round started until the last worker prepared, comparable with the whole round,
+            // rather than the sum of the parallel prepare threads. It includes the batches executed meanwhile, once
+            // maxSyncOperationNum is reached.
+            prepareLatency.observe((lastPrepareEnd.get() - roundStart) / 1.0E9D);
         } catch (Throwable e) {
             errorCounter.inc();
             log.error(e.getMessage(), e);
         } finally {
+            allTimer.finish();
             if (log.isDebugEnabled()) {
                 log.debug("Persistence data save finish");
             }
 
-            prepareRequests.clear();
             lastTime = System.currentTimeMillis();
         }
 
@@ -140,4 +167,74 @@ public enum PersistenceTimer {
             log.info("Batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
         }
     }
+
+    /**
+     * Take workers from the queue until it is empty, and execute the prepared requests in batches. The end time of the
+     * latest prepared worker of the round is kept in the given lastPrepareEnd.
+     */
+    private void prepareAndExecute(BlockingQueue<PersistenceWorker> workerQueue, IBatchDAO batchDAO, long tookTime,
+                                   AtomicLong lastPrepareEnd) {
+        List<PrepareRequest> prepareRequests = new ArrayList<>(maxSyncOperationNum);
+        List<PersistenceWorker> preparedWorkers = new ArrayList<>();
+        PersistenceWorker worker;
+        while ((worker = workerQueue.poll()) != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("extract {} worker data and save", worker.getClass().getName());
+            }
+
+            boolean prepared = false;
+            try {
+                worker.buildBatchRequests(prepareRequests);
+                worker.endOfRound(tookTime);
+                prepared = true;
+            } catch (Throwable e) {
+                errorCounter.inc();
+                log.error("Prepare the persistence of " + worker.getClass().getName() + " failure.", e);
+            } finally {
+                lastPrepareEnd.accumulateAndGet(System.nanoTime(), Math::max);
+            }
+
+            if (prepared) {
+                preparedWorkers.add(worker);
+            } else {
+                worker.afterFlush(false);
+            }
+            if (prepareRequests.size() >= maxSyncOperationNum) {
+                execute(prepareRequests, preparedWorkers, batchDAO);
+            }
+        }
+
+        execute(prepareRequests, preparedWorkers, batchDAO);
+    }
+
+    /**
+     * Execute the prepared requests, and notify the workers which prepared them.
+     */
+    private void execute(List<PrepareRequest> prepareRequests, List<PersistenceWorker> preparedWorkers,
+                         IBatchDAO batchDAO) {
+        boolean succeeded = true;
+        if (CollectionUtils.isNotEmpty(prepareRequests)) {
+            HistogramMetrics.Timer executeLatencyTimer = executeLatency.createTimer();
+            try {
+                batchDAO.synchronous(prepareRequests);
+            } catch (Throwable e) {
+                succeeded = false;
+                errorCounter.inc();
+                log.error(e.getMessage(), e);
+            } finally {
+                executeLatencyTimer.finish();
+                prepareRequests.clear();
+            }
+        }
+
+        for (PersistenceWorker worker : preparedWorkers) {
+            try {
+                worker.afterFlush(succeeded);
+            } catch (Throwable e) {
+                errorCounter.inc();
+                log.error(e.getMessage(), e);
+            }
+        }
+        preparedWorkers.clear();
+    }
 }
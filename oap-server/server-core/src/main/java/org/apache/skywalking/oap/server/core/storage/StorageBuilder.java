@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -30,4 +31,14 @@ public interface StorageBuilder<T extends StorageData> {
     T map2Data(Map<String, Object> dbMap);
 
     Map<String, Object> data2Map(T storageData);
+
+    /**
+     * Write the columns of the given entity into the writer directly, without the intermediate map. The OAL generated
+     * builders override this, the others go through {@link #data2Map(StorageData)}.
+     */
+    default void data2Columns(T storageData, ColumnWriter writer) throws IOException {
+        for (Map.Entry<String, Object> column : data2Map(storageData).entrySet()) {
+            writer.write(column.getKey(), column.getValue());
+        }
+    }
 }
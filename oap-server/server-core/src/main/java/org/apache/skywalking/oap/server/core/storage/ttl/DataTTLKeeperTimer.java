@@ -18,10 +18,17 @@
 
 package org.apache.skywalking.oap.server.core.storage.ttl;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -36,6 +43,12 @@ import org.apache.skywalking.oap.server.core.storage.model.IModelManager;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * TTL = Time To Live
@@ -52,13 +65,38 @@ public enum DataTTLKeeperTimer {
     private ModuleManager moduleManager;
     private ClusterNodesQuery clusterNodesQuery;
     private CoreModuleConfig moduleConfig;
+    private ExecutorService executeService;
+    private HistogramMetrics executeLatency;
+    private CounterMetrics errorCounter;
+    private GaugeMetrics progress;
 
     public void start(ModuleManager moduleManager, CoreModuleConfig moduleConfig) {
         this.moduleManager = moduleManager;
         this.clusterNodesQuery = moduleManager.find(ClusterModule.NAME).provider().getService(ClusterNodesQuery.class);
         this.moduleConfig = moduleConfig;
+        this.executeService = Executors.newFixedThreadPool(
+            Math.max(1, moduleConfig.getDataKeeperExecuteThreads()),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("DataTTLKeeperTimer-execute-%d").build()
+        );
 
-        Executors.newSingleThreadScheduledExecutor()
+        MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                                     .provider()
+                                                     .getService(MetricsCreator.class);
+        executeLatency = metricsCreator.createHistogramMetric(
+            "data_keeper_execute_latency", "Latency of removing the expired data of all models",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        errorCounter = metricsCreator.createCounter(
+            "data_keeper_error_count", "The number of models failed to remove the expired data",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        progress = metricsCreator.createGauge(
+            "data_keeper_progress", "The ratio of models processed in the current round of removing the expired data",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("DataTTLKeeperTimer-%d").build())
                  .scheduleAtFixedRate(
                      new RunnableWithExceptionProtection(
                          this::delete,
@@ -69,7 +107,8 @@ public enum DataTTLKeeperTimer {
 
     /**
      * DataTTLKeeperTimer starts in every OAP node, but the deletion only work when it is as the first node in the OAP
-     * node list from {@link ClusterNodesQuery}.
+     * node list from {@link ClusterNodesQuery}. The models are processed by the execute threads in parallel, and the
+     * method returns after all of them are finished, so the rounds never overlap.
      */
     private void delete() {
         List<RemoteInstance> remoteInstances = clusterNodesQuery.queryRemoteNodes();
@@ -81,20 +120,45 @@ public enum DataTTLKeeperTimer {
         log.info("Beginning to remove expired metrics from the storage.");
         IModelManager modelGetter = moduleManager.find(CoreModule.NAME).provider().getService(IModelManager.class);
         List<Model> models = modelGetter.allModels();
-        models.forEach(this::execute);
-    }
 
-    private void execute(Model model) {
-        try {
-            moduleManager.find(StorageModule.NAME)
-                         .provider()
-                         .getService(IHistoryDeleteDAO.class)
-                         .deleteHistory(model, Metrics.TIME_BUCKET,
-                                        model.isRecord() ? moduleConfig.getRecordDataTTL() : moduleConfig.getMetricsDataTTL()
-                         );
-        } catch (IOException e) {
-            log.warn("History of {} delete failure", model.getName());
-            log.error(e.getMessage(), e);
+        AtomicInteger finished = new AtomicInteger();
+        progress.setValue(0);
+        List<Callable<Void>> tasks = new ArrayList<>(models.size());
+        models.forEach(model -> tasks.add(() -> {
+            try {
+                execute(model);
+            } finally {
+                progress.setValue((double) finished.incrementAndGet() / models.size());
+            }
+            return null;
+        }));
+
+        long startTime = System.currentTimeMillis();
+        try (HistogramMetrics.Timer ignored = executeLatency.createTimer()) {
+            List<Future<Void>> futures = executeService.invokeAll(tasks);
+            // The futures are in the order of the models.
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    errorCounter.inc();
+                    log.error("History of {} delete failure", models.get(i).getName(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Removing expired data is interrupted.");
         }
+        log.info(
+            "Removed expired data of {} models in {} ms.", models.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void execute(Model model) throws IOException {
+        moduleManager.find(StorageModule.NAME)
+                     .provider()
+                     .getService(IHistoryDeleteDAO.class)
+                     .deleteHistory(model, Metrics.TIME_BUCKET,
+                                    model.isRecord() ? moduleConfig.getRecordDataTTL() : moduleConfig.getMetricsDataTTL()
+                     );
     }
 }
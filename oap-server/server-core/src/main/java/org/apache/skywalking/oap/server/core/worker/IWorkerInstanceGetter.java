@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.worker;
 
+import java.util.Map;
 import org.apache.skywalking.oap.server.library.module.Service;
 
 /**
@@ -26,4 +27,18 @@ import org.apache.skywalking.oap.server.library.module.Service;
 public interface IWorkerInstanceGetter extends Service {
     RemoteHandleWorker get(String nextWorkerName);
 
+    /**
+     * @return the worker of the given id, or NULL if not found.
+     */
+    RemoteHandleWorker get(int workerId);
+
+    /**
+     * @return the ids of all registered workers, keyed by the worker names. The ids are assigned by this OAP node.
+     */
+    Map<String, Integer> getWorkerIds();
+
+    /**
+     * @return the version of the worker ids, it changes when the OAP node restarts.
+     */
+    long getWorkerIdsVersion();
 }
@@ -18,13 +18,34 @@
 
 package org.apache.skywalking.oap.server.core.worker;
 
-import lombok.AllArgsConstructor;
+import java.lang.reflect.Constructor;
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 
-@AllArgsConstructor
 @Getter
 public class RemoteHandleWorker {
     private AbstractWorker worker;
     private Class<? extends StreamData> streamDataClass;
+    @Getter(AccessLevel.NONE)
+    private Constructor<? extends StreamData> streamDataConstructor;
+
+    public RemoteHandleWorker(AbstractWorker worker, Class<? extends StreamData> streamDataClass) {
+        this.worker = worker;
+        this.streamDataClass = streamDataClass;
+        try {
+            this.streamDataConstructor = streamDataClass.getDeclaredConstructor();
+            this.streamDataConstructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new UnexpectedException(streamDataClass.getName() + " should have a constructor without parameter.");
+        }
+    }
+
+    /**
+     * Create a new instance of the stream data through the cached constructor, to be deserialized from the remote data.
+     */
+    public StreamData newStreamData() throws ReflectiveOperationException {
+        return streamDataConstructor.newInstance();
+    }
 }
@@ -18,23 +18,34 @@
 
 package org.apache.skywalking.oap.server.core.worker;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Worker Instance Service hosts all remote handler workers with the stream data type.
+ * Worker Instance Service hosts all remote handler workers with the stream data type. Every worker is assigned an
+ * integer id by the registration order, which is only valid in the current OAP node, with the version of this
+ * service instance.
  */
 public class WorkerInstancesService implements IWorkerInstanceSetter, IWorkerInstanceGetter {
     private static final Logger logger = LoggerFactory.getLogger(WorkerInstancesService.class);
 
     private final Map<String, RemoteHandleWorker> instances;
+    private final Map<String, Integer> workerIds;
+    private volatile List<RemoteHandleWorker> instancesById;
+    private final long workerIdsVersion;
 
     public WorkerInstancesService() {
         this.instances = new HashMap<>();
+        this.workerIds = new HashMap<>();
+        this.instancesById = new ArrayList<>();
+        this.workerIdsVersion = ThreadLocalRandom.current().nextLong();
     }
 
     @Override
@@ -43,12 +54,38 @@ public class WorkerInstancesService implements IWorkerInstanceSetter, IWorkerIns
     }
 
     @Override
-    public void put(String remoteReceiverWorkName, AbstractWorker instance,
+    public RemoteHandleWorker get(int workerId) {
+        final List<RemoteHandleWorker> workers = instancesById;
+        if (workerId < 0 || workerId >= workers.size()) {
+            return null;
+        }
+        return workers.get(workerId);
+    }
+
+    @Override
+    public synchronized Map<String, Integer> getWorkerIds() {
+        return new HashMap<>(workerIds);
+    }
+
+    @Override
+    public long getWorkerIdsVersion() {
+        return workerIdsVersion;
+    }
+
+    @Override
+    public synchronized void put(String remoteReceiverWorkName, AbstractWorker instance,
         Class<? extends StreamData> streamDataClass) {
         if (instances.containsKey(remoteReceiverWorkName)) {
             throw new UnexpectedException("Duplicate worker name:" + remoteReceiverWorkName);
         }
-        instances.put(remoteReceiverWorkName, new RemoteHandleWorker(instance, streamDataClass));
+        final RemoteHandleWorker handleWorker = new RemoteHandleWorker(instance, streamDataClass);
+        instances.put(remoteReceiverWorkName, handleWorker);
+
+        // Copy on write, the workers are read by id without lock.
+        final List<RemoteHandleWorker> workers = new ArrayList<>(instancesById);
+        workerIds.put(remoteReceiverWorkName, workers.size());
+        workers.add(handleWorker);
+        instancesById = workers;
         logger.debug("Worker {} has been registered as {}", instance.toString(), remoteReceiverWorkName);
     }
 }
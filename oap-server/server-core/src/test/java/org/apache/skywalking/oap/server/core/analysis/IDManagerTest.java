@@ -18,10 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.analysis;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
 public class IDManagerTest {
+    @After
+    public void tearDown() {
+        IDManager.setCacheSize(100_000);
+    }
+
     @Test
     public void testServiceID() {
         IDManager.ServiceID.ServiceIDDefinition define = new IDManager.ServiceID.ServiceIDDefinition(
@@ -49,4 +55,29 @@ public class IDManagerTest {
         Assert.assertEquals(define, serviceRelationDefine);
     }
 
+    @Test
+    public void testCachedEndpointID() {
+        final String serviceId = IDManager.ServiceID.buildId("Service", NodeType.Normal);
+        final String endpointId = IDManager.EndpointID.buildId(serviceId, "/endpoint");
+        Assert.assertEquals(endpointId, IDManager.EndpointID.buildId(serviceId, "/endpoint"));
+
+        final IDManager.EndpointID.EndpointIDDefinition define = IDManager.EndpointID.analysisId(endpointId);
+        Assert.assertEquals(serviceId, define.getServiceId());
+        Assert.assertEquals("/endpoint", define.getEndpointName());
+
+        final String alias = IDManager.NetworkAddressAliasDefine.buildId("127.0.0.1:8080");
+        Assert.assertSame(alias, IDManager.NetworkAddressAliasDefine.buildId("127.0.0.1:8080"));
+        Assert.assertSame(
+            IDManager.NetworkAddressAliasDefine.analysisId(alias),
+            IDManager.NetworkAddressAliasDefine.analysisId(alias)
+        );
+    }
+
+    @Test
+    public void testWithoutCache() {
+        IDManager.setCacheSize(0);
+        final String alias = IDManager.NetworkAddressAliasDefine.buildId("127.0.0.1:8080");
+        Assert.assertEquals("MTI3LjAuMC4xOjgwODA=", alias);
+        Assert.assertEquals("127.0.0.1:8080", IDManager.NetworkAddressAliasDefine.analysisId(alias));
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReadWriteSafeCacheTest {
+    @Test
+    public void testReadAfterWrite() {
+        ReadWriteSafeCache<Integer> cache = new ReadWriteSafeCache<>(ListBufferedData::new);
+        cache.write(1);
+        List<Integer> batch = new ArrayList<>();
+        batch.add(2);
+        batch.add(3);
+        cache.write(batch);
+
+        Assert.assertEquals(3, cache.read().size());
+        Assert.assertEquals(0, cache.read().size());
+        Assert.assertEquals(1, cache.stripeSize());
+    }
+
+    @Test
+    public void testConcurrentWriteAndRead() throws InterruptedException {
+        final int writers = 4;
+        final int loop = 100000;
+        ReadWriteSafeCache<Integer> cache = new ReadWriteSafeCache<>(ListBufferedData::new);
+        CountDownLatch finished = new CountDownLatch(writers);
+        for (int i = 0; i < writers; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < loop; j++) {
+                    cache.write(j);
+                }
+                finished.countDown();
+            }).start();
+        }
+
+        AtomicLong total = new AtomicLong();
+        while (finished.getCount() > 0) {
+            total.addAndGet(cache.read().size());
+        }
+        total.addAndGet(cache.read().size());
+
+        Assert.assertEquals(writers * loop, total.get());
+        Assert.assertEquals(writers, cache.stripeSize());
+    }
+
+    private static class ListBufferedData implements BufferedData<Integer> {
+        private final List<Integer> buffer = new ArrayList<>();
+
+        @Override
+        public void accept(final Integer data) {
+            buffer.add(data);
+        }
+
+        @Override
+        public List<Integer> read() {
+            try {
+                return new ArrayList<>(buffer);
+            } finally {
+                buffer.clear();
+            }
+        }
+    }
+}
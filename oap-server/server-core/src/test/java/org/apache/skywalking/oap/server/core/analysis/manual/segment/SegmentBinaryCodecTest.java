@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import java.io.IOException;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanLayer;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentBinaryCodecTest {
+    @After
+    public void tearDown() {
+        SegmentBinaryCodec.setCompressionEnabled(false);
+    }
+
+    @Test
+    public void testCompressedRoundTrip() throws IOException {
+        SegmentBinaryCodec.setCompressionEnabled(true);
+        byte[] dataBinary = buildSegment().toByteArray();
+
+        byte[] encoded = SegmentBinaryCodec.encode(dataBinary);
+        Assert.assertEquals(SegmentBinaryCodec.MAGIC, encoded[0]);
+        Assert.assertEquals(SegmentBinaryCodec.FORMAT_DEFLATE, encoded[1]);
+        Assert.assertTrue(encoded.length * 2 < dataBinary.length);
+
+        Assert.assertEquals(buildSegment(), SegmentObject.parseFrom(SegmentBinaryCodec.decode(encoded)));
+    }
+
+    @Test
+    public void testCompressionDisabled() throws IOException {
+        byte[] dataBinary = buildSegment().toByteArray();
+
+        byte[] encoded = SegmentBinaryCodec.encode(dataBinary);
+        Assert.assertSame(dataBinary, encoded);
+        Assert.assertSame(dataBinary, SegmentBinaryCodec.decode(encoded));
+    }
+
+    @Test
+    public void testNotCompressedWhenLonger() {
+        SegmentBinaryCodec.setCompressionEnabled(true);
+        byte[] dataBinary = SegmentObject.newBuilder().setTraceId("t").build().toByteArray();
+
+        Assert.assertSame(dataBinary, SegmentBinaryCodec.encode(dataBinary));
+    }
+
+    @Test
+    public void testReusedEncoder() throws IOException {
+        SegmentBinaryCodec.setCompressionEnabled(true);
+        byte[] dataBinary = buildSegment().toByteArray();
+        byte[] encoded = SegmentBinaryCodec.encode(dataBinary);
+
+        // The deflater of the thread is reset after a segment given up in the middle of the deflation.
+        SegmentBinaryCodec.encode(SegmentObject.newBuilder().setTraceId("t").build().toByteArray());
+        Assert.assertArrayEquals(encoded, SegmentBinaryCodec.encode(dataBinary));
+        Assert.assertArrayEquals(dataBinary, SegmentBinaryCodec.decode(SegmentBinaryCodec.encode(dataBinary)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownFormat() throws IOException {
+        SegmentBinaryCodec.decode(new byte[] {SegmentBinaryCodec.MAGIC, 0x7F, 0x01});
+    }
+
+    private SegmentObject buildSegment() {
+        SegmentObject.Builder segment = SegmentObject.newBuilder()
+                                                     .setTraceId("6c4b1a2e8e7c4d63b1f0c9a8d7e6f5a4.52.15893200140010001")
+                                                     .setTraceSegmentId("6c4b1a2e8e7c4d63b1f0c9a8d7e6f5a4.52.15893200140010000")
+                                                     .setService("order-service")
+                                                     .setServiceInstance("order-service-7d9f8c6b5-x2k4p@10.0.12.7");
+        segment.addSpans(SpanObject.newBuilder()
+                                   .setSpanId(0)
+                                   .setParentSpanId(-1)
+                                   .setStartTime(1589320014001L)
+                                   .setEndTime(1589320014230L)
+                                   .setOperationName("/api/orders/{orderId}")
+                                   .setSpanType(SpanType.Entry)
+                                   .setSpanLayer(SpanLayer.Http)
+                                   .setComponentId(1)
+                                   .addTags(tag("url", "http://order-service:8080/api/orders/1024"))
+                                   .addTags(tag("http.method", "GET")));
+        for (int i = 1; i <= 10; i++) {
+            segment.addSpans(SpanObject.newBuilder()
+                                       .setSpanId(i)
+                                       .setParentSpanId(0)
+                                       .setStartTime(1589320014010L + i * 10)
+                                       .setEndTime(1589320014018L + i * 10)
+                                       .setOperationName("Mysql/JDBI/PreparedStatement/executeQuery")
+                                       .setPeer("mysql-primary.db.svc:3306")
+                                       .setSpanType(SpanType.Exit)
+                                       .setSpanLayer(SpanLayer.Database)
+                                       .setComponentId(33)
+                                       .addTags(tag("db.type", "sql"))
+                                       .addTags(tag("db.instance", "orders"))
+                                       .addTags(tag(
+                                           "db.statement",
+                                           "SELECT id, user_id, amount, status FROM t_order_item WHERE order_id = ?"
+                                       )));
+        }
+        return segment.build();
+    }
+
+    private KeyStringValuePair tag(String key, String value) {
+        return KeyStringValuePair.newBuilder().setKey(key).setValue(value).build();
+    }
+}
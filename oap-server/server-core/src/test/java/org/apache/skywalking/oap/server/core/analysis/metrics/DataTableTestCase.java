@@ -17,6 +17,7 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,6 +36,11 @@ public class DataTableTestCase {
         dataTable.valueAccumulation("7", 700L);
     }
 
+    @After
+    public void tearDown() {
+        DataTable.setCompactStorageData(false);
+    }
+
     @Test
     public void toStorageData() {
         Assert.assertEquals("1,100|2,200|5,500|6,600|7,700", dataTable.toStorageData());
@@ -59,4 +65,81 @@ public class DataTableTestCase {
 
         Assert.assertEquals("1,100|2,200|5,500|6,600|7,700", dataTable.toStorageData());
     }
+
+    @Test
+    public void intKeys() {
+        DataTable dataTable = new DataTable();
+        dataTable.valueAccumulation(5, 500L);
+        dataTable.valueAccumulation(1, 100L);
+        dataTable.valueAccumulation(5, 1L);
+        dataTable.put(-3, 30L);
+
+        Assert.assertEquals(501, dataTable.get("5").intValue());
+        Assert.assertEquals(100, dataTable.get(1, 0));
+        Assert.assertEquals(0, dataTable.get(2, 0));
+        Assert.assertNull(dataTable.get("2"));
+        Assert.assertArrayEquals(new int[] {-3, 1, 5}, dataTable.sortedIntKeys());
+        Assert.assertEquals(631, dataTable.sumOfValues());
+        Assert.assertEquals("-3,30|1,100|5,501", dataTable.toStorageData());
+    }
+
+    @Test
+    public void mixedKeys() {
+        DataTable dataTable = new DataTable();
+        dataTable.toObject("infinite-,1|0,2|00,3|10,4");
+
+        Assert.assertEquals(4, dataTable.size());
+        Assert.assertEquals(1, dataTable.get("infinite-").intValue());
+        Assert.assertEquals(3, dataTable.get("00").intValue());
+        Assert.assertEquals(2, dataTable.get(0, 0));
+        Assert.assertEquals(new DataTable(dataTable.toStorageData()), dataTable);
+        Assert.assertEquals(new DataTable(dataTable.toStorageData()).hashCode(), dataTable.hashCode());
+    }
+
+    @Test
+    public void resize() {
+        DataTable dataTable = new DataTable(2);
+        for (int i = 0; i < 1000; i++) {
+            dataTable.valueAccumulation(i * 100, i);
+        }
+        DataTable another = new DataTable();
+        another.append(dataTable);
+
+        Assert.assertEquals(1000, another.size());
+        Assert.assertTrue(another.keysEqual(dataTable));
+        Assert.assertEquals(dataTable, another);
+        Assert.assertEquals(999, another.get(99900, 0));
+    }
+
+    @Test
+    public void compactStorageData() {
+        DataTable.setCompactStorageData(true);
+        DataTable histogram = new DataTable();
+        histogram.put(0, 12L);
+        histogram.put(200, 3L);
+        histogram.put(300, 0L);
+        histogram.put(500, -1L);
+
+        Assert.assertEquals("#0,100|12,,3,0,,-1", histogram.toStorageData());
+        DataTable read = new DataTable(histogram.toStorageData());
+        Assert.assertEquals(histogram, read);
+        Assert.assertFalse(read.hasKey(100));
+
+        Assert.assertEquals("#1,1|100,200,,,500,600,700", dataTable.toStorageData());
+        Assert.assertEquals(dataTable, new DataTable(dataTable.toStorageData()));
+    }
+
+    @Test
+    public void compactStorageDataFallback() {
+        DataTable.setCompactStorageData(true);
+        DataTable percentile = new DataTable();
+        percentile.put(50, 100L);
+        percentile.put(75, 150L);
+        percentile.put(1000, 200L);
+        Assert.assertEquals("50,100|75,150|1000,200", percentile.toStorageData());
+
+        DataTable mixed = new DataTable("infinite-,1|0,2|100,3");
+        Assert.assertEquals(mixed, new DataTable(mixed.toStorageData()));
+        Assert.assertTrue(mixed.toStorageData().startsWith("infinite-,1"));
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import com.google.common.base.Ticker;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MetricsSessionCacheTest {
+    private final Map<String, CounterMocker> counters = new HashMap<>();
+    private final FakeTicker ticker = new FakeTicker();
+    private ModuleManagerTesting moduleManager;
+    private Model model;
+
+    @Before
+    public void setUp() {
+        MetricsCreator metricsCreator = mock(MetricsCreator.class);
+        when(metricsCreator.createCounter(anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            final String name = (String) invocation.getArguments()[0];
+            return counters.computeIfAbsent(name, key -> new CounterMocker());
+        });
+        when(metricsCreator.createGauge(any(), any(), any(), any())).thenReturn(mock(GaugeMetrics.class));
+
+        moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, metricsCreator);
+
+        model = new Model(
+            "service_cpm", Collections.emptyList(), Collections.emptyList(), 1, DownSampling.Minute, false);
+    }
+
+    @Test
+    public void testHit() {
+        MetricsSessionCache cache = new MetricsSessionCache(moduleManager, model, 70_000L, 10, ticker);
+
+        MetricsMocker metrics = new MetricsMocker(202006010001L, "a");
+        Assert.assertNull(cache.get(new MetricsMocker(202006010001L, "a")));
+        cache.put(metrics);
+        Assert.assertSame(metrics, cache.get(new MetricsMocker(202006010001L, "a")));
+        Assert.assertNull(cache.get(new MetricsMocker(202006010002L, "a")));
+
+        Assert.assertEquals(1, counters.get("metrics_persistent_session_hit_count").count);
+        Assert.assertEquals(2, counters.get("metrics_persistent_session_miss_count").count);
+    }
+
+    @Test
+    public void testExpiry() {
+        MetricsSessionCache cache = new MetricsSessionCache(moduleManager, model, 70_000L, 10, ticker);
+
+        cache.put(new MetricsMocker(202006010001L, "a"));
+        ticker.advance(69_000L);
+        Assert.assertNotNull(cache.get(new MetricsMocker(202006010001L, "a")));
+        ticker.advance(1_000L);
+        Assert.assertNull(cache.get(new MetricsMocker(202006010001L, "a")));
+        // The expired metrics are not counted as evicted.
+        Assert.assertEquals(0, counters.get("metrics_persistent_session_eviction_count").count);
+    }
+
+    @Test
+    public void testEviction() {
+        MetricsSessionCache cache = new MetricsSessionCache(moduleManager, model, 70_000L, 2, ticker);
+
+        cache.put(new MetricsMocker(202006010001L, "a"));
+        cache.put(new MetricsMocker(202006010001L, "b"));
+        cache.put(new MetricsMocker(202006010001L, "c"));
+        cache.cleanUp();
+
+        Assert.assertNull(cache.get(new MetricsMocker(202006010001L, "a")));
+        Assert.assertNotNull(cache.get(new MetricsMocker(202006010001L, "b")));
+        Assert.assertNotNull(cache.get(new MetricsMocker(202006010001L, "c")));
+        Assert.assertEquals(1, counters.get("metrics_persistent_session_eviction_count").count);
+    }
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        private void advance(long millis) {
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    }
+
+    private static class CounterMocker implements CounterMetrics {
+        private long count;
+
+        @Override
+        public void inc() {
+            count++;
+        }
+
+        @Override
+        public void inc(double value) {
+            count += value;
+        }
+    }
+
+    private static class MetricsMocker extends Metrics {
+        private final String id;
+
+        private MetricsMocker(long timeBucket, String id) {
+            this.id = id;
+            setTimeBucket(timeBucket);
+        }
+
+        @Override
+        public String id() {
+            return getTimeBucket() + "_" + id;
+        }
+
+        @Override
+        public void combine(Metrics metrics) {
+
+        }
+
+        @Override
+        public void calculate() {
+
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MetricsMocker && Objects.equals(id(), ((MetricsMocker) o).id());
+        }
+
+        @Override
+        public int hashCode() {
+            return id().hashCode();
+        }
+    }
+}
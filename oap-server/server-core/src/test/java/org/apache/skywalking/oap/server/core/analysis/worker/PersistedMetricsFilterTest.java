@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PersistedMetricsFilterTest {
+    @Test
+    public void testNewMetrics() {
+        PersistedMetricsFilter filter = new PersistedMetricsFilter(202006010000L, 16, 3);
+
+        Assert.assertTrue(filter.isNew(new MetricsMocker(202006010001L, "a")));
+        filter.persisted(new MetricsMocker(202006010001L, "a"));
+        Assert.assertFalse(filter.isNew(new MetricsMocker(202006010001L, "a")));
+        Assert.assertTrue(filter.isNew(new MetricsMocker(202006010002L, "a")));
+    }
+
+    @Test
+    public void testUnknownTimeBucket() {
+        PersistedMetricsFilter filter = new PersistedMetricsFilter(202006010000L, 16, 3);
+
+        Assert.assertFalse(filter.isNew(new MetricsMocker(202006010000L, "a")));
+        Assert.assertFalse(filter.isNew(new MetricsMocker(202005312359L, "a")));
+        filter.persisted(new MetricsMocker(202006010000L, "a"));
+        Assert.assertEquals(0, filter.size());
+    }
+
+    @Test
+    public void testClusterChanged() {
+        PersistedMetricsFilter filter = new PersistedMetricsFilter(202006010000L, 16, 3);
+        filter.persisted(new MetricsMocker(202006010001L, "a"));
+
+        filter.markUnknownUntil(202006010002L);
+        Assert.assertFalse(filter.isNew(new MetricsMocker(202006010001L, "b")));
+        Assert.assertFalse(filter.isNew(new MetricsMocker(202006010002L, "b")));
+        Assert.assertTrue(filter.isNew(new MetricsMocker(202006010003L, "b")));
+
+        // The unknown time bucket never goes back.
+        filter.markUnknownUntil(202006010001L);
+        Assert.assertFalse(filter.isNew(new MetricsMocker(202006010002L, "b")));
+    }
+
+    @Test
+    public void testEviction() {
+        PersistedMetricsFilter filter = new PersistedMetricsFilter(202006010000L, 16, 3);
+        for (long timeBucket = 202006010001L; timeBucket <= 202006010004L; timeBucket++) {
+            filter.persisted(new MetricsMocker(timeBucket, "a"));
+        }
+
+        Assert.assertEquals(3, filter.size());
+        // The filter of the oldest time bucket has been evicted, it is unknown now.
+        Assert.assertFalse(filter.isNew(new MetricsMocker(202006010001L, "b")));
+        Assert.assertTrue(filter.isNew(new MetricsMocker(202006010002L, "b")));
+    }
+
+    @Test
+    public void testGrow() {
+        PersistedMetricsFilter filter = new PersistedMetricsFilter(202006010000L, 16, 3);
+        for (int i = 0; i < 1000; i++) {
+            filter.persisted(new MetricsMocker(202006010001L, String.valueOf(i)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertFalse(filter.isNew(new MetricsMocker(202006010001L, String.valueOf(i))));
+        }
+
+        int falsePositive = 0;
+        for (int i = 1000; i < 2000; i++) {
+            if (!filter.isNew(new MetricsMocker(202006010001L, String.valueOf(i)))) {
+                falsePositive++;
+            }
+        }
+        Assert.assertTrue(falsePositive < 100);
+    }
+
+    private static class MetricsMocker extends Metrics {
+        private final String id;
+
+        private MetricsMocker(long timeBucket, String id) {
+            this.id = id;
+            setTimeBucket(timeBucket);
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public void combine(Metrics metrics) {
+
+        }
+
+        @Override
+        public void calculate() {
+
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.record.Record;
+import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RecordPersistentWorkerTest {
+    private final List<CounterMocker> droppedCounters = new ArrayList<>();
+    private final List<PrepareRequest> asynchronous = new CopyOnWriteArrayList<>();
+    private final List<PrepareRequest> synchronous = new CopyOnWriteArrayList<>();
+    /**
+     * Counted down once the consumer starts persisting, and blocks the consumer until released.
+     */
+    private final CountDownLatch consuming = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ModuleManagerTesting moduleManager;
+    private IRecordDAO recordDAO;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        MetricsCreator metricsCreator = mock(MetricsCreator.class);
+        when(metricsCreator.createCounter(anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            CounterMocker counter = new CounterMocker();
+            droppedCounters.add(counter);
+            return counter;
+        });
+        when(metricsCreator.createGauge(any(), any(), any(), any())).thenReturn(mock(GaugeMetrics.class));
+
+        IBatchDAO batchDAO = mock(IBatchDAO.class);
+        doAnswer(invocation -> asynchronous.add((PrepareRequest) invocation.getArguments()[0]))
+            .when(batchDAO).asynchronous(any());
+        doAnswer(invocation -> synchronous.addAll((List<PrepareRequest>) invocation.getArguments()[0]))
+            .when(batchDAO).synchronous(any());
+
+        recordDAO = mock(IRecordDAO.class);
+        when(recordDAO.prepareBatchInsert(any(), any())).thenAnswer(invocation -> {
+            consuming.countDown();
+            release.await();
+            return mock(InsertRequest.class);
+        });
+
+        moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, metricsCreator);
+        ModuleDefineTesting storageModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(StorageModule.NAME, storageModuleDefine);
+        storageModuleDefine.provider().registerServiceImplementation(IBatchDAO.class, batchDAO);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    public void testDropPerModel() throws Exception {
+        RecordPersistentWorker workerA = newWorker("record_a", RecordStreamProcessor.QueueFullPolicy.DROP);
+        RecordPersistentWorker workerB = newWorker("record_b", RecordStreamProcessor.QueueFullPolicy.DROP);
+
+        workerA.in(mock(Record.class));
+        Assert.assertTrue(consuming.await(5, TimeUnit.SECONDS));
+        // The consumer is blocked, the queue of record_a is filled up and the next record is dropped.
+        for (int i = 0; i < 6; i++) {
+            workerA.in(mock(Record.class));
+        }
+        Assert.assertEquals(1, droppedCounters.get(0).count);
+        Assert.assertEquals(6, workerA.getQueueDepth());
+
+        // The queue of record_b isn't affected.
+        for (int i = 0; i < 5; i++) {
+            workerB.in(mock(Record.class));
+        }
+        Assert.assertEquals(0, droppedCounters.get(1).count);
+
+        release.countDown();
+        await(() -> asynchronous.size() == 11);
+        Assert.assertEquals(0, workerA.getQueueDepth());
+        Assert.assertEquals(0, workerB.getQueueDepth());
+        Assert.assertTrue(synchronous.isEmpty());
+    }
+
+    @Test
+    public void testBlock() throws Exception {
+        RecordPersistentWorker worker = newWorker("record_block", RecordStreamProcessor.QueueFullPolicy.BLOCK);
+
+        worker.in(mock(Record.class));
+        Assert.assertTrue(consuming.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            worker.in(mock(Record.class));
+        }
+        Thread receiver = new Thread(() -> worker.in(mock(Record.class)));
+        receiver.start();
+        // The queue is full, the receiver waits rather than dropping the record.
+        receiver.join(300);
+        Assert.assertTrue(receiver.isAlive());
+
+        release.countDown();
+        receiver.join(5000);
+        Assert.assertFalse(receiver.isAlive());
+        await(() -> asynchronous.size() == 7);
+        Assert.assertEquals(0, droppedCounters.get(0).count);
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        RecordPersistentWorker worker = newWorker("record_shutdown", RecordStreamProcessor.QueueFullPolicy.DROP);
+
+        worker.in(mock(Record.class));
+        Assert.assertTrue(consuming.await(5, TimeUnit.SECONDS));
+        worker.in(mock(Record.class));
+        worker.in(mock(Record.class));
+
+        worker.shutdown();
+        // The new records are refused, and the queued ones are persisted in the synchronous mode.
+        worker.in(mock(Record.class));
+        Assert.assertEquals(1, droppedCounters.get(0).count);
+
+        release.countDown();
+        await(() -> worker.getQueueDepth() == 0);
+        Assert.assertEquals(3, synchronous.size());
+        Assert.assertTrue(asynchronous.isEmpty());
+    }
+
+    private RecordPersistentWorker newWorker(String name, RecordStreamProcessor.QueueFullPolicy queueFullPolicy) {
+        Model model = new Model(name, Collections.emptyList(), Collections.emptyList(), 1, DownSampling.Second, true);
+        return new RecordPersistentWorker(moduleManager, model, recordDAO, 5, 2, queueFullPolicy);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static class CounterMocker implements CounterMetrics {
+        private volatile long count;
+
+        @Override
+        public void inc() {
+            count++;
+        }
+
+        @Override
+        public void inc(double value) {
+            count += value;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+
+public class MetricsQueryCacheTest {
+    private static final String ENTITY_ID = "c2VydmljZQ==.1";
+
+    @Test
+    public void testClosedTimeBucketsCached() {
+        MetricsQueryCache cache = new MetricsQueryCache(
+            1000, 0, mock(CounterMetrics.class), mock(CounterMetrics.class));
+        List<PointOfTime> points = DurationUtils.INSTANCE.getDurationPoints(Step.MINUTE, 202005121530L, 202005121534L);
+        List<String> labels = Collections.singletonList(null);
+
+        Assert.assertEquals(0, cache.firstUncachedPoint("service_cpm", labels, points, ENTITY_ID));
+
+        MetricsValues values = new MetricsValues();
+        for (int i = 0; i < 3; i++) {
+            KVInt kvInt = new KVInt();
+            kvInt.setId(points.get(i).id(ENTITY_ID));
+            kvInt.setValue(100 + i);
+            values.getValues().addKVInt(kvInt);
+        }
+        cache.write("service_cpm", values, Step.MINUTE);
+
+        Assert.assertEquals(3, cache.firstUncachedPoint("service_cpm", labels, points, ENTITY_ID));
+        MetricsValues cached = cache.read("service_cpm", null, points, 3, ENTITY_ID);
+        Assert.assertEquals(3, cached.getValues().getValues().size());
+        Assert.assertEquals(102, cached.getValues().findValue(points.get(2).id(ENTITY_ID), 0));
+        Assert.assertEquals(0, cache.firstUncachedPoint("service_resp_time", labels, points, ENTITY_ID));
+    }
+
+    @Test
+    public void testOpenTimeBucketNotCached() {
+        MetricsQueryCache cache = new MetricsQueryCache(
+            1000, 60_000, mock(CounterMetrics.class), mock(CounterMetrics.class));
+        List<PointOfTime> points = Arrays.asList(new PointOfTime(202005121530L), new PointOfTime(209912312359L));
+
+        MetricsValues values = new MetricsValues();
+        for (PointOfTime point : points) {
+            KVInt kvInt = new KVInt();
+            kvInt.setId(point.id(ENTITY_ID));
+            kvInt.setValue(1);
+            values.getValues().addKVInt(kvInt);
+        }
+        cache.write("service_cpm", values, Step.MINUTE);
+
+        Assert.assertEquals(1, cache.firstUncachedPoint(
+            "service_cpm", Collections.singletonList(null), points, ENTITY_ID));
+    }
+
+    @Test
+    public void testSubDuration() {
+        Duration duration = new Duration();
+        duration.setStep(Step.MINUTE);
+        duration.setStart("2020-05-12 1530");
+        duration.setEnd("2020-05-12 1534");
+        List<PointOfTime> points = duration.assembleDurationPoints();
+
+        Duration subDuration = MetricsQueryCache.subDuration(duration, points, 3);
+        Assert.assertEquals("2020-05-12 1533", subDuration.getStart());
+        Assert.assertEquals(202005121533L, subDuration.getStartTimeBucket());
+        Assert.assertEquals(2, subDuration.assembleDurationPoints().size());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.Arrays;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.sql.Function;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetadata;
+import org.apache.skywalking.oap.server.core.storage.query.IMetricsQueryDAO;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MetricsQueryServiceTest {
+    @Test
+    public void testReadValuesInMaxPoints() throws Exception {
+        ValueColumnMetadata.INSTANCE.putIfAbsent(
+            "max_points_test", "value", Column.ValueDataType.COMMON_VALUE, Function.Avg, 0);
+        ModuleManager moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        IMetricsQueryDAO metricsQueryDAO = mock(IMetricsQueryDAO.class);
+        when(moduleManager.find(StorageModule.NAME).provider().getService(IMetricsQueryDAO.class))
+            .thenReturn(metricsQueryDAO);
+        when(moduleManager.find(CoreModule.NAME).provider().getService(DownSamplingConfigService.class))
+            .thenReturn(new DownSamplingConfigService(Arrays.asList("Hour", "Day")));
+        when(metricsQueryDAO.readMetricsValues(any(MetricsCondition.class), eq("value"), any(Duration.class)))
+            .thenReturn(new MetricsValues());
+        MetricsQueryService service = new MetricsQueryService(moduleManager);
+
+        MetricsCondition condition = new MetricsCondition();
+        condition.setName("max_points_test");
+        Duration sevenDays = duration(Step.MINUTE, "2020-05-05 1530", "2020-05-12 1529");
+        // No limit without the max points.
+        Assert.assertEquals(Step.MINUTE, service.readMetricsValues(condition, sevenDays).getStep());
+
+        sevenDays.setMaxPoints(500);
+        Assert.assertEquals(Step.HOUR, service.readMetricsValues(condition, sevenDays).getStep());
+        ArgumentCaptor<Duration> captor = ArgumentCaptor.forClass(Duration.class);
+        verify(metricsQueryDAO, times(2))
+            .readMetricsValues(any(MetricsCondition.class), eq("value"), captor.capture());
+        Assert.assertEquals(Step.HOUR, captor.getAllValues().get(1).getStep());
+        Assert.assertEquals("2020-05-05 15", captor.getAllValues().get(1).getStart());
+    }
+
+    @Test
+    public void testAdaptStep() {
+        Duration sevenDays = duration(Step.MINUTE, "2020-05-05 1530", "2020-05-12 1529");
+
+        Duration adapted = MetricsQueryService.adaptStep(sevenDays, 500, true, true);
+        Assert.assertEquals(Step.HOUR, adapted.getStep());
+        Assert.assertEquals("2020-05-05 15", adapted.getStart());
+        Assert.assertEquals("2020-05-12 15", adapted.getEnd());
+        Assert.assertTrue(adapted.assembleDurationPoints().size() <= 500);
+
+        adapted = MetricsQueryService.adaptStep(sevenDays, 100, true, true);
+        Assert.assertEquals(Step.DAY, adapted.getStep());
+        Assert.assertEquals("2020-05-05", adapted.getStart());
+        Assert.assertEquals("2020-05-12", adapted.getEnd());
+    }
+
+    @Test
+    public void testKeepStep() {
+        Duration oneHour = duration(Step.MINUTE, "2020-05-12 1430", "2020-05-12 1529");
+        Assert.assertSame(oneHour, MetricsQueryService.adaptStep(oneHour, 500, true, true));
+
+        Duration sevenDays = duration(Step.MINUTE, "2020-05-05 1530", "2020-05-12 1529");
+        Assert.assertSame(sevenDays, MetricsQueryService.adaptStep(sevenDays, 500, false, true));
+    }
+
+    private Duration duration(Step step, String start, String end) {
+        Duration duration = new Duration();
+        duration.setStep(step);
+        duration.setStart(start);
+        duration.setEnd(end);
+        return duration;
+    }
+}
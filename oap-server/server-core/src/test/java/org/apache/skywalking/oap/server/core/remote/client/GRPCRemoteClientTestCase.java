@@ -18,12 +18,19 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteBatch;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.WorkerIds;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
@@ -42,6 +49,7 @@ import org.junit.Test;
 
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
@@ -49,6 +57,8 @@ import static org.mockito.Mockito.when;
 public class GRPCRemoteClientTestCase {
 
     private final String nextWorkerName = "mock-worker";
+    private final AtomicInteger received = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
     private ModuleManagerTesting moduleManager;
     @Rule
     public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
@@ -65,10 +75,7 @@ public class GRPCRemoteClientTestCase {
 
         TestWorker worker = new TestWorker(moduleManager);
         workerInstancesService.put(nextWorkerName, worker, TestStreamData.class);
-    }
 
-    @Test
-    public void testPush() throws InterruptedException {
         MetricsCreator metricsCreator = mock(MetricsCreator.class);
         when(metricsCreator.createCounter(any(), any(), any(), any())).thenReturn(new CounterMetrics() {
             @Override
@@ -96,21 +103,124 @@ public class GRPCRemoteClientTestCase {
 
         ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
         moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        when(metricsCreator.createCounter(eq("remote_out_dropped_count"), any(), any(), any())).thenReturn(
+            new CounterMetrics() {
+                @Override
+                public void inc() {
+                    dropped.incrementAndGet();
+                }
+
+                @Override
+                public void inc(double value) {
+                    dropped.addAndGet((int) value);
+                }
+            });
         telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, metricsCreator);
+    }
 
+    @Test
+    public void testPush() throws InterruptedException {
         grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
 
+        GRPCRemoteClient remoteClient = connect();
+        push(remoteClient, 12);
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(12, received.get());
+
+        remoteClient.close();
+    }
+
+    /**
+     * The remote server of the previous version doesn't implement the batched protocol.
+     */
+    @Test
+    public void testLegacyFallback() throws InterruptedException {
+        final RemoteServiceHandler handler = new RemoteServiceHandler(moduleManager);
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceGrpc.RemoteServiceImplBase() {
+            @Override
+            public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+                return handler.call(responseObserver);
+            }
+        });
+
+        GRPCRemoteClient remoteClient = connect();
+        push(remoteClient, 12);
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(12, received.get());
+
+        remoteClient.close();
+    }
+
+    /**
+     * The worker ids fetched at first are out of date, such as the remote server restarted after the fetch. The frames
+     * are rejected and counted as dropped, then the client fetches the ids again.
+     */
+    @Test
+    public void testVersionMismatch() throws InterruptedException {
+        final RemoteServiceHandler handler = new RemoteServiceHandler(moduleManager);
+        final AtomicInteger fetched = new AtomicInteger();
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceGrpc.RemoteServiceImplBase() {
+            @Override
+            public void workerIds(Empty request, StreamObserver<WorkerIds> responseObserver) {
+                if (fetched.getAndIncrement() > 0) {
+                    handler.workerIds(request, responseObserver);
+                    return;
+                }
+                handler.workerIds(request, new StreamObserver<WorkerIds>() {
+                    @Override
+                    public void onNext(WorkerIds ids) {
+                        responseObserver.onNext(ids.toBuilder().setVersion(ids.getVersion() + 1).build());
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        responseObserver.onError(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        responseObserver.onCompleted();
+                    }
+                });
+            }
+
+            @Override
+            public StreamObserver<RemoteBatch> batchCall(StreamObserver<Empty> responseObserver) {
+                return handler.batchCall(responseObserver);
+            }
+        });
+
+        GRPCRemoteClient remoteClient = connect();
+        push(remoteClient, 12);
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertTrue(dropped.get() > 0);
+        Assert.assertEquals(12, received.get() + dropped.get());
+
+        received.set(0);
+        push(remoteClient, 12);
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(12, received.get());
+        Assert.assertTrue(fetched.get() > 1);
+
+        remoteClient.close();
+    }
+
+    private GRPCRemoteClient connect() {
         Address address = new Address("not-important", 11, false);
         GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, address, 1, 10, 10, null));
-        remoteClient.connect();
-
         doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+        remoteClient.connect();
+        return remoteClient;
+    }
 
-        for (int i = 0; i < 12; i++) {
+    private void push(GRPCRemoteClient remoteClient, int count) {
+        for (int i = 0; i < count; i++) {
             remoteClient.push(nextWorkerName, new TestStreamData());
         }
-
-        TimeUnit.SECONDS.sleep(2);
     }
 
     public static class TestStreamData extends StreamData {
@@ -145,6 +255,7 @@ public class GRPCRemoteClientTestCase {
         public void in(Object o) {
             TestStreamData streamData = (TestStreamData) o;
             Assert.assertEquals(987, streamData.value);
+            received.incrementAndGet();
         }
     }
 }
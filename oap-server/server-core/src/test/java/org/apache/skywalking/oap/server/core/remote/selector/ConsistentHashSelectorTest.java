@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.remote.client.Address;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConsistentHashSelectorTest {
+    private static final int KEYS = 100000;
+
+    @Test
+    public void testSameTargetInAnyOrder() {
+        List<RemoteClient> clients = clients(5);
+        List<RemoteClient> reversed = new ArrayList<>(clients);
+        Collections.reverse(reversed);
+
+        ConsistentHashSelector selector1 = new ConsistentHashSelector();
+        ConsistentHashSelector selector2 = new ConsistentHashSelector();
+        for (int i = 0; i < KEYS; i++) {
+            StreamData data = new MockStreamData(("service-" + i).hashCode());
+            Assert.assertEquals(
+                selector1.select(clients, data).getAddress(), selector2.select(reversed, data).getAddress());
+        }
+    }
+
+    @Test
+    public void testBalance() {
+        List<RemoteClient> clients = clients(5);
+        ConsistentHashSelector selector = new ConsistentHashSelector();
+        int[] counts = new int[clients.size()];
+        for (int i = 0; i < KEYS; i++) {
+            counts[clients.indexOf(selector.select(clients, new MockStreamData(("service-" + i).hashCode())))]++;
+        }
+        for (int count : counts) {
+            Assert.assertTrue(count > KEYS / 5 * 0.7);
+            Assert.assertTrue(count < KEYS / 5 * 1.3);
+        }
+    }
+
+    @Test
+    public void testMinimalMoveOnScaleOut() {
+        // Ideally, 1/5 of the keys move to the new node.
+        Assert.assertTrue(movedRatio(new ConsistentHashSelector(), clients(4), clients(5)) < 0.3);
+        // Most of the keys move in the modulo based selector.
+        Assert.assertTrue(movedRatio(new HashCodeSelector(), clients(4), clients(5)) > 0.7);
+    }
+
+    @Test
+    public void testMinimalMoveOnScaleIn() {
+        List<RemoteClient> before = clients(5);
+        List<RemoteClient> after = new ArrayList<>(before);
+        after.remove(2);
+        Assert.assertTrue(movedRatio(new ConsistentHashSelector(), before, after) < 0.3);
+    }
+
+    /**
+     * @return the ratio of the keys selecting another target after the clients changed.
+     */
+    static double movedRatio(RemoteClientSelector selector, List<RemoteClient> before, List<RemoteClient> after) {
+        Address[] targets = new Address[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            targets[i] = selector.select(before, new MockStreamData(("service-" + i).hashCode())).getAddress();
+        }
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (!targets[i].equals(
+                selector.select(after, new MockStreamData(("service-" + i).hashCode())).getAddress())) {
+                moved++;
+            }
+        }
+        return (double) moved / KEYS;
+    }
+
+    static List<RemoteClient> clients(int size) {
+        List<RemoteClient> clients = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            clients.add(new MockRemoteClient(new Address("10.0.0." + i, 11800, false)));
+        }
+        return clients;
+    }
+
+    static class MockStreamData extends StreamData {
+        private final int hashCode;
+
+        MockStreamData(int hashCode) {
+            this.hashCode = hashCode;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    static class MockRemoteClient implements RemoteClient {
+        private final Address address;
+
+        MockRemoteClient(Address address) {
+            this.address = address;
+        }
+
+        @Override
+        public Address getAddress() {
+            return address;
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void push(String nextWorkerName, StreamData streamData) {
+        }
+
+        @Override
+        public int compareTo(RemoteClient o) {
+            return address.compareTo(o.getAddress());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the select cost and the moved key space on the OAP cluster changes, of the {@link HashCodeSelector} and the
+ * {@link ConsistentHashSelector}.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Thread)
+public class RemoteClientSelectorBenchmark {
+    private final List<RemoteClient> clients = ConsistentHashSelectorTest.clients(5);
+    private final HashCodeSelector hashCodeSelector = new HashCodeSelector();
+    private final ConsistentHashSelector consistentHashSelector = new ConsistentHashSelector();
+    private final StreamData data = new ConsistentHashSelectorTest.MockStreamData("service-1".hashCode());
+
+    @Benchmark
+    public RemoteClient hashCodeSelect() {
+        return hashCodeSelector.select(clients, data);
+    }
+
+    @Benchmark
+    public RemoteClient consistentHashSelect() {
+        return consistentHashSelector.select(clients, data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int size = 2; size <= 8; size++) {
+            List<RemoteClient> before = ConsistentHashSelectorTest.clients(size);
+            List<RemoteClient> after = ConsistentHashSelectorTest.clients(size + 1);
+            System.out.printf(
+                "%d -> %d nodes, moved keys, hashCode: %.3f, consistentHash: %.3f, ideal: %.3f%n", size, size + 1,
+                ConsistentHashSelectorTest.movedRatio(new HashCodeSelector(), before, after),
+                ConsistentHashSelectorTest.movedRatio(new ConsistentHashSelector(), before, after),
+                1.0 / (size + 1)
+            );
+        }
+
+        Options opt = new OptionsBuilder().include(RemoteClientSelectorBenchmark.class.getSimpleName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+    /*
+     * The moved keys of 100000 IDs when adding one OAP node:
+     *
+     * 2 -> 3 nodes, moved keys, hashCode: 0.667, consistentHash: 0.341, ideal: 0.333
+     * 3 -> 4 nodes, moved keys, hashCode: 0.750, consistentHash: 0.238, ideal: 0.250
+     * 4 -> 5 nodes, moved keys, hashCode: 0.801, consistentHash: 0.222, ideal: 0.200
+     * 5 -> 6 nodes, moved keys, hashCode: 0.725, consistentHash: 0.158, ideal: 0.167
+     * 6 -> 7 nodes, moved keys, hashCode: 0.857, consistentHash: 0.151, ideal: 0.143
+     * 7 -> 8 nodes, moved keys, hashCode: 0.875, consistentHash: 0.113, ideal: 0.125
+     * 8 -> 9 nodes, moved keys, hashCode: 0.889, consistentHash: 0.112, ideal: 0.111
+     *
+     * Benchmark                                            Mode  Cnt          Score          Error  Units
+     * RemoteClientSelectorBenchmark.consistentHashSelect  thrpt    5   35809642.369 ±  5941325.944  ops/s
+     * RemoteClientSelectorBenchmark.hashCodeSelect        thrpt    5  136237064.369 ± 40912048.597  ops/s
+     */
+}
@@ -37,6 +37,10 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.net.ssl.SSLContext;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -60,6 +64,7 @@ import org.apache.skywalking.apm.util.StringUtil;
 import org.apache.skywalking.oap.server.library.client.Client;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
@@ -384,6 +389,70 @@ public class ElasticSearchClient implements Client {
         }
     }
 
+    /**
+     * Execute the bulk requests concurrently, at most {@code concurrentRequests} in flight, and block until all of them
+     * are finished. Like {@link #synchronousBulk(BulkRequest)}, every bulk waits for the index refresh, so the documents
+     * are searchable by the next read back of the metrics.
+     *
+     * @throws IOException if any of the bulk requests failed, or any of the documents is not written, after all of them
+     *                     are finished.
+     */
+    public void synchronousBulk(List<BulkRequest> requests, int concurrentRequests) throws IOException {
+        final Semaphore semaphore = new Semaphore(Math.max(concurrentRequests, 1));
+        final CountDownLatch latch = new CountDownLatch(requests.size());
+        final AtomicInteger failedChunks = new AtomicInteger();
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final long startTime = System.currentTimeMillis();
+        int size = 0;
+        try {
+            for (BulkRequest request : requests) {
+                request.timeout(TimeValue.timeValueMinutes(2));
+                request.setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
+                request.waitForActiveShards(ActiveShardCount.ONE);
+                size += request.numberOfActions();
+
+                semaphore.acquire();
+                bulkAsync(request, new ActionListener<BulkResponse>() {
+                    @Override
+                    public void onResponse(BulkResponse response) {
+                        if (response.hasFailures()) {
+                            failedChunks.incrementAndGet();
+                            failure.compareAndSet(null, response.buildFailureMessage());
+                        }
+                        semaphore.release();
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        failedChunks.incrementAndGet();
+                        failure.compareAndSet(null, e.getMessage());
+                        semaphore.release();
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Synchronous bulk is interrupted", e);
+        }
+
+        log.info(
+            "Synchronous bulk took time: {} millis, size: {}, chunks: {}", System.currentTimeMillis() - startTime,
+            size, requests.size()
+        );
+        if (failedChunks.get() > 0) {
+            throw new IOException(
+                "Synchronous bulk executed with failures in " + failedChunks.get() + " of " + requests.size()
+                    + " chunks, the first one: " + failure.get());
+        }
+    }
+
+    protected void bulkAsync(BulkRequest request, ActionListener<BulkResponse> listener) {
+        client.bulkAsync(request, listener);
+    }
+
     public BulkProcessor createBulkProcessor(int bulkActions, int flushInterval, int concurrentRequests) {
         BulkProcessor.Listener listener = createBulkListener();
 
@@ -105,6 +105,19 @@ public class JDBCHikariCPClient implements Client {
         return result;
     }
 
+    /**
+     * @return the number of the affected rows.
+     */
+    public int executeUpdate(Connection connection, String sql, Object... params) throws JDBCClientException {
+        logger.debug("execute update: {}", sql);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setStatementParam(statement, params);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new JDBCClientException(e.getMessage(), e);
+        }
+    }
+
     public ResultSet executeQuery(Connection connection, String sql, Object... params) throws JDBCClientException {
         logger.debug("execute query with result: {}", sql);
         ResultSet rs;
@@ -46,7 +46,13 @@ public class ReceiverGRPCHandlerRegister implements GRPCHandlerRegister {
 
     @Override
     public void addHandler(ServerServiceDefinition definition) {
-        grpcHandlerRegister.addHandler(definition);
+        if (interceptors.isEmpty()) {
+            grpcHandlerRegister.addHandler(definition);
+        } else {
+            interceptors.forEach(interceptor -> {
+                grpcHandlerRegister.addHandler(ServerInterceptors.intercept(definition, interceptor));
+            });
+        }
     }
 
     /**
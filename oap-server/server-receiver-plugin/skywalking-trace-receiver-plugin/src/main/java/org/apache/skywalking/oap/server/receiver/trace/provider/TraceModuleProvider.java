@@ -38,6 +38,7 @@ import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.rest.
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.ISegmentParserService;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParserListenerManager;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParserServiceImpl;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.TraceAnalysisStage;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.MultiScopesAnalysisListener;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.NetworkAddressAliasMappingListener;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.SegmentAnalysisListener;
@@ -78,7 +79,7 @@ public class TraceModuleProvider extends ModuleProvider {
         moduleConfig.setDbLatencyThresholdsAndWatcher(thresholds);
         moduleConfig.setUninstrumentedGatewaysConfig(uninstrumentedGatewaysConfig);
 
-        segmentParserService = new SegmentParserServiceImpl(getManager(), moduleConfig);
+        segmentParserService = new SegmentParserServiceImpl();
         this.registerServiceImplementation(ISegmentParserService.class, segmentParserService);
     }
 
@@ -103,14 +104,18 @@ public class TraceModuleProvider extends ModuleProvider {
         dynamicConfigurationService.registerConfigChangeWatcher(thresholds);
         dynamicConfigurationService.registerConfigChangeWatcher(uninstrumentedGatewaysConfig);
 
-        segmentParserService.setListenerManager(listenerManager());
+        TraceAnalysisStage analysisStage;
+        try {
+            analysisStage = new TraceAnalysisStage(getManager(), listenerManager(), moduleConfig);
+        } catch (IllegalArgumentException e) {
+            throw new ModuleStartException("Invalid receiver-trace/analysisQueueFullPolicy. " + e.getMessage(), e);
+        }
+        segmentParserService.setAnalysisStage(analysisStage);
         grpcHandlerRegister.addHandler(
-            new TraceSegmentReportServiceHandler(getManager(), listenerManager(), moduleConfig));
+            new TraceSegmentReportServiceHandler(getManager(), analysisStage).bindBinaryService());
 
-        jettyHandlerRegister.addHandler(
-            new TraceSegmentReportListServletHandler(getManager(), listenerManager(), moduleConfig));
-        jettyHandlerRegister.addHandler(
-            new TraceSegmentReportSingleServletHandler(getManager(), listenerManager(), moduleConfig));
+        jettyHandlerRegister.addHandler(new TraceSegmentReportListServletHandler(getManager(), analysisStage));
+        jettyHandlerRegister.addHandler(new TraceSegmentReportSingleServletHandler(getManager(), analysisStage));
     }
 
     @Override
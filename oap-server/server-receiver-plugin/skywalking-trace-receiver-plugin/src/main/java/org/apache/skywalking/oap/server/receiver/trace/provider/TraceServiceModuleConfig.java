@@ -79,4 +79,67 @@ public class TraceServiceModuleConfig extends ModuleConfig {
     @Setter
     @Getter
     private int maxSlowSQLLength = 2000;
+    /**
+     * The number of the threads analyzing the segments asynchronously. 0 means the segments are analyzed in the
+     * receiver threads. With the analysis threads, the trace_in_latency histogram only measures the enqueue of the
+     * segments, not the analysis.
+     */
+    @Setter
+    @Getter
+    private int analysisThreads = 0;
+    /**
+     * The max number of the queued segments of every analysis thread.
+     */
+    @Setter
+    @Getter
+    private int analysisQueueSize = 10000;
+    /**
+     * The policy when the analysis queue is full, block, sample or drop. Read {@link
+     * org.apache.skywalking.oap.server.receiver.trace.provider.parser.TraceAnalysisStage.QueueFullPolicy} for more
+     * details.
+     */
+    @Setter
+    @Getter
+    private String analysisQueueFullPolicy = "block";
+    /**
+     * Decide whether to save the segments per trace after the sampling window, rather than per segment. The metrics
+     * are analyzed from all segments. Every OAP node decides by the segments it received, so a trace could be kept
+     * partially, when its segments including errors or high latency are reported to the other nodes. Read {@link
+     * org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.TraceTailSampler} for more details.
+     */
+    @Setter
+    @Getter
+    private boolean tailSampling = false;
+    /**
+     * The time to buffer the segments of a trace since its first segment. Unit, millisecond.
+     */
+    @Setter
+    @Getter
+    private long tailSamplingWindow = 10000;
+    /**
+     * The max size of the buffered segments of all traces, counted by the segment binary plus about 512 bytes of every
+     * segment record. Unit, MB. It is about the heap taken by the tail sampler.
+     */
+    @Setter
+    @Getter
+    private int tailSamplingMaxBufferedSize = 100;
+    /**
+     * The trace including a segment whose latency reaches the threshold is kept. Unit, millisecond. 0 means no
+     * latency policy.
+     */
+    @Setter
+    @Getter
+    private int tailSamplingLatencyThreshold = 3000;
+    /**
+     * The trace including error spans is kept.
+     */
+    @Setter
+    @Getter
+    private boolean tailSamplingKeepErrors = true;
+    /**
+     * The trace including any of these endpoints is kept. Multiple endpoint names are split by comma.
+     */
+    @Setter
+    @Getter
+    private String tailSamplingEndpoints = "";
 }
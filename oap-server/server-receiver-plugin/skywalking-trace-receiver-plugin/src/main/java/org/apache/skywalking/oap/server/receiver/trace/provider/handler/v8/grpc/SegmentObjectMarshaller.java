@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.grpc;
+
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+
+/**
+ * SegmentObjectMarshaller parses the received {@link SegmentObject} and keeps its wire bytes, which are persisted as
+ * the segment binary directly, rather than serializing the parsed message again.
+ */
+public class SegmentObjectMarshaller implements MethodDescriptor.Marshaller<SegmentObjectMarshaller.BinarySegment> {
+    @Override
+    public InputStream stream(BinarySegment value) {
+        return new ByteArrayInputStream(value.getBinary());
+    }
+
+    @Override
+    public BinarySegment parse(InputStream stream) {
+        try {
+            final byte[] binary = ByteStreams.toByteArray(stream);
+            return new BinarySegment(SegmentObject.parseFrom(binary), binary);
+        } catch (InvalidProtocolBufferException e) {
+            throw Status.INTERNAL.withDescription("Invalid protobuf byte sequence").withCause(e).asRuntimeException();
+        } catch (IOException e) {
+            throw Status.INTERNAL.withDescription("Failed to read the segment").withCause(e).asRuntimeException();
+        }
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    public static class BinarySegment {
+        private final SegmentObject segmentObject;
+        /**
+         * The wire bytes of the {@link #segmentObject}.
+         */
+        private final byte[] binary;
+    }
+}
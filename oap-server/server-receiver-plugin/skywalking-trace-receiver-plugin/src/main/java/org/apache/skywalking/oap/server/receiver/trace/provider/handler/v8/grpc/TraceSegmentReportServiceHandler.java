@@ -18,6 +18,9 @@
 
 package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.grpc;
 
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.network.common.v3.Commands;
@@ -25,9 +28,7 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCHandler;
-import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParserListenerManager;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.TraceAnalyzer;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.TraceAnalysisStage;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
@@ -36,18 +37,13 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 @Slf4j
 public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase implements GRPCHandler {
-    private final ModuleManager moduleManager;
-    private final SegmentParserListenerManager listenerManager;
-    private final TraceServiceModuleConfig config;
+    private final TraceAnalysisStage analysisStage;
     private HistogramMetrics histogram;
     private CounterMetrics errorCounter;
 
     public TraceSegmentReportServiceHandler(ModuleManager moduleManager,
-                                            SegmentParserListenerManager listenerManager,
-                                            TraceServiceModuleConfig config) {
-        this.moduleManager = moduleManager;
-        this.listenerManager = listenerManager;
-        this.config = config;
+                                           TraceAnalysisStage analysisStage) {
+        this.analysisStage = analysisStage;
         MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
                                                      .provider()
                                                      .getService(MetricsCreator.class);
@@ -60,20 +56,56 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
         );
     }
 
+    /**
+     * Bind the collect method with the {@link SegmentObjectMarshaller} rather than the generated {@link #bindService()},
+     * so the received wire bytes of every segment are persisted directly.
+     */
+    public ServerServiceDefinition bindBinaryService() {
+        final MethodDescriptor<SegmentObject, Commands> collectMethod =
+            TraceSegmentReportServiceGrpc.getCollectMethod();
+        return ServerServiceDefinition.builder(TraceSegmentReportServiceGrpc.SERVICE_NAME)
+                                      .addMethod(
+                                          collectMethod.toBuilder(
+                                              new SegmentObjectMarshaller(), collectMethod.getResponseMarshaller())
+                                                       .build(),
+                                          ServerCalls.asyncClientStreamingCall(this::collectBinary)
+                                      )
+                                      .build();
+    }
+
     @Override
     public StreamObserver<SegmentObject> collect(StreamObserver<Commands> responseObserver) {
+        final StreamObserver<SegmentObjectMarshaller.BinarySegment> observer = collectBinary(responseObserver);
         return new StreamObserver<SegmentObject>() {
             @Override
             public void onNext(SegmentObject segment) {
+                observer.onNext(new SegmentObjectMarshaller.BinarySegment(segment, null));
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                observer.onError(throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                observer.onCompleted();
+            }
+        };
+    }
+
+    private StreamObserver<SegmentObjectMarshaller.BinarySegment> collectBinary(
+        StreamObserver<Commands> responseObserver) {
+        return new StreamObserver<SegmentObjectMarshaller.BinarySegment>() {
+            @Override
+            public void onNext(SegmentObjectMarshaller.BinarySegment segment) {
                 if (log.isDebugEnabled()) {
                     log.debug("receive segment");
                 }
 
                 HistogramMetrics.Timer timer = histogram.createTimer();
                 try {
-                    final TraceAnalyzer traceAnalyzer = new TraceAnalyzer(
-                        moduleManager, listenerManager, config);
-                    traceAnalyzer.doAnalysis(segment);
+                    analysisStage.analyze(segment.getSegmentObject(), segment.getBinary());
                 } catch (Exception e) {
                     errorCounter.inc();
                 } finally {
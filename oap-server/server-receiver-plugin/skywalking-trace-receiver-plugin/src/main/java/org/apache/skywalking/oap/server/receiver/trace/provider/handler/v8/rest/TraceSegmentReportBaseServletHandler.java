@@ -26,9 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.server.jetty.JettyJsonHandler;
-import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParserListenerManager;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.TraceAnalyzer;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.TraceAnalysisStage;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
@@ -38,18 +36,13 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 @Slf4j
 public abstract class TraceSegmentReportBaseServletHandler extends JettyJsonHandler {
 
-    private final ModuleManager moduleManager;
-    private final SegmentParserListenerManager listenerManager;
-    private final TraceServiceModuleConfig config;
+    private final TraceAnalysisStage analysisStage;
     private HistogramMetrics histogram;
     private CounterMetrics errorCounter;
 
     public TraceSegmentReportBaseServletHandler(ModuleManager moduleManager,
-                                                SegmentParserListenerManager listenerManager,
-                                                TraceServiceModuleConfig config) {
-        this.moduleManager = moduleManager;
-        this.listenerManager = listenerManager;
-        this.config = config;
+                                               TraceAnalysisStage analysisStage) {
+        this.analysisStage = analysisStage;
         MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
                                                      .provider()
                                                      .getService(MetricsCreator.class);
@@ -78,8 +71,7 @@ public abstract class TraceSegmentReportBaseServletHandler extends JettyJsonHand
             final List<SegmentObject> segments = parseSegments(req);
 
             for (SegmentObject segment : segments) {
-                final TraceAnalyzer traceAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
-                traceAnalyzer.doAnalysis(segment);
+                analysisStage.analyze(segment, null);
             }
         } catch (Exception e) {
             errorCounter.inc();
@@ -24,8 +24,7 @@ import com.google.gson.JsonElement;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.ProtoBufJsonUtils;
-import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParserListenerManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.TraceAnalysisStage;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.BufferedReader;
@@ -41,8 +40,8 @@ public class TraceSegmentReportListServletHandler extends TraceSegmentReportBase
 
     private final Gson gson = new Gson();
 
-    public TraceSegmentReportListServletHandler(ModuleManager moduleManager, SegmentParserListenerManager listenerManager, TraceServiceModuleConfig config) {
-        super(moduleManager, listenerManager, config);
+    public TraceSegmentReportListServletHandler(ModuleManager moduleManager, TraceAnalysisStage analysisStage) {
+        super(moduleManager, analysisStage);
     }
 
     @Override
@@ -18,25 +18,18 @@
 
 package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
 
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
-import org.apache.skywalking.oap.server.library.module.ModuleManager;
-import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
 
 /**
  * The open service to the receivers.
  */
-@RequiredArgsConstructor
 public class SegmentParserServiceImpl implements ISegmentParserService {
-    private final ModuleManager moduleManager;
-    private final TraceServiceModuleConfig config;
     @Setter
-    private SegmentParserListenerManager listenerManager;
+    private TraceAnalysisStage analysisStage;
 
     @Override
     public void send(SegmentObject segment) {
-        final TraceAnalyzer traceAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
-        traceAnalyzer.doAnalysis(segment);
+        analysisStage.analyze(segment, null);
     }
 }
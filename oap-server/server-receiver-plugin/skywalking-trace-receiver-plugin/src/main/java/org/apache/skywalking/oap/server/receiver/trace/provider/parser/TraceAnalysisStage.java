@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.oap.server.core.analysis.worker.RecordStreamProcessor;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * TraceAnalysisStage is the entrance of the trace analysis for all trace receivers. Every thread analyzes the segments
+ * through its own reusable {@link TraceAnalyzer}.
+ * <p>
+ * If {@link TraceServiceModuleConfig#getAnalysisThreads()} is positive, the segments are queued and analyzed by the
+ * analysis threads, rather than the receiver threads. The segments are partitioned by the trace id, so the segments of
+ * one trace are analyzed by the same thread in the order they are queued. When the queue of the partition is full, the
+ * segment is handled by the {@link QueueFullPolicy}. The trace_in_latency histogram of the receivers then only
+ * measures the enqueue, the analysis failures are counted by trace_analysis_error_count.
+ * <p>
+ * When the OAP stops, the stage refuses the new segments and waits for the queued ones analyzed, at most {@link
+ * #SHUTDOWN_TIMEOUT} milliseconds, before the record persistence stops.
+ */
+@Slf4j
+public class TraceAnalysisStage {
+    /**
+     * The max milliseconds to wait for the queued segments analyzed when the OAP stops.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 10_000L;
+
+    private final ThreadLocal<TraceAnalyzer> traceAnalyzers;
+    private final QueueFullPolicy queueFullPolicy;
+    private final DataCarrier<QueuedSegment> dataCarrier;
+    private final CounterMetrics droppedCounter;
+    private final CounterMetrics errorCounter;
+    /**
+     * The number of the segments queued but not analyzed yet.
+     */
+    private final AtomicLong queuedSegments = new AtomicLong();
+    private volatile boolean shutdown = false;
+
+    public TraceAnalysisStage(ModuleManager moduleManager,
+                              SegmentParserListenerManager listenerManager,
+                              TraceServiceModuleConfig config) {
+        this.traceAnalyzers = ThreadLocal.withInitial(() -> new TraceAnalyzer(moduleManager, listenerManager, config));
+        this.queueFullPolicy = QueueFullPolicy.of(config.getAnalysisQueueFullPolicy());
+
+        MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                                     .provider()
+                                                     .getService(MetricsCreator.class);
+        this.droppedCounter = metricsCreator.createCounter(
+            "trace_analysis_dropped_count", "The number of the segments dropped as the analysis queue is full",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        this.errorCounter = metricsCreator.createCounter(
+            "trace_analysis_error_count", "The number of the segments failed in the analysis",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+
+        final int threads = config.getAnalysisThreads();
+        if (threads > 0) {
+            this.dataCarrier = new DataCarrier<>(
+                "TraceAnalysisStage", "TRACE_ANALYSIS", threads, config.getAnalysisQueueSize());
+            this.dataCarrier.setPartitioner(new TraceIdPartitioner());
+            this.dataCarrier.setBufferStrategy(
+                QueueFullPolicy.BLOCK.equals(queueFullPolicy) ? BufferStrategy.BLOCKING : BufferStrategy.IF_POSSIBLE);
+            this.dataCarrier.consume(new AnalysisConsumer(), threads);
+            RecordStreamProcessor.getInstance().addShutdownFlusher(this::shutdown);
+        } else {
+            this.dataCarrier = null;
+        }
+    }
+
+    /**
+     * @param segmentBinary the received bytes of the segment object, or null if the segment was not received in the
+     *                      protobuf binary format.
+     */
+    public void analyze(SegmentObject segmentObject, byte[] segmentBinary) {
+        if (dataCarrier == null) {
+            doAnalysis(traceAnalyzers.get(), segmentObject, segmentBinary);
+            return;
+        }
+
+        if (!shutdown) {
+            final QueuedSegment segment = new QueuedSegment(segmentObject, segmentBinary);
+            queuedSegments.incrementAndGet();
+            if (dataCarrier.produce(segment)) {
+                return;
+            }
+            if (QueueFullPolicy.SAMPLE.equals(queueFullPolicy) && isError(segmentObject) && waitToProduce(segment)) {
+                return;
+            }
+            queuedSegments.decrementAndGet();
+        }
+        droppedCounter.inc();
+        if (log.isDebugEnabled()) {
+            log.debug("trace analysis queue is full, segment {} is dropped", segmentObject.getTraceSegmentId());
+        }
+    }
+
+    private void doAnalysis(TraceAnalyzer traceAnalyzer, SegmentObject segmentObject, byte[] segmentBinary) {
+        if (!traceAnalyzer.doAnalysis(segmentObject, segmentBinary)) {
+            errorCounter.inc();
+        }
+    }
+
+    /**
+     * Wait until the segment is queued, rather than analyzing it in the receiver thread, so the segments of the trace
+     * are still analyzed by the thread of the partition in order. The error segment gets the {@link
+     * QueueFullPolicy#BLOCK} semantics through polling the queue every millisecond, as the queue of the {@link
+     * DataCarrier} doesn't block per segment, the receiver thread is occupied meanwhile.
+     *
+     * @return false if the receiver thread is interrupted.
+     */
+    private boolean waitToProduce(QueuedSegment segment) {
+        while (!dataCarrier.produce(segment)) {
+            try {
+                Thread.sleep(1L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Refuse the new segments, and wait for the queued segments analyzed, at most {@link #SHUTDOWN_TIMEOUT}
+     * milliseconds.
+     */
+    void shutdown() {
+        shutdown = true;
+        final long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+        long queued;
+        while ((queued = queuedSegments.get()) > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("{} queued segments are not analyzed before the OAP stops.", queued);
+                return;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static boolean isError(SegmentObject segmentObject) {
+        for (int i = 0; i < segmentObject.getSpansCount(); i++) {
+            if (segmentObject.getSpans(i).getIsError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The policy when the analysis queue of the partition is full.
+     */
+    public enum QueueFullPolicy {
+        /**
+         * Block the receiver thread until the queue has space, the agents are slowed down by the backpressure.
+         */
+        BLOCK,
+        /**
+         * Keep the segments including error spans, the receiver thread waits until they are queued, polling the queue
+         * every millisecond, and drop the others.
+         */
+        SAMPLE,
+        /**
+         * Drop the segment.
+         */
+        DROP;
+
+        /**
+         * @param name of the policy in the config, case insensitive.
+         * @throws IllegalArgumentException if the name is not a policy.
+         */
+        public static QueueFullPolicy of(String name) {
+            for (QueueFullPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name == null ? null : name.trim())) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException(
+                "Unknown queue full policy: " + name + ", it should be block, sample or drop.");
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class QueuedSegment {
+        private final SegmentObject segmentObject;
+        private final byte[] segmentBinary;
+    }
+
+    private static class TraceIdPartitioner implements IDataPartitioner<QueuedSegment> {
+        @Override
+        public int partition(int total, QueuedSegment data) {
+            return Math.abs(data.segmentObject.getTraceId().hashCode() % total);
+        }
+
+        @Override
+        public int maxRetryCount() {
+            return 1;
+        }
+    }
+
+    private class AnalysisConsumer implements IConsumer<QueuedSegment> {
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(List<QueuedSegment> data) {
+            final TraceAnalyzer traceAnalyzer = traceAnalyzers.get();
+            try {
+                for (QueuedSegment segment : data) {
+                    doAnalysis(traceAnalyzer, segment.segmentObject, segment.segmentBinary);
+                }
+            } finally {
+                queuedSegments.addAndGet(-data.size());
+            }
+        }
+
+        @Override
+        public void onError(List<QueuedSegment> data, Throwable t) {
+            errorCounter.inc(data.size());
+            log.error(t.getMessage(), t);
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+}
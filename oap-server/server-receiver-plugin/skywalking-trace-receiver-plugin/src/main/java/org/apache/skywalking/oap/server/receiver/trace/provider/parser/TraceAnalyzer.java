@@ -20,7 +20,6 @@ package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
 
 import java.util.ArrayList;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
@@ -34,25 +33,63 @@ import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.LocalAnalysisListener;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.SegmentListener;
 
+/**
+ * TraceAnalyzer notifies the segment and its spans to the listeners created by the {@link
+ * SegmentParserListenerManager}. The listeners are created once and reset after every segment, so one analyzer could
+ * be reused to analyze the segments one by one, such as one analyzer per thread, but it is not thread safe.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class TraceAnalyzer {
-    private final ModuleManager moduleManager;
-    private final SegmentParserListenerManager listenerManager;
-    private final TraceServiceModuleConfig config;
-    private List<AnalysisListener> analysisListeners = new ArrayList<>();
-
-    public void doAnalysis(SegmentObject segmentObject) {
-        if (segmentObject.getSpansList().size() == 0) {
-            return;
-        }
+    private final List<AnalysisListener> analysisListeners = new ArrayList<>();
+    private final List<SegmentListener> segmentListeners = new ArrayList<>();
+    private final List<FirstAnalysisListener> firstListeners = new ArrayList<>();
+    private final List<EntryAnalysisListener> entryListeners = new ArrayList<>();
+    private final List<ExitAnalysisListener> exitListeners = new ArrayList<>();
+    private final List<LocalAnalysisListener> localListeners = new ArrayList<>();
+
+    public TraceAnalyzer(ModuleManager moduleManager,
+                         SegmentParserListenerManager listenerManager,
+                         TraceServiceModuleConfig config) {
+        listenerManager.getSpanListenerFactories().forEach(spanListenerFactory -> {
+            AnalysisListener listener = spanListenerFactory.create(moduleManager, config);
+            analysisListeners.add(listener);
+            if (listener.containsPoint(AnalysisListener.Point.Segment)) {
+                segmentListeners.add((SegmentListener) listener);
+            }
+            if (listener.containsPoint(AnalysisListener.Point.First)) {
+                firstListeners.add((FirstAnalysisListener) listener);
+            }
+            if (listener.containsPoint(AnalysisListener.Point.Entry)) {
+                entryListeners.add((EntryAnalysisListener) listener);
+            }
+            if (listener.containsPoint(AnalysisListener.Point.Exit)) {
+                exitListeners.add((ExitAnalysisListener) listener);
+            }
+            if (listener.containsPoint(AnalysisListener.Point.Local)) {
+                localListeners.add((LocalAnalysisListener) listener);
+            }
+        });
+    }
+
+    public boolean doAnalysis(SegmentObject segmentObject) {
+        return doAnalysis(segmentObject, null);
+    }
 
-        createSpanListeners();
+    /**
+     * @param segmentBinary the received bytes of the segment object, or null if the segment was not received in the
+     *                      protobuf binary format.
+     * @return false if the analysis failed, the error is logged already.
+     */
+    public boolean doAnalysis(SegmentObject segmentObject, byte[] segmentBinary) {
+        if (segmentObject.getSpansCount() == 0) {
+            return true;
+        }
 
         try {
-            notifySegmentListener(segmentObject);
+            notifySegmentListener(segmentObject, segmentBinary);
 
-            segmentObject.getSpansList().forEach(spanObject -> {
+            for (int i = 0; i < segmentObject.getSpansCount(); i++) {
+                final SpanObject spanObject = segmentObject.getSpans(i);
                 if (spanObject.getSpanId() == 0) {
                     notifyFirstListener(spanObject, segmentObject);
                 }
@@ -67,62 +104,53 @@ public class TraceAnalyzer {
                     log.error("span type value was unexpected, span type name: {}", spanObject.getSpanType()
                                                                                               .name());
                 }
-            });
+            }
 
             notifyListenerToBuild();
+            return true;
         } catch (Throwable e) {
             log.error(e.getMessage(), e);
+            return false;
+        } finally {
+            for (int i = 0; i < analysisListeners.size(); i++) {
+                analysisListeners.get(i).reset();
+            }
         }
     }
 
     private void notifyListenerToBuild() {
-        analysisListeners.forEach(AnalysisListener::build);
+        for (int i = 0; i < analysisListeners.size(); i++) {
+            analysisListeners.get(i).build();
+        }
     }
 
     private void notifyExitListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Exit)) {
-                ((ExitAnalysisListener) listener).parseExit(span, segmentObject);
-            }
-        });
+        for (int i = 0; i < exitListeners.size(); i++) {
+            exitListeners.get(i).parseExit(span, segmentObject);
+        }
     }
 
     private void notifyEntryListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Entry)) {
-                ((EntryAnalysisListener) listener).parseEntry(span, segmentObject);
-            }
-        });
+        for (int i = 0; i < entryListeners.size(); i++) {
+            entryListeners.get(i).parseEntry(span, segmentObject);
+        }
     }
 
     private void notifyLocalListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Local)) {
-                ((LocalAnalysisListener) listener).parseLocal(span, segmentObject);
-            }
-        });
+        for (int i = 0; i < localListeners.size(); i++) {
+            localListeners.get(i).parseLocal(span, segmentObject);
+        }
     }
 
     private void notifyFirstListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.First)) {
-                ((FirstAnalysisListener) listener).parseFirst(span, segmentObject);
-            }
-        });
-    }
-
-    private void notifySegmentListener(SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Segment)) {
-                ((SegmentListener) listener).parseSegment(segmentObject);
-            }
-        });
+        for (int i = 0; i < firstListeners.size(); i++) {
+            firstListeners.get(i).parseFirst(span, segmentObject);
+        }
     }
 
-    private void createSpanListeners() {
-        listenerManager.getSpanListenerFactories()
-                       .forEach(
-                           spanListenerFactory -> analysisListeners.add(
-                               spanListenerFactory.create(moduleManager, config)));
+    private void notifySegmentListener(SegmentObject segmentObject, byte[] segmentBinary) {
+        for (int i = 0; i < segmentListeners.size(); i++) {
+            segmentListeners.get(i).parseSegment(segmentObject, segmentBinary);
+        }
     }
 }
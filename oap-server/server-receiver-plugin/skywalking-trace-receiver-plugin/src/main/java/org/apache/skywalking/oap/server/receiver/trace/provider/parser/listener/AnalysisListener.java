@@ -28,6 +28,14 @@ public interface AnalysisListener {
      */
     void build();
 
+    /**
+     * Clear the state of the current segment after {@link #build()}, or after the analysis failed, so the listener
+     * could be reused by the next segment. The objects forwarded to the source receiver must not be reused. The
+     * listeners keeping the state of the segment must override it, the stateless ones could keep the default.
+     */
+    default void reset() {
+    }
+
     /**
      * @return true, if the given point matches the implementation.
      */
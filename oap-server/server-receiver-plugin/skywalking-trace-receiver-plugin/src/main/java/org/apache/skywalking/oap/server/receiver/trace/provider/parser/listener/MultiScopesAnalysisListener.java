@@ -294,6 +294,13 @@ public class MultiScopesAnalysisListener implements EntryAnalysisListener, ExitA
         slowDatabaseAccesses.forEach(sourceReceiver::receive);
     }
 
+    @Override
+    public void reset() {
+        entrySourceBuilders.clear();
+        exitSourceBuilders.clear();
+        slowDatabaseAccesses.clear();
+    }
+
     public static class Factory implements AnalysisListenerFactory {
         private final SourceReceiver sourceReceiver;
         private final NetworkAddressAliasCache networkAddressAliasCache;
@@ -34,6 +34,8 @@ import org.apache.skywalking.oap.server.core.source.SourceReceiver;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.BooleanUtils;
 import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 /**
  * SegmentSpanListener forwards the segment raw data to the persistence layer with the query required conditions.
@@ -44,8 +46,12 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
     private final SourceReceiver sourceReceiver;
     private final TraceSegmentSampler sampler;
     private final NamingLengthControl namingLengthControl;
+    /**
+     * Null if the tail sampling is disabled.
+     */
+    private final TraceTailSampler tailSampler;
 
-    private final Segment segment = new Segment();
+    private Segment segment = new Segment();
     private SAMPLE_STATUS sampleStatus = SAMPLE_STATUS.UNKNOWN;
     private String serviceId = Const.EMPTY_STRING;
     private String endpointId = Const.EMPTY_STRING;
@@ -54,6 +60,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
     private long endTimestamp;
     private int duration;
     private boolean isError;
+    private byte[] segmentBinary;
 
     @Override
     public boolean containsPoint(Point point) {
@@ -86,7 +93,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         segment.setTimeBucket(timeBucket);
         segment.setEndTime(endTimestamp);
         segment.setIsError(BooleanUtils.booleanToValue(isError));
-        segment.setDataBinary(segmentObject.toByteArray());
+        segment.setDataBinary(segmentBinary != null ? segmentBinary : segmentObject.toByteArray());
         segment.setVersion(3);
 
         endpointName = namingLengthControl.formatEndpointName(span.getOperationName());
@@ -116,6 +123,12 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         );
     }
 
+    @Override
+    public void parseSegment(SegmentObject segmentObject, byte[] segmentBinary) {
+        this.segmentBinary = segmentBinary;
+        parseSegment(segmentObject);
+    }
+
     @Override
     public void parseSegment(SegmentObject segmentObject) {
         if (sampleStatus.equals(SAMPLE_STATUS.UNKNOWN) || sampleStatus.equals(SAMPLE_STATUS.IGNORE)) {
@@ -159,7 +172,25 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         segment.setEndpointId(endpointId);
         segment.setEndpointName(endpointName);
 
-        sourceReceiver.receive(segment);
+        if (tailSampler != null) {
+            tailSampler.offer(segment);
+        } else {
+            sourceReceiver.receive(segment);
+        }
+    }
+
+    @Override
+    public void reset() {
+        segment = new Segment();
+        sampleStatus = SAMPLE_STATUS.UNKNOWN;
+        serviceId = Const.EMPTY_STRING;
+        endpointId = Const.EMPTY_STRING;
+        endpointName = Const.EMPTY_STRING;
+        startTimestamp = 0;
+        endTimestamp = 0;
+        duration = 0;
+        isError = false;
+        segmentBinary = null;
     }
 
     private enum SAMPLE_STATUS {
@@ -170,18 +201,30 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         private final SourceReceiver sourceReceiver;
         private final TraceSegmentSampler sampler;
         private final NamingLengthControl namingLengthControl;
+        private final TraceTailSampler tailSampler;
 
         public Factory(ModuleManager moduleManager, TraceServiceModuleConfig config) {
             this.sourceReceiver = moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class);
-            this.sampler = new TraceSegmentSampler(config.getSampleRate());
             this.namingLengthControl = moduleManager.find(CoreModule.NAME)
                                                     .provider()
                                                     .getService(NamingLengthControl.class);
+            if (config.isTailSampling()) {
+                // All segments pass, the sample rate is applied per trace by the tail sampler.
+                this.sampler = new TraceSegmentSampler(10000);
+                this.tailSampler = new TraceTailSampler(
+                    sourceReceiver, config, moduleManager.find(TelemetryModule.NAME)
+                                                         .provider()
+                                                         .getService(MetricsCreator.class));
+                this.tailSampler.start();
+            } else {
+                this.sampler = new TraceSegmentSampler(config.getSampleRate());
+                this.tailSampler = null;
+            }
         }
 
         @Override
         public AnalysisListener create(ModuleManager moduleManager, TraceServiceModuleConfig config) {
-            return new SegmentAnalysisListener(sourceReceiver, sampler, namingLengthControl);
+            return new SegmentAnalysisListener(sourceReceiver, sampler, namingLengthControl, tailSampler);
         }
     }
 }
@@ -25,4 +25,11 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
  */
 public interface SegmentListener extends AnalysisListener {
     void parseSegment(SegmentObject segmentObject);
+
+    /**
+     * @param segmentBinary the received bytes of the segment object, null if absent.
+     */
+    default void parseSegment(SegmentObject segmentObject, byte[] segmentBinary) {
+        parseSegment(segmentObject);
+    }
 }
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.oap.server.core.analysis.worker.RecordStreamProcessor;
+import org.apache.skywalking.oap.server.core.source.Segment;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * The tail sampler decides whether to save the segments per trace, rather than per segment, after the segments of the
+ * trace have been received. It only affects the saved segments, the metrics are analyzed from all segments.
+ * <p>
+ * The segments are buffered by the trace id, until the sampling window since the first segment of the trace ends. The
+ * trace is kept if any segment includes error spans, reaches the latency threshold, or belongs to the configured
+ * endpoints. Otherwise, the trace is kept by the sample rate on the hash of the trace id. The decision is cached for
+ * the late segments of the trace.
+ * <p>
+ * When the buffered segments reach the max size, the new segments are decided immediately by themselves. The size is
+ * counted by the binary of the segments, plus {@link #SEGMENT_OVERHEAD} bytes of the other fields of every segment
+ * record. When the OAP stops, the buffered traces are decided and the kept segments are persisted, before the record
+ * persistence stops.
+ * <p>
+ * The decision is made by every OAP node for the segments it received. The segments of a trace are usually reported
+ * to different OAP nodes by the different services, so a trace could be kept by the error, latency or endpoint
+ * policies on one node, while dropped on the others which have not received these segments. The sample rate part is
+ * consistent across the nodes, as it only depends on the trace id.
+ */
+@Slf4j
+public class TraceTailSampler {
+    /**
+     * The estimated bytes of a segment record besides its binary, such as the ids, the endpoint name and the tags.
+     */
+    static final int SEGMENT_OVERHEAD = 512;
+    /**
+     * The max number of the cached decisions of the traces, a decision takes about 200 bytes.
+     */
+    private static final int MAX_DECISIONS = 100_000;
+
+    private final SourceReceiver sourceReceiver;
+    private final int sampleRate;
+    private final long window;
+    private final int latencyThreshold;
+    private final boolean keepErrors;
+    private final Set<String> endpoints;
+    private final long maxBufferedBytes;
+    private final Map<String, TraceBuffer> traces = new ConcurrentHashMap<>();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final Cache<String, Boolean> decisions;
+    private final CounterMetrics keptCounter;
+    private final CounterMetrics droppedCounter;
+
+    public TraceTailSampler(SourceReceiver sourceReceiver,
+                            TraceServiceModuleConfig config,
+                            MetricsCreator metricsCreator) {
+        this.sourceReceiver = sourceReceiver;
+        this.sampleRate = config.getSampleRate();
+        this.window = config.getTailSamplingWindow();
+        this.latencyThreshold = config.getTailSamplingLatencyThreshold();
+        this.keepErrors = config.isTailSamplingKeepErrors();
+        this.endpoints = StringUtil.isEmpty(config.getTailSamplingEndpoints())
+            ? Collections.emptySet()
+            : Arrays.stream(config.getTailSamplingEndpoints().split(","))
+                    .map(String::trim)
+                    .filter(endpoint -> !endpoint.isEmpty())
+                    .collect(Collectors.toCollection(HashSet::new));
+        this.maxBufferedBytes = config.getTailSamplingMaxBufferedSize() * 1024L * 1024L;
+        this.decisions = CacheBuilder.newBuilder()
+                                     .maximumSize(MAX_DECISIONS)
+                                     .expireAfterWrite(window * 2, TimeUnit.MILLISECONDS)
+                                     .build();
+        this.keptCounter = metricsCreator.createCounter(
+            "tail_sampling_kept_count", "The number of the segments kept by the tail sampling",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        this.droppedCounter = metricsCreator.createCounter(
+            "tail_sampling_dropped_count", "The number of the segments dropped by the tail sampling",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    public void start() {
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("TraceTailSampler-%d").build())
+                 .scheduleAtFixedRate(
+                     new RunnableWithExceptionProtection(
+                         () -> flush(System.currentTimeMillis()),
+                         t -> log.error("Tail sampling flush failure.", t)
+                     ), 1, 1, TimeUnit.SECONDS);
+        RecordStreamProcessor.getInstance().addShutdownFlusher(() -> flush(Long.MAX_VALUE));
+    }
+
+    /**
+     * Buffer the segment until the decision of its trace is made.
+     */
+    public void offer(Segment segment) {
+        final Boolean decision = decisions.getIfPresent(segment.getTraceId());
+        if (decision != null) {
+            forward(segment, decision);
+            return;
+        }
+        if (bufferedBytes.get() >= maxBufferedBytes) {
+            decideBySelf(segment);
+            return;
+        }
+
+        final TraceBuffer buffered = traces.compute(segment.getTraceId(), (traceId, buffer) -> {
+            if (buffer == null) {
+                // The trace could be decided by the flush after the decision is read above.
+                if (decisions.getIfPresent(traceId) != null) {
+                    return null;
+                }
+                buffer = new TraceBuffer(System.currentTimeMillis());
+            }
+            buffer.segments.add(segment);
+            return buffer;
+        });
+        if (buffered == null) {
+            final Boolean lateDecision = decisions.getIfPresent(segment.getTraceId());
+            if (lateDecision != null) {
+                forward(segment, lateDecision);
+            } else {
+                decideBySelf(segment);
+            }
+            return;
+        }
+        bufferedBytes.addAndGet(sizeOf(segment));
+    }
+
+    /**
+     * Decide the traces whose sampling window ended before the given time.
+     */
+    void flush(long now) {
+        for (Map.Entry<String, TraceBuffer> entry : traces.entrySet()) {
+            if (now - entry.getValue().firstArrival < window) {
+                continue;
+            }
+            final TraceBuffer buffer = entry.getValue();
+            // Decide and remove the trace in the compute, so the segments offered meanwhile are either in the buffer,
+            // or follow the decision.
+            traces.computeIfPresent(entry.getKey(), (traceId, current) -> {
+                if (current == buffer) {
+                    buffer.keep = shouldKeep(traceId, buffer.segments);
+                    decisions.put(traceId, buffer.keep);
+                    return null;
+                }
+                return current;
+            });
+            if (buffer.keep == null) {
+                continue;
+            }
+            for (Segment segment : buffer.segments) {
+                bufferedBytes.addAndGet(-sizeOf(segment));
+                forward(segment, buffer.keep);
+            }
+        }
+    }
+
+    private void decideBySelf(Segment segment) {
+        forward(segment, shouldKeep(segment.getTraceId(), Collections.singletonList(segment)));
+    }
+
+    private static long sizeOf(Segment segment) {
+        return segment.getDataBinary() == null
+            ? SEGMENT_OVERHEAD
+            : segment.getDataBinary().length + SEGMENT_OVERHEAD;
+    }
+
+    private boolean shouldKeep(String traceId, List<Segment> segments) {
+        for (Segment segment : segments) {
+            if (keepErrors && BooleanUtils.valueToBoolean(segment.getIsError())) {
+                return true;
+            }
+            if (latencyThreshold > 0 && segment.getLatency() >= latencyThreshold) {
+                return true;
+            }
+            if (endpoints.contains(segment.getEndpointName())) {
+                return true;
+            }
+        }
+        return Math.abs(traceId.hashCode() % 10000) < sampleRate;
+    }
+
+    private void forward(Segment segment, boolean keep) {
+        if (keep) {
+            sourceReceiver.receive(segment);
+            keptCounter.inc();
+        } else {
+            droppedCounter.inc();
+        }
+    }
+
+    private static class TraceBuffer {
+        private final long firstArrival;
+        /**
+         * Guarded by the {@link ConcurrentHashMap#compute} of the trace id, and read after the buffer is removed.
+         */
+        private final List<Segment> segments = new ArrayList<>(4);
+        /**
+         * The decision, set when the buffer is removed.
+         */
+        private Boolean keep;
+
+        private TraceBuffer(long firstArrival) {
+            this.firstArrival = firstArrival;
+        }
+    }
+}
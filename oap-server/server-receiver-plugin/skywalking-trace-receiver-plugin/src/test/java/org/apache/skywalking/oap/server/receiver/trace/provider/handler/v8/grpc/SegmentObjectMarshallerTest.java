@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v8.grpc;
+
+import io.grpc.StatusRuntimeException;
+import java.io.ByteArrayInputStream;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentObjectMarshallerTest {
+    private final SegmentObjectMarshaller marshaller = new SegmentObjectMarshaller();
+
+    @Test
+    public void testParse() {
+        final SegmentObject segmentObject = SegmentObject.newBuilder()
+                                                         .setTraceId("trace")
+                                                         .setTraceSegmentId("segment")
+                                                         .setService("service")
+                                                         .addSpans(SpanObject.newBuilder()
+                                                                             .setSpanId(0)
+                                                                             .setOperationName("/endpoint"))
+                                                         .build();
+        final byte[] binary = segmentObject.toByteArray();
+
+        final SegmentObjectMarshaller.BinarySegment segment = marshaller.parse(new ByteArrayInputStream(binary));
+        Assert.assertEquals(segmentObject, segment.getSegmentObject());
+        Assert.assertArrayEquals(binary, segment.getBinary());
+        Assert.assertEquals(segment.getBinary().length, marshaller.parse(marshaller.stream(segment)).getBinary().length);
+    }
+
+    @Test(expected = StatusRuntimeException.class)
+    public void testParseInvalidBytes() {
+        marshaller.parse(new ByteArrayInputStream(new byte[] {(byte) 0xFF, (byte) 0xFF}));
+    }
+}
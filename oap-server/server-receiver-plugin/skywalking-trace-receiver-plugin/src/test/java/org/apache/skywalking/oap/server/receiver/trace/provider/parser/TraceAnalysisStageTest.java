@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.config.NamingLengthControl;
+import org.apache.skywalking.oap.server.core.source.Segment;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.SegmentAnalysisListener;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TraceAnalysisStageTest {
+    /**
+     * Segment id to the name of the thread analyzing it.
+     */
+    private final Map<String, String> analyzedThreads = new ConcurrentHashMap<>();
+    private final Map<String, CounterMocker> counters = new ConcurrentHashMap<>();
+    /**
+     * Counted down once the analysis of a "blocking" segment starts, which then waits until released.
+     */
+    private final CountDownLatch consuming = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ModuleManager moduleManager;
+    private SegmentParserListenerManager listenerManager;
+    private TraceServiceModuleConfig config;
+
+    @Before
+    public void setUp() {
+        moduleManager = Mockito.mock(ModuleManager.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(moduleManager.find(TelemetryModule.NAME).provider().getService(MetricsCreator.class))
+               .thenReturn(new MetricsCreatorNoop() {
+                   @Override
+                   public CounterMetrics createCounter(String name, String tips, MetricsTag.Keys tagKeys,
+                                                       MetricsTag.Values tagValues) {
+                       return counters.computeIfAbsent(name, key -> new CounterMocker());
+                   }
+               });
+        Mockito.when(moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class))
+               .thenReturn(new SourceReceiver() {
+                   @Override
+                   public void receive(Source source) {
+                       if (!(source instanceof Segment)) {
+                           return;
+                       }
+                       final String segmentId = ((Segment) source).getSegmentId();
+                       if (segmentId.startsWith("failing")) {
+                           throw new IllegalStateException("analysis failure");
+                       }
+                       if (segmentId.startsWith("blocking")) {
+                           consuming.countDown();
+                           try {
+                               release.await();
+                           } catch (InterruptedException e) {
+                               Thread.currentThread().interrupt();
+                           }
+                       }
+                       analyzedThreads.put(segmentId, Thread.currentThread().getName());
+                   }
+
+                   @Override
+                   public DispatcherDetectorListener getDispatcherDetectorListener() {
+                       return null;
+                   }
+               });
+        Mockito.when(moduleManager.find(CoreModule.NAME).provider().getService(NamingLengthControl.class))
+               .thenReturn(new NamingLengthControl(70, 100, 150));
+
+        config = new TraceServiceModuleConfig();
+        listenerManager = new SegmentParserListenerManager();
+        listenerManager.add(new SegmentAnalysisListener.Factory(moduleManager, config));
+    }
+
+    @Test
+    public void testAnalyzeInReceiverThread() {
+        final TraceAnalysisStage stage = new TraceAnalysisStage(moduleManager, listenerManager, config);
+        stage.analyze(segment("trace-1", "segment-1"), null);
+        Assert.assertEquals(Thread.currentThread().getName(), analyzedThreads.get("segment-1"));
+    }
+
+    @Test
+    public void testAnalyzeInAnalysisThreads() throws InterruptedException {
+        config.setAnalysisThreads(2);
+        final TraceAnalysisStage stage = new TraceAnalysisStage(moduleManager, listenerManager, config);
+        for (int i = 0; i < 100; i++) {
+            stage.analyze(segment("trace-" + i % 10, "segment-" + i), null);
+        }
+
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (analyzedThreads.size() < 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(100, analyzedThreads.size());
+        for (int i = 0; i < 100; i++) {
+            final String thread = analyzedThreads.get("segment-" + i);
+            Assert.assertNotEquals(Thread.currentThread().getName(), thread);
+            Assert.assertEquals(analyzedThreads.get("segment-" + i % 10), thread);
+        }
+    }
+
+    @Test
+    public void testDropWhenQueueFull() throws InterruptedException {
+        final TraceAnalysisStage stage = blockedStage("drop");
+
+        stage.analyze(segment("trace-1", "segment-1"), null);
+        stage.analyze(segment("trace-2", "segment-2"), null);
+        // The queue is full, both the normal and the error segments are dropped.
+        stage.analyze(segment("trace-3", "segment-3"), null);
+        stage.analyze(segment("trace-4", "segment-4", true), null);
+        Assert.assertEquals(2, counters.get("trace_analysis_dropped_count").count.get());
+
+        release.countDown();
+        await(() -> analyzedThreads.size() == 3);
+        Assert.assertTrue(analyzedThreads.containsKey("segment-1"));
+        Assert.assertTrue(analyzedThreads.containsKey("segment-2"));
+    }
+
+    @Test
+    public void testSampleWhenQueueFull() throws InterruptedException {
+        final TraceAnalysisStage stage = blockedStage("sample");
+
+        stage.analyze(segment("trace-1", "segment-1"), null);
+        stage.analyze(segment("trace-2", "segment-2"), null);
+        // The queue is full, the normal segment is dropped.
+        stage.analyze(segment("trace-3", "segment-3"), null);
+        Assert.assertEquals(1, counters.get("trace_analysis_dropped_count").count.get());
+
+        // The error segment is kept, the receiver waits until it is queued.
+        final Thread receiver = new Thread(() -> stage.analyze(segment("trace-4", "segment-4", true), null));
+        receiver.start();
+        receiver.join(300);
+        Assert.assertTrue(receiver.isAlive());
+
+        release.countDown();
+        receiver.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(receiver.isAlive());
+        await(() -> analyzedThreads.size() == 4);
+        // It is analyzed by the analysis thread rather than the receiver thread.
+        Assert.assertEquals(analyzedThreads.get("blocking-0"), analyzedThreads.get("segment-4"));
+        Assert.assertFalse(analyzedThreads.containsKey("segment-3"));
+        Assert.assertEquals(1, counters.get("trace_analysis_dropped_count").count.get());
+    }
+
+    @Test
+    public void testShutdownWaitsForQueuedSegments() throws InterruptedException {
+        final TraceAnalysisStage stage = blockedStage("block");
+        stage.analyze(segment("trace-1", "segment-1"), null);
+
+        final Thread shutdown = new Thread(stage::shutdown);
+        shutdown.start();
+        shutdown.join(300);
+        Assert.assertTrue(shutdown.isAlive());
+        // The new segments are refused.
+        stage.analyze(segment("trace-2", "segment-2"), null);
+        Assert.assertEquals(1, counters.get("trace_analysis_dropped_count").count.get());
+
+        release.countDown();
+        shutdown.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(shutdown.isAlive());
+        Assert.assertTrue(analyzedThreads.containsKey("segment-1"));
+        Assert.assertFalse(analyzedThreads.containsKey("segment-2"));
+    }
+
+    @Test
+    public void testErrorCounter() throws InterruptedException {
+        config.setAnalysisThreads(1);
+        final TraceAnalysisStage stage = new TraceAnalysisStage(moduleManager, listenerManager, config);
+        stage.analyze(segment("trace-1", "failing-1"), null);
+        stage.analyze(segment("trace-1", "segment-2"), null);
+
+        await(() -> analyzedThreads.containsKey("segment-2"));
+        Assert.assertEquals(1, counters.get("trace_analysis_error_count").count.get());
+    }
+
+    @Test
+    public void testUnknownQueueFullPolicy() {
+        config.setAnalysisQueueFullPolicy("discard");
+        try {
+            new TraceAnalysisStage(moduleManager, listenerManager, config);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(
+                "Unknown queue full policy: discard, it should be block, sample or drop.", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the stage of one analysis thread and a queue of 2 segments, whose analysis thread is blocked.
+     */
+    private TraceAnalysisStage blockedStage(String queueFullPolicy) throws InterruptedException {
+        config.setAnalysisThreads(1);
+        config.setAnalysisQueueSize(2);
+        config.setAnalysisQueueFullPolicy(queueFullPolicy);
+        final TraceAnalysisStage stage = new TraceAnalysisStage(moduleManager, listenerManager, config);
+        stage.analyze(segment("trace-0", "blocking-0"), null);
+        Assert.assertTrue(consuming.await(10, TimeUnit.SECONDS));
+        return stage;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static SegmentObject segment(String traceId, String segmentId) {
+        return segment(traceId, segmentId, false);
+    }
+
+    private static SegmentObject segment(String traceId, String segmentId, boolean isError) {
+        return SegmentObject.newBuilder()
+                            .setTraceId(traceId)
+                            .setTraceSegmentId(segmentId)
+                            .setService("service")
+                            .setServiceInstance("instance")
+                            .addSpans(SpanObject.newBuilder()
+                                                .setSpanId(0)
+                                                .setParentSpanId(-1)
+                                                .setStartTime(1590000000000L)
+                                                .setEndTime(1590000000100L)
+                                                .setOperationName("/endpoint")
+                                                .setSpanType(SpanType.Entry)
+                                                .setIsError(isError))
+                            .build();
+    }
+
+    private static class CounterMocker implements CounterMetrics {
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public void inc() {
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void inc(double value) {
+            count.addAndGet((long) value);
+        }
+    }
+}
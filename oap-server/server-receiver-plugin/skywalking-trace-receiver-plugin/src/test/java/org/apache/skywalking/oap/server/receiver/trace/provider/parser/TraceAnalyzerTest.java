@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanLayer;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.cache.NetworkAddressAliasCache;
+import org.apache.skywalking.oap.server.core.config.NamingLengthControl;
+import org.apache.skywalking.oap.server.core.source.Segment;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.receiver.trace.provider.UninstrumentedGatewaysConfig;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.MultiScopesAnalysisListener;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.SegmentAnalysisListener;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TraceAnalyzerTest {
+    private final List<Source> sources = new ArrayList<>();
+    private TraceAnalyzer traceAnalyzer;
+
+    @Before
+    public void setUp() {
+        ModuleManager moduleManager = Mockito.mock(ModuleManager.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class))
+               .thenReturn(new SourceReceiver() {
+                   @Override
+                   public void receive(Source source) {
+                       sources.add(source);
+                   }
+
+                   @Override
+                   public DispatcherDetectorListener getDispatcherDetectorListener() {
+                       return null;
+                   }
+               });
+        Mockito.when(moduleManager.find(CoreModule.NAME).provider().getService(NamingLengthControl.class))
+               .thenReturn(new NamingLengthControl(70, 100, 150));
+        Mockito.when(moduleManager.find(CoreModule.NAME).provider().getService(NetworkAddressAliasCache.class))
+               .thenReturn(Mockito.mock(NetworkAddressAliasCache.class));
+
+        TraceServiceModuleConfig config = new TraceServiceModuleConfig();
+        config.setUninstrumentedGatewaysConfig(Mockito.mock(UninstrumentedGatewaysConfig.class));
+
+        SegmentParserListenerManager listenerManager = new SegmentParserListenerManager();
+        listenerManager.add(new MultiScopesAnalysisListener.Factory(moduleManager));
+        listenerManager.add(new SegmentAnalysisListener.Factory(moduleManager, config));
+        traceAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
+    }
+
+    @Test
+    public void testReuseAnalyzer() {
+        traceAnalyzer.doAnalysis(segment("segment-1", true, 100));
+        final int sourcesOfFirst = sources.size();
+        final Segment first = lastSegment();
+
+        sources.clear();
+        traceAnalyzer.doAnalysis(segment("segment-2", false, 50));
+        Assert.assertEquals(sourcesOfFirst, sources.size());
+        final Segment second = lastSegment();
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("segment-1", first.getSegmentId());
+        Assert.assertEquals(1, first.getIsError());
+        Assert.assertEquals(100, first.getLatency());
+        Assert.assertEquals("segment-2", second.getSegmentId());
+        Assert.assertEquals(0, second.getIsError());
+        Assert.assertEquals(50, second.getLatency());
+    }
+
+    private Segment lastSegment() {
+        Segment segment = null;
+        for (Source source : sources) {
+            if (source instanceof Segment) {
+                Assert.assertNull("only one segment is expected", segment);
+                segment = (Segment) source;
+            }
+        }
+        Assert.assertNotNull(segment);
+        return segment;
+    }
+
+    private static SegmentObject segment(String segmentId, boolean isError, int latency) {
+        final long start = 1590000000000L;
+        return SegmentObject.newBuilder()
+                            .setTraceId("trace")
+                            .setTraceSegmentId(segmentId)
+                            .setService("service")
+                            .setServiceInstance("instance")
+                            .addSpans(SpanObject.newBuilder()
+                                                .setSpanId(0)
+                                                .setParentSpanId(-1)
+                                                .setStartTime(start)
+                                                .setEndTime(start + latency)
+                                                .setOperationName("/endpoint")
+                                                .setSpanType(SpanType.Entry)
+                                                .setSpanLayer(SpanLayer.Http)
+                                                .setIsError(isError)
+                                                .addRefs(SegmentReference.newBuilder()
+                                                                         .setParentService("upstream")
+                                                                         .setParentServiceInstance("upstream-instance")
+                                                                         .setParentEndpoint("/upstream")))
+                            .build();
+    }
+}
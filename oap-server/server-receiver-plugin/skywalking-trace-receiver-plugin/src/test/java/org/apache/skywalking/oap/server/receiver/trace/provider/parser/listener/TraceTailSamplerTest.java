@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.source.Segment;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TraceTailSamplerTest {
+    private final List<Segment> saved = Collections.synchronizedList(new ArrayList<>());
+    private TraceTailSampler sampler;
+
+    @Before
+    public void setUp() {
+        TraceServiceModuleConfig config = new TraceServiceModuleConfig();
+        config.setSampleRate(0);
+        config.setTailSamplingWindow(1000);
+        config.setTailSamplingLatencyThreshold(3000);
+        config.setTailSamplingEndpoints("/checkout, /pay");
+        config.setTailSamplingMaxBufferedSize(1);
+        sampler = new TraceTailSampler(new SourceReceiver() {
+            @Override
+            public void receive(Source source) {
+                saved.add((Segment) source);
+            }
+
+            @Override
+            public DispatcherDetectorListener getDispatcherDetectorListener() {
+                return null;
+            }
+        }, config, new MetricsCreatorNoop());
+    }
+
+    @Test
+    public void testKeepTraceByPolicies() {
+        sampler.offer(segment("error-trace", "/a", 10, true));
+        sampler.offer(segment("error-trace", "/b", 10, false));
+        sampler.offer(segment("slow-trace", "/a", 5000, false));
+        sampler.offer(segment("endpoint-trace", "/pay", 10, false));
+        sampler.offer(segment("normal-trace", "/a", 10, false));
+        Assert.assertTrue(saved.isEmpty());
+
+        sampler.flush(System.currentTimeMillis() + 1000);
+        Assert.assertEquals(4, saved.size());
+        Assert.assertEquals(2, saved.stream().filter(segment -> "error-trace".equals(segment.getTraceId())).count());
+        Assert.assertFalse(saved.stream().anyMatch(segment -> "normal-trace".equals(segment.getTraceId())));
+
+        // The late segments follow the decision of the trace.
+        sampler.offer(segment("error-trace", "/c", 10, false));
+        sampler.offer(segment("normal-trace", "/c", 10, true));
+        Assert.assertEquals(5, saved.size());
+    }
+
+    @Test
+    public void testBufferUntilWindowEnds() {
+        sampler.offer(segment("error-trace", "/a", 10, true));
+        sampler.flush(System.currentTimeMillis() - 1000);
+        Assert.assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    public void testDecideImmediatelyWhenBufferIsFull() {
+        // 4 segments of 256KB binary reach the max buffered size, 1MB.
+        for (int i = 0; i < 4; i++) {
+            Segment segment = segment("normal-trace-" + i, "/a", 10, false);
+            segment.setDataBinary(new byte[256 * 1024]);
+            sampler.offer(segment);
+        }
+        sampler.offer(segment("error-trace", "/a", 10, true));
+        Assert.assertEquals(1, saved.size());
+        Assert.assertEquals("error-trace", saved.get(0).getTraceId());
+
+        // The buffer is released after the flush.
+        sampler.flush(System.currentTimeMillis() + 1000);
+        sampler.offer(segment("another-error-trace", "/a", 10, true));
+        Assert.assertEquals(1, saved.size());
+    }
+
+    @Test
+    public void testOfferWhileFlushing() throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            sampler.offer(segment("error-trace-" + i, "/a", 10, true));
+        }
+        // The late segments offered while the traces are decided follow the decision, rather than being buffered and
+        // decided again by themselves.
+        Thread flusher = new Thread(() -> sampler.flush(Long.MAX_VALUE));
+        flusher.start();
+        for (int i = 0; i < 1000; i++) {
+            sampler.offer(segment("error-trace-" + i, "/b", 10, false));
+        }
+        flusher.join();
+        sampler.flush(Long.MAX_VALUE);
+        Assert.assertEquals(2000, saved.size());
+    }
+
+    private static Segment segment(String traceId, String endpointName, int latency, boolean isError) {
+        Segment segment = new Segment();
+        segment.setTraceId(traceId);
+        segment.setEndpointName(endpointName);
+        segment.setLatency(latency);
+        segment.setIsError(isError ? 1 : 0);
+        return segment;
+    }
+}
@@ -45,6 +45,12 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
     private int concurrentRequests = 2;
     @Setter
     private int syncBulkActions = 3;
+    /**
+     * The max size(MB) of one bulk chunk, when the metrics are persisted synchronously. The bulk is split into chunks by
+     * this and {@link #bulkActions}, and executed in {@link #concurrentRequests} parallel requests.
+     */
+    @Setter
+    private int syncBulkSize = 5;
     /**
      * @since 7.0.0 This could be managed inside {@link #secretsManagementFile}
      */
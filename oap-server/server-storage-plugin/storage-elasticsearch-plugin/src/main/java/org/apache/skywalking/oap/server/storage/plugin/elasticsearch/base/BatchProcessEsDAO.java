@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
@@ -39,12 +41,18 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
     private final int bulkActions;
     private final int flushInterval;
     private final int concurrentRequests;
+    private final long syncBulkSizeInBytes;
 
-    public BatchProcessEsDAO(ElasticSearchClient client, int bulkActions, int flushInterval, int concurrentRequests) {
+    /**
+     * @param syncBulkSize the max size of one synchronous bulk chunk, in MB.
+     */
+    public BatchProcessEsDAO(ElasticSearchClient client, int bulkActions, int flushInterval, int concurrentRequests,
+                             int syncBulkSize) {
         super(client);
         this.bulkActions = bulkActions;
         this.flushInterval = flushInterval;
         this.concurrentRequests = concurrentRequests;
+        this.syncBulkSizeInBytes = syncBulkSize * 1024L * 1024L;
     }
 
     @Override
@@ -57,18 +65,31 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
     }
 
     @Override
-    public void synchronous(List<PrepareRequest> prepareRequests) {
+    public void synchronous(List<PrepareRequest> prepareRequests) throws IOException {
         if (CollectionUtils.isNotEmpty(prepareRequests)) {
-            BulkRequest request = new BulkRequest();
+            getClient().synchronousBulk(split(prepareRequests), concurrentRequests);
+        }
+    }
 
-            for (PrepareRequest prepareRequest : prepareRequests) {
-                if (prepareRequest instanceof InsertRequest) {
-                    request.add((IndexRequest) prepareRequest);
-                } else {
-                    request.add((UpdateRequest) prepareRequest);
-                }
+    /**
+     * Split the requests into bulks bounded by both the {@link #bulkActions} and the {@link #syncBulkSizeInBytes}, so
+     * they could be executed concurrently and none of them is too large for the cluster.
+     */
+    List<BulkRequest> split(List<PrepareRequest> prepareRequests) {
+        List<BulkRequest> requests = new ArrayList<>();
+        BulkRequest request = new BulkRequest();
+        for (PrepareRequest prepareRequest : prepareRequests) {
+            if (request.numberOfActions() >= bulkActions || request.estimatedSizeInBytes() >= syncBulkSizeInBytes) {
+                requests.add(request);
+                request = new BulkRequest();
+            }
+            if (prepareRequest instanceof InsertRequest) {
+                request.add((IndexRequest) prepareRequest);
+            } else {
+                request.add((UpdateRequest) prepareRequest);
             }
-            getClient().synchronousBulk(request);
         }
+        requests.add(request);
+        return requests;
     }
 }
@@ -21,13 +21,24 @@ package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 import java.io.IOException;
 import java.util.Map;
 import org.apache.skywalking.oap.server.core.storage.AbstractDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.StorageData;
 import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 
 public abstract class EsDAO extends AbstractDAO<ElasticSearchClient> {
 
+    private static final int DEFAULT_DOCUMENT_SIZE = 256;
+
+    /**
+     * The size of the last document built by {@link #data2builder(StorageBuilder, StorageData)}. Documents of the same
+     * model are almost the same size, so it is used to pre-size the buffer of the next one.
+     */
+    private volatile int documentSizeHint = DEFAULT_DOCUMENT_SIZE;
+
     public EsDAO(ElasticSearchClient client) {
         super(client);
     }
@@ -46,4 +57,26 @@ public abstract class EsDAO extends AbstractDAO<ElasticSearchClient> {
 
         return builder;
     }
+
+    /**
+     * Write the columns of the storage data straight into a pre-sized JSON document, without building the
+     * intermediate map of {@link StorageBuilder#data2Map(StorageData)}.
+     */
+    protected <T extends StorageData> XContentBuilder data2builder(StorageBuilder<T> storageBuilder,
+                                                                   T storageData) throws IOException {
+        BytesStreamOutput output = new BytesStreamOutput(documentSizeHint);
+        XContentBuilder builder = XContentFactory.jsonBuilder(output).startObject();
+        storageBuilder.data2Columns(storageData, (columnName, value) -> {
+            if (value instanceof StorageDataComplexObject) {
+                builder.field(columnName, ((StorageDataComplexObject) value).toStorageData());
+            } else {
+                builder.field(columnName, value);
+            }
+        });
+        builder.endObject();
+        builder.flush();
+        documentSizeHint = Math.max(DEFAULT_DOCUMENT_SIZE, output.size());
+
+        return builder;
+    }
 }
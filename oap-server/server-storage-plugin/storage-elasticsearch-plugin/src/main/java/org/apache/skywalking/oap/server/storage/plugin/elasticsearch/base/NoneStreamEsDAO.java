@@ -40,7 +40,7 @@ public class NoneStreamEsDAO extends EsDAO implements INoneStreamDAO {
 
     @Override
     public void insert(Model model, NoneStream noneStream) throws IOException {
-        XContentBuilder builder = map2builder(storageBuilder.data2Map(noneStream));
+        XContentBuilder builder = data2builder(storageBuilder, noneStream);
         String modelName = model.getName();
         getClient().forceInsert(modelName, noneStream.id(), builder);
     }
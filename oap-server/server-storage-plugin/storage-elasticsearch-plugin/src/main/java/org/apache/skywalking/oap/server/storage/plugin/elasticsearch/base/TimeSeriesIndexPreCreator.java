@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.storage.model.IModelManager;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+
+/**
+ * TimeSeriesIndexPreCreator creates the next time series index of every model before the index rolls over, such as
+ * before the midnight, so the first bulk of the new day doesn't wait for the auto-creation of the index, and the index
+ * name is resolved and cached in {@link TimeSeriesUtils} ahead.
+ */
+@Slf4j
+public class TimeSeriesIndexPreCreator {
+    /**
+     * The next index is created when the rollover happens in this period.
+     */
+    private static final long LEAD_TIME_MINUTES = 60;
+    private static final long CHECK_PERIOD_MINUTES = 10;
+
+    private final ElasticSearchClient client;
+    private final IModelManager modelManager;
+
+    public TimeSeriesIndexPreCreator(ElasticSearchClient client, IModelManager modelManager) {
+        this.client = client;
+        this.modelManager = modelManager;
+    }
+
+    public void start() {
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("TimeSeriesIndexPreCreator-%d").build())
+                 .scheduleAtFixedRate(
+                     new RunnableWithExceptionProtection(
+                         this::createNextIndexes,
+                         t -> log.error("Create the next time series indexes failure.", t)
+                     ), CHECK_PERIOD_MINUTES, CHECK_PERIOD_MINUTES, TimeUnit.MINUTES);
+    }
+
+    void createNextIndexes() {
+        for (Model model : modelManager.allModels()) {
+            if (!model.isRecord() && DownSampling.None.equals(model.getDownsampling())) {
+                continue;
+            }
+            String nextIndexName = TimeSeriesUtils.nextWriteIndexName(model, LEAD_TIME_MINUTES, TimeUnit.MINUTES);
+            if (nextIndexName.equals(TimeSeriesUtils.latestWriteIndexName(model))) {
+                continue;
+            }
+            try {
+                if (!client.isExistsIndex(nextIndexName)) {
+                    boolean isAcknowledged = client.createIndex(nextIndexName);
+                    log.info("create next index {} finished, isAcknowledged: {}", nextIndexName, isAcknowledged);
+                }
+            } catch (Exception e) {
+                // Another OAP node may create the same index at the same time, the index is created anyway.
+                log.warn("create next index {} failure, {}", nextIndexName, e.getMessage());
+            }
+        }
+    }
+}
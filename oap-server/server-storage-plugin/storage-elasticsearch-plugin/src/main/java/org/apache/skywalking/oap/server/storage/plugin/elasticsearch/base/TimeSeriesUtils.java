@@ -17,7 +17,9 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
-import lombok.Setter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.DownSampling;
@@ -38,20 +40,42 @@ public class TimeSeriesUtils {
      * #DAY_STEP} is consistently no matter whenever the OAP starts up.
      */
     private static final DateTime DAY_ONE = TIME_BUCKET_FORMATTER.parseDateTime("20000101");
-    @Setter
     private static int DAY_STEP = 1;
+    /**
+     * The resolved write index names of every model, indexed by the day of the time bucket. Only the latest days are
+     * written in practice, so the cache of the model is reset once it holds more than {@link #MAX_CACHED_DAYS} days.
+     */
+    private static final Map<String, Map<Long, String>> WRITE_INDEX_NAMES = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_DAYS = 8;
+
+    public static void setDAY_STEP(int dayStep) {
+        DAY_STEP = dayStep;
+        WRITE_INDEX_NAMES.clear();
+    }
 
     /**
      * @return formatted latest index name, based on current timestamp.
      */
     public static String latestWriteIndexName(Model model) {
+        return writeIndexNameAt(model, System.currentTimeMillis());
+    }
+
+    /**
+     * @return the index name which the data will be written into after the given period, based on current timestamp.
+     * It is the same as {@link #latestWriteIndexName(Model)} unless the index rolls over in the period.
+     */
+    public static String nextWriteIndexName(Model model, long period, TimeUnit unit) {
+        return writeIndexNameAt(model, System.currentTimeMillis() + unit.toMillis(period));
+    }
+
+    private static String writeIndexNameAt(Model model, long timestamp) {
         long timeBucket;
         if (model.isRecord()) {
-            timeBucket = TimeBucket.getTimeBucket(System.currentTimeMillis(), model.getDownsampling());
-            return model.getName() + Const.LINE + compressTimeBucket(timeBucket / 1000000, DAY_STEP);
+            timeBucket = TimeBucket.getTimeBucket(timestamp, model.getDownsampling());
+            return writeIndexName(model.getName(), timeBucket / 1000000);
         } else {
-            timeBucket = TimeBucket.getTimeBucket(System.currentTimeMillis(), DownSampling.Minute);
-            return model.getName() + Const.LINE + compressTimeBucket(timeBucket / 10000, DAY_STEP);
+            timeBucket = TimeBucket.getTimeBucket(timestamp, DownSampling.Minute);
+            return writeIndexName(model.getName(), timeBucket / 10000);
         }
     }
 
@@ -62,25 +86,41 @@ public class TimeSeriesUtils {
         final String modelName = model.getName();
 
         if (model.isRecord()) {
-            return modelName + Const.LINE + compressTimeBucket(timeBucket / 1000000, DAY_STEP);
+            return writeIndexName(modelName, timeBucket / 1000000);
         } else {
             switch (model.getDownsampling()) {
                 case None:
                     return modelName;
                 case Hour:
-                    return modelName + Const.LINE + compressTimeBucket(timeBucket / 100, DAY_STEP);
+                    return writeIndexName(modelName, timeBucket / 100);
                 case Minute:
-                    return modelName + Const.LINE + compressTimeBucket(timeBucket / 10000, DAY_STEP);
+                    return writeIndexName(modelName, timeBucket / 10000);
                 case Day:
-                    return modelName + Const.LINE + compressTimeBucket(timeBucket, DAY_STEP);
+                    return writeIndexName(modelName, timeBucket);
                 case Second:
-                    return modelName + Const.LINE + compressTimeBucket(timeBucket / 1000000, DAY_STEP);
+                    return writeIndexName(modelName, timeBucket / 1000000);
                 default:
                     throw new UnexpectedException("Unexpected down sampling value, " + model.getDownsampling());
             }
         }
     }
 
+    /**
+     * @param dayTimeBucket the time bucket in the day precision, such as 20200512.
+     */
+    private static String writeIndexName(String modelName, long dayTimeBucket) {
+        Map<Long, String> indexNames = WRITE_INDEX_NAMES.computeIfAbsent(modelName, key -> new ConcurrentHashMap<>());
+        String indexName = indexNames.get(dayTimeBucket);
+        if (indexName == null) {
+            if (indexNames.size() >= MAX_CACHED_DAYS) {
+                indexNames.clear();
+            }
+            indexName = modelName + Const.LINE + compressTimeBucket(dayTimeBucket, DAY_STEP);
+            indexNames.put(dayTimeBucket, indexName);
+        }
+        return indexName;
+    }
+
     /**
      * @return the index represented time, which is included in the index name.
      */
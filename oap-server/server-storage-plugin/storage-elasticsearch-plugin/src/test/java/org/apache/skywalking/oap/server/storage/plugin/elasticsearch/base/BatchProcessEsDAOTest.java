@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.StorageData;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchProcessEsDAOTest {
+    private final ElasticSearchClient client = new ElasticSearchClient(
+        "localhost:9200", "http", null, null, null, null, Collections.emptyList());
+
+    @Test
+    public void testSplitByActions() throws IOException {
+        BatchProcessEsDAO dao = new BatchProcessEsDAO(client, 3, 10, 2, 5);
+        List<BulkRequest> requests = dao.split(inserts(7, 10));
+
+        Assert.assertEquals(3, requests.size());
+        Assert.assertEquals(3, requests.get(0).numberOfActions());
+        Assert.assertEquals(3, requests.get(1).numberOfActions());
+        Assert.assertEquals(1, requests.get(2).numberOfActions());
+    }
+
+    @Test
+    public void testSplitBySize() throws IOException {
+        BatchProcessEsDAO dao = new BatchProcessEsDAO(client, 1000, 10, 2, 1);
+        List<BulkRequest> requests = dao.split(inserts(10, 300 * 1024));
+
+        Assert.assertEquals(3, requests.size());
+        Assert.assertEquals(4, requests.get(0).numberOfActions());
+        Assert.assertEquals(4, requests.get(1).numberOfActions());
+        Assert.assertEquals(2, requests.get(2).numberOfActions());
+    }
+
+    @Test
+    public void testData2Builder() throws IOException {
+        BatchProcessEsDAO dao = new BatchProcessEsDAO(client, 1000, 10, 2, 5);
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("entity_id", "service_1");
+        columns.put("time_bucket", 202006011200L);
+        columns.put("value", 5);
+
+        StorageBuilder<StorageData> storageBuilder = new StorageBuilder<StorageData>() {
+            @Override
+            public StorageData map2Data(Map<String, Object> dbMap) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, Object> data2Map(StorageData storageData) {
+                return columns;
+            }
+        };
+        StorageData data = () -> "id";
+
+        Assert.assertEquals(
+            BytesReference.bytes(dao.map2builder(storageBuilder.data2Map(data))).utf8ToString(),
+            BytesReference.bytes(dao.data2builder(storageBuilder, data)).utf8ToString()
+        );
+    }
+
+    @Test
+    public void testSynchronousFailure() throws IOException {
+        List<BulkRequest> executed = new ArrayList<>();
+        ElasticSearchClient failingClient = new ElasticSearchClient(
+            "localhost:9200", "http", null, null, null, null, Collections.emptyList()) {
+            @Override
+            protected void bulkAsync(BulkRequest request, ActionListener<BulkResponse> listener) {
+                executed.add(request);
+                if (executed.size() == 2) {
+                    listener.onFailure(new IOException("Connection refused"));
+                } else {
+                    listener.onResponse(new BulkResponse(new BulkItemResponse[0], 1));
+                }
+            }
+        };
+        BatchProcessEsDAO dao = new BatchProcessEsDAO(failingClient, 3, 10, 2, 5);
+
+        try {
+            dao.synchronous(inserts(7, 10));
+            Assert.fail("The failed chunk should be surfaced.");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("1 of 3 chunks"));
+        }
+        Assert.assertEquals(3, executed.size());
+        // The metrics are read back by the ids query, which only finds the refreshed documents.
+        executed.forEach(request -> Assert.assertEquals(
+            WriteRequest.RefreshPolicy.WAIT_UNTIL, request.getRefreshPolicy()));
+    }
+
+    private List<PrepareRequest> inserts(int count, int sourceSize) throws IOException {
+        char[] source = new char[sourceSize];
+        Arrays.fill(source, 'a');
+        List<PrepareRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(client.prepareInsert(
+                "index", String.valueOf(i),
+                XContentFactory.jsonBuilder().startObject().field("source", new String(source)).endObject()
+            ));
+        }
+        return requests;
+    }
+}
@@ -18,6 +18,11 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -33,4 +38,34 @@ public class TimeSeriesUtilsTest {
         Assert.assertEquals(20000123L, compressTimeBucket(20000123, 11));
         Assert.assertEquals(20000123L, compressTimeBucket(20000125, 11));
     }
+
+    @Test
+    public void testWriteIndexName() {
+        Model model = new Model(
+            "service_cpm", Collections.emptyList(), Collections.emptyList(), 0, DownSampling.Minute, false);
+
+        String indexName = TimeSeriesUtils.writeIndexName(model, 202005121530L);
+        Assert.assertEquals("service_cpm-20200512", indexName);
+        Assert.assertSame(indexName, TimeSeriesUtils.writeIndexName(model, 202005120001L));
+        Assert.assertEquals("service_cpm-20200513", TimeSeriesUtils.writeIndexName(model, 202005130001L));
+
+        TimeSeriesUtils.setDAY_STEP(11);
+        Assert.assertEquals("service_cpm-20200511", TimeSeriesUtils.writeIndexName(model, 202005121530L));
+    }
+
+    @Test
+    public void testNextWriteIndexName() {
+        Model model = new Model(
+            "segment", Collections.emptyList(), Collections.emptyList(), 0, DownSampling.Second, true);
+
+        Assert.assertEquals(
+            TimeSeriesUtils.latestWriteIndexName(model), TimeSeriesUtils.nextWriteIndexName(model, 0, TimeUnit.DAYS));
+        Assert.assertNotEquals(
+            TimeSeriesUtils.latestWriteIndexName(model), TimeSeriesUtils.nextWriteIndexName(model, 1, TimeUnit.DAYS));
+    }
+
+    @After
+    public void tearDown() {
+        TimeSeriesUtils.setDAY_STEP(1);
+    }
 }
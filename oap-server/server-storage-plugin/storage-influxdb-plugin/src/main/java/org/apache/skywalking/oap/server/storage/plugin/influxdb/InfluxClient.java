@@ -75,7 +75,6 @@ public class InfluxClient implements Client {
         influx.query(new Query("CREATE DATABASE " + database));
         influx.enableGzip();
 
-        influx.enableBatch(config.getActions(), config.getDuration(), TimeUnit.MILLISECONDS);
         influx.setDatabase(database);
     }
 
@@ -173,8 +172,8 @@ public class InfluxClient implements Client {
     }
 
     /**
-     * Write a {@link Point} into InfluxDB. Note that, the {@link Point} is written into buffer of InfluxDB Client and
-     * wait for buffer flushing.
+     * Write a {@link Point} into InfluxDB directly. The points of the batch process are buffered per measurement by
+     * {@link org.apache.skywalking.oap.server.storage.plugin.influxdb.base.BatchDAO}.
      */
     public void write(Point point) {
         getInflux().write(point);
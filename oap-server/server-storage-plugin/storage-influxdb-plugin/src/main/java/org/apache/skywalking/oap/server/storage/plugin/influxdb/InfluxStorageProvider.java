@@ -87,7 +87,7 @@ public class InfluxStorageProvider extends ModuleProvider {
     public void prepare() throws ServiceNotProvidedException {
         client = new InfluxClient(config);
 
-        this.registerServiceImplementation(IBatchDAO.class, new BatchDAO(client));
+        this.registerServiceImplementation(IBatchDAO.class, new BatchDAO(client, config.getActions(), config.getDuration()));
         this.registerServiceImplementation(StorageDAO.class, new InfluxStorageDAO(client));
 
         this.registerServiceImplementation(INetworkAddressAliasDAO.class, new NetworkAddressAliasDAO(client));
@@ -18,30 +18,88 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.influxdb.base;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxClient;
 import org.influxdb.dto.BatchPoints;
+import org.influxdb.dto.Point;
 
+/**
+ * The points are written in the batches of the same measurement, at most {@code actions} points in one batch. The
+ * asynchronous points are buffered per measurement, and written by a daemon thread when the buffer is full or every
+ * {@code duration} milliseconds. The full buffers wait for the thread in a queue of at most {@link
+ * #MAX_PENDING_BATCHES} batches, the caller is blocked only when the queue is full, as the backpressure of a slow
+ * InfluxDB. The buffered points which are not flushed yet are lost when the OAP stops, as the asynchronous mode doesn't
+ * guarantee the persistence.
+ */
 @Slf4j
 public class BatchDAO implements IBatchDAO {
+    /**
+     * The max number of the full buffers waiting to be written.
+     */
+    static final int MAX_PENDING_BATCHES = 10;
+
     private final InfluxClient client;
+    private final int actions;
+    private final Map<String, PointBuffer> buffers = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingBatch> pendingBatches = new ArrayBlockingQueue<>(MAX_PENDING_BATCHES);
+    private final ScheduledExecutorService executor;
+    /**
+     * The number of the asynchronous points failed to write.
+     */
+    private final AtomicLong failedPoints = new AtomicLong();
 
-    public BatchDAO(InfluxClient client) {
+    public BatchDAO(InfluxClient client, int actions, int duration) {
         this.client = client;
+        this.actions = actions;
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("InfluxDB-BatchDAO-%d").build());
+        executor.scheduleWithFixedDelay(
+            new RunnableWithExceptionProtection(this::flush, t -> log.error("Flush points failure.", t)),
+            duration, duration, TimeUnit.MILLISECONDS
+        );
     }
 
     @Override
     public void asynchronous(InsertRequest insertRequest) {
-        client.write(((InfluxInsertRequest) insertRequest).getPoint());
+        final InfluxInsertRequest request = (InfluxInsertRequest) insertRequest;
+        final List<Point> points = buffers.computeIfAbsent(request.getMeasurement(), measurement -> new PointBuffer())
+                                          .add(request.getPoint());
+        if (points == null) {
+            return;
+        }
+        try {
+            pendingBatches.put(new PendingBatch(request.getMeasurement(), points));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            onFailure(request.getMeasurement(), points, e);
+            return;
+        }
+        executor.execute(new RunnableWithExceptionProtection(
+            this::writePendingBatches, t -> log.error("Write points failure.", t)));
     }
 
     @Override
-    public void synchronous(List<PrepareRequest> prepareRequests) {
+    public void synchronous(List<PrepareRequest> prepareRequests) throws IOException {
         if (CollectionUtils.isEmpty(prepareRequests)) {
             return;
         }
@@ -50,11 +108,102 @@ public class BatchDAO implements IBatchDAO {
             log.debug("batch sql statements execute, data size: {}", prepareRequests.size());
         }
 
-        final BatchPoints.Builder builder = BatchPoints.builder();
+        final Map<String, List<Point>> measurements = new LinkedHashMap<>();
         prepareRequests.forEach(e -> {
-            builder.point(((InfluxInsertRequest) e).getPoint());
+            final InfluxInsertRequest request = (InfluxInsertRequest) e;
+            measurements.computeIfAbsent(request.getMeasurement(), measurement -> new ArrayList<>())
+                        .add(request.getPoint());
         });
 
+        // Write the rest of the batches even if one fails, the failures are reported after all.
+        int failed = 0;
+        RuntimeException failure = null;
+        for (List<Point> points : measurements.values()) {
+            for (int from = 0; from < points.size(); from += actions) {
+                try {
+                    write(points.subList(from, Math.min(from + actions, points.size())));
+                } catch (RuntimeException e) {
+                    failed++;
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw new IOException("Write points with " + failed + " failed batches, the first one: "
+                                      + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Write the full buffers, and then the points buffered of every measurement. The failure of a measurement doesn't
+     * stop the others.
+     */
+    void flush() {
+        writePendingBatches();
+        buffers.forEach((measurement, buffer) -> {
+            final List<Point> points = buffer.drain();
+            if (!points.isEmpty()) {
+                writeQuietly(measurement, points);
+            }
+        });
+    }
+
+    private void writePendingBatches() {
+        PendingBatch batch;
+        while ((batch = pendingBatches.poll()) != null) {
+            writeQuietly(batch.measurement, batch.points);
+        }
+    }
+
+    private void writeQuietly(String measurement, List<Point> points) {
+        try {
+            write(points);
+        } catch (RuntimeException e) {
+            onFailure(measurement, points, e);
+        }
+    }
+
+    private void onFailure(String measurement, List<Point> points, Exception e) {
+        log.error("Write {} points of measurement {} failure, {} points failed in total.",
+                  points.size(), measurement, failedPoints.addAndGet(points.size()), e);
+    }
+
+    /**
+     * @return the number of the asynchronous points failed to write.
+     */
+    long getFailedPoints() {
+        return failedPoints.get();
+    }
+
+    private void write(List<Point> points) {
+        final BatchPoints.Builder builder = BatchPoints.builder();
+        points.forEach(builder::point);
         client.write(builder.build());
     }
+
+    @RequiredArgsConstructor
+    private static class PendingBatch {
+        private final String measurement;
+        private final List<Point> points;
+    }
+
+    private class PointBuffer {
+        private List<Point> points = new ArrayList<>();
+
+        /**
+         * @return the buffered points to write if the buffer is full, or null.
+         */
+        private synchronized List<Point> add(Point point) {
+            points.add(point);
+            return points.size() >= actions ? drain() : null;
+        }
+
+        private synchronized List<Point> drain() {
+            final List<Point> drained = points;
+            points = new ArrayList<>();
+            return drained;
+        }
+    }
 }
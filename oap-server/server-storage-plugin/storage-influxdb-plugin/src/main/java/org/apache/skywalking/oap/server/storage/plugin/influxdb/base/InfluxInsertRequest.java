@@ -18,44 +18,59 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.influxdb.base;
 
-import com.google.common.collect.Maps;
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import lombok.Getter;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
-import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
 import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
 import org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxConstants;
+import org.apache.skywalking.oap.server.storage.plugin.influxdb.TableMetaInfo;
 import org.influxdb.dto.Point;
 
 /**
  * InfluxDB Point wrapper.
  */
 public class InfluxInsertRequest implements InsertRequest, UpdateRequest {
-    private Point.Builder builder;
-    private Map<String, Object> fields = Maps.newHashMap();
+    @Getter
+    private final String measurement;
+    private final Point.Builder builder;
 
-    public InfluxInsertRequest(Model model, StorageData storageData, StorageBuilder storageBuilder) {
-        Map<String, Object> objectMap = storageBuilder.data2Map(storageData);
-
-        for (ModelColumn column : model.getColumns()) {
-            Object value = objectMap.get(column.getColumnName().getName());
+    /**
+     * Write the columns of the storage data straight into the point, and the columns mapped in {@link
+     * TableMetaInfo#getStorageAndTagMap()} as tags too. The fields are added by {@link Point.Builder#fields(Map)},
+     * which keeps the integer types, rather than {@link Point.Builder#field(String, Object)} converting the numbers
+     * into floats.
+     */
+    public InfluxInsertRequest(Model model, StorageData storageData, StorageBuilder storageBuilder) throws IOException {
+        final TableMetaInfo metaInfo = TableMetaInfo.get(model.getName());
+        final Map<String, String> columnAndStorageMap = metaInfo.getColumnAndStorageMap();
+        final Map<String, String> storageAndTagMap = metaInfo.getStorageAndTagMap();
 
+        measurement = model.getName();
+        builder = Point.measurement(measurement).addField(InfluxConstants.ID_COLUMN, storageData.id());
+        final Map<String, Object> fields = new HashMap<>();
+        storageBuilder.data2Columns(storageData, (columnName, value) -> {
+            final String storageName = columnAndStorageMap.get(columnName);
+            if (storageName == null) {
+                return;
+            }
             if (value instanceof StorageDataComplexObject) {
-                fields.put(
-                    column.getColumnName().getStorageName(),
-                    ((StorageDataComplexObject) value).toStorageData()
-                );
-            } else {
-                fields.put(column.getColumnName().getStorageName(), value);
+                value = ((StorageDataComplexObject) value).toStorageData();
+            }
+            fields.put(storageName, value);
+
+            final String tagName = storageAndTagMap.get(storageName);
+            if (tagName != null) {
+                builder.tag(tagName, String.valueOf(value));
             }
-        }
-        builder = Point.measurement(model.getName())
-                       .addField(InfluxConstants.ID_COLUMN, storageData.id())
-                       .fields(fields);
+        });
+        builder.fields(fields);
     }
 
     public InfluxInsertRequest time(long time, TimeUnit unit) {
@@ -63,12 +78,7 @@ public class InfluxInsertRequest implements InsertRequest, UpdateRequest {
         return this;
     }
 
-    public InfluxInsertRequest addFieldAsTag(String fieldName, String tagName) {
-        builder.tag(tagName, String.valueOf(fields.get(fieldName)));
-        return this;
-    }
-
     public Point getPoint() {
         return builder.build();
     }
-}
\ No newline at end of file
+}
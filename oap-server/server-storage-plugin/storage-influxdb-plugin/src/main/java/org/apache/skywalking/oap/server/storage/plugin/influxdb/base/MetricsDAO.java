@@ -21,12 +21,15 @@ package org.apache.skywalking.oap.server.storage.plugin.influxdb.base;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
@@ -36,14 +39,21 @@ import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObje
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
 import org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxClient;
+import org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxConstants;
 import org.apache.skywalking.oap.server.storage.plugin.influxdb.TableMetaInfo;
 import org.influxdb.dto.QueryResult;
 import org.influxdb.querybuilder.SelectQueryImpl;
+import org.influxdb.querybuilder.WhereNested;
 import org.influxdb.querybuilder.WhereQueryImpl;
+import org.influxdb.querybuilder.time.TimeInterval;
 
 import static org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxConstants.ALL_FIELDS;
 import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.contains;
+import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.eq;
+import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.gte;
+import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.lte;
 import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.select;
+import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.ti;
 
 @Slf4j
 public class MetricsDAO implements IMetricsDAO {
@@ -56,12 +66,21 @@ public class MetricsDAO implements IMetricsDAO {
         this.storageBuilder = storageBuilder;
     }
 
+    /**
+     * Query the metrics of the ids in one statement. The entity id and the time bucket are the tags of the metrics, and
+     * the id is composed by them, so the query could locate the series by the tags inside the time range, instead of
+     * scanning the id field of the whole measurement.
+     */
     @Override
     public List<Metrics> multiGet(Model model, List<String> ids) throws IOException {
+        TableMetaInfo metaInfo = TableMetaInfo.get(model.getName());
         WhereQueryImpl<SelectQueryImpl> query = select()
             .raw(ALL_FIELDS)
             .from(client.getDatabase(), model.getName())
-            .where(contains("id", Joiner.on("|").join(ids)));
+            .where();
+        if (!buildSeriesCondition(query, model, metaInfo, ids)) {
+            query.and(contains("id", Joiner.on("|").join(ids)));
+        }
         QueryResult.Series series = client.queryForSingleSeries(query);
         if (log.isDebugEnabled()) {
             log.debug("SQL: {} result: {}", query.getCommand(), series);
@@ -72,9 +91,9 @@ public class MetricsDAO implements IMetricsDAO {
         }
 
         final List<Metrics> metrics = Lists.newArrayList();
+        final Set<String> idSet = Sets.newHashSet(ids);
         List<String> columns = series.getColumns();
 
-        TableMetaInfo metaInfo = TableMetaInfo.get(model.getName());
         Map<String, String> storageAndColumnMap = metaInfo.getStorageAndColumnMap();
 
         series.getValues().forEach(values -> {
@@ -88,25 +107,66 @@ public class MetricsDAO implements IMetricsDAO {
 
                 data.put(storageAndColumnMap.get(columns.get(i)), value);
             }
-            metrics.add(storageBuilder.map2Data(data));
-
+            Metrics result = storageBuilder.map2Data(data);
+            // The series condition matches the entities in the time range, the other time buckets are dropped here.
+            if (idSet.contains(result.id())) {
+                metrics.add(result);
+            }
         });
 
         return metrics;
     }
 
+    /**
+     * Add the time range and the entity tags of the ids into the query.
+     *
+     * @return false if the ids can't be located by the tags, then the query should filter by the ids.
+     */
+    private boolean buildSeriesCondition(WhereQueryImpl<SelectQueryImpl> query, Model model, TableMetaInfo metaInfo,
+                                         List<String> ids) {
+        Map<String, String> storageAndTagMap = metaInfo.getStorageAndTagMap();
+        if (!storageAndTagMap.containsKey(Metrics.ENTITY_ID) || !storageAndTagMap.containsKey(Metrics.TIME_BUCKET)) {
+            return false;
+        }
+
+        long minTimeBucket = Long.MAX_VALUE;
+        long maxTimeBucket = Long.MIN_VALUE;
+        Set<String> entityIds = Sets.newHashSet();
+        for (String id : ids) {
+            // The id of the metrics with entity is {time bucket}_{entity id}.
+            int index = id.indexOf(Const.ID_CONNECTOR);
+            if (index <= 0) {
+                return false;
+            }
+            long timeBucket;
+            try {
+                timeBucket = Long.parseLong(id.substring(0, index));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            minTimeBucket = Math.min(minTimeBucket, timeBucket);
+            maxTimeBucket = Math.max(maxTimeBucket, timeBucket);
+            entityIds.add(id.substring(index + 1));
+        }
+
+        query.and(gte(InfluxClient.TIME, timeInterval(minTimeBucket, model)))
+             .and(lte(InfluxClient.TIME, timeInterval(maxTimeBucket, model)));
+        WhereNested<WhereQueryImpl<SelectQueryImpl>> nested = query.andNested();
+        for (String entityId : entityIds) {
+            nested.or(eq(InfluxConstants.TagName.ENTITY_ID, entityId));
+        }
+        nested.close();
+        return true;
+    }
+
+    private static TimeInterval timeInterval(long timeBucket, Model model) {
+        return ti(TimeBucket.getTimestamp(timeBucket, model.getDownsampling()), "ms");
+    }
+
     @Override
     public InsertRequest prepareBatchInsert(Model model, Metrics metrics) throws IOException {
         final long timestamp = TimeBucket.getTimestamp(metrics.getTimeBucket(), model.getDownsampling());
-        TableMetaInfo tableMetaInfo = TableMetaInfo.get(model.getName());
-
-        final InfluxInsertRequest request = new InfluxInsertRequest(model, metrics, storageBuilder)
-            .time(timestamp, TimeUnit.MILLISECONDS);
-
-        tableMetaInfo.getStorageAndTagMap().forEach((field, tag) -> {
-            request.addFieldAsTag(field, tag);
-        });
-        return request;
+        return new InfluxInsertRequest(model, metrics, storageBuilder).time(timestamp, TimeUnit.MILLISECONDS);
     }
 
     @Override
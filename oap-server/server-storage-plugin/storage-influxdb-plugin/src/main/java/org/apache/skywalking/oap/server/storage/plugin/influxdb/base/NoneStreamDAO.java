@@ -27,8 +27,11 @@ import org.apache.skywalking.oap.server.core.storage.INoneStreamDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxClient;
-import org.apache.skywalking.oap.server.storage.plugin.influxdb.TableMetaInfo;
 
+/**
+ * The {@link NoneStream} is written immediately one by one, not batched by {@link BatchDAO}. The only none stream is
+ * the profile task, which is created by the user rarely, and should be queryable right after the creation.
+ */
 public class NoneStreamDAO implements INoneStreamDAO {
     private static final int PADDING_SIZE = 1_000_000;
     private static final AtomicRangeInteger SUFFIX = new AtomicRangeInteger(0, PADDING_SIZE);
@@ -48,9 +51,6 @@ public class NoneStreamDAO implements INoneStreamDAO {
 
         final InfluxInsertRequest request = new InfluxInsertRequest(model, noneStream, storageBuilder)
             .time(timestamp, TimeUnit.NANOSECONDS);
-        TableMetaInfo.get(model.getName()).getStorageAndTagMap().forEach((field, tag) -> {
-            request.addFieldAsTag(field, tag);
-        });
         client.write(request.getPoint());
     }
 }
@@ -28,7 +28,6 @@ import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxClient;
-import org.apache.skywalking.oap.server.storage.plugin.influxdb.TableMetaInfo;
 
 public class RecordDAO implements IRecordDAO {
     private static final int PADDING_SIZE = 1_000_000;
@@ -47,11 +46,6 @@ public class RecordDAO implements IRecordDAO {
         final long timestamp = TimeBucket.getTimestamp(record.getTimeBucket(), model.getDownsampling())
             * PADDING_SIZE + SUFFIX.getAndIncrement();
 
-        final InfluxInsertRequest request = new InfluxInsertRequest(model, record, storageBuilder)
-            .time(timestamp, TimeUnit.NANOSECONDS);
-        TableMetaInfo.get(model.getName()).getStorageAndTagMap().forEach((field, tag) -> {
-            request.addFieldAsTag(field, tag);
-        });
-        return request;
+        return new InfluxInsertRequest(model, record, storageBuilder).time(timestamp, TimeUnit.NANOSECONDS);
     }
 }
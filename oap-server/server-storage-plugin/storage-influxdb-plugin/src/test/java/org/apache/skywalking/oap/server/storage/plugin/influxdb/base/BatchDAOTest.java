@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.influxdb.base;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxClient;
+import org.influxdb.InfluxDBException;
+import org.influxdb.dto.BatchPoints;
+import org.influxdb.dto.Point;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchDAOTest {
+    private InfluxClient client;
+    private BatchDAO batchDAO;
+
+    @Before
+    public void setUp() {
+        client = mock(InfluxClient.class);
+        batchDAO = new BatchDAO(client, 2, 3_600_000);
+    }
+
+    @Test
+    public void testSynchronousBatchesPerMeasurement() throws IOException {
+        batchDAO.synchronous(Arrays.asList(
+            request("measurement_a", 0), request("measurement_b", 1), request("measurement_a", 2),
+            request("measurement_a", 3)
+        ));
+
+        List<BatchPoints> batches = captureWrites(3);
+        assertBatch(batches.get(0), "measurement_a", 2);
+        assertBatch(batches.get(1), "measurement_a", 1);
+        assertBatch(batches.get(2), "measurement_b", 1);
+    }
+
+    @Test
+    public void testSynchronousFailure() {
+        doThrow(new InfluxDBException("failed")).doNothing().when(client).write(any(BatchPoints.class));
+
+        try {
+            batchDAO.synchronous(Arrays.asList(request("measurement_a", 0), request("measurement_b", 1)));
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("1 failed batches"));
+        }
+        // The batch after the failed one is still written.
+        captureWrites(2);
+    }
+
+    @Test
+    public void testAsynchronousBufferPerMeasurement() {
+        doNothing().when(client).write(any(BatchPoints.class));
+
+        batchDAO.asynchronous(request("measurement_a", 0));
+        batchDAO.asynchronous(request("measurement_b", 1));
+        verify(client, never()).write(any(BatchPoints.class));
+
+        // The buffer of measurement_a is full, and written by the flush thread.
+        batchDAO.asynchronous(request("measurement_a", 2));
+        ArgumentCaptor<BatchPoints> captor = ArgumentCaptor.forClass(BatchPoints.class);
+        verify(client, timeout(5000).times(1)).write(captor.capture());
+        assertBatch(captor.getValue(), "measurement_a", 2);
+    }
+
+    @Test
+    public void testFlushFailurePerMeasurement() {
+        doThrow(new InfluxDBException("failed")).doNothing().when(client).write(any(BatchPoints.class));
+
+        batchDAO.asynchronous(request("measurement_a", 0));
+        batchDAO.asynchronous(request("measurement_b", 1));
+        batchDAO.flush();
+
+        // The measurement after the failed one is still written, and the failed points are counted.
+        captureWrites(2);
+        Assert.assertEquals(1, batchDAO.getFailedPoints());
+    }
+
+    private List<BatchPoints> captureWrites(int times) {
+        ArgumentCaptor<BatchPoints> captor = ArgumentCaptor.forClass(BatchPoints.class);
+        verify(client, times(times)).write(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static void assertBatch(BatchPoints batch, String measurement, int size) {
+        Assert.assertEquals(size, batch.getPoints().size());
+        for (Point point : batch.getPoints()) {
+            Assert.assertTrue(point.lineProtocol().startsWith(measurement + " "));
+        }
+    }
+
+    private static InfluxInsertRequest request(String measurement, long value) {
+        InfluxInsertRequest request = mock(InfluxInsertRequest.class);
+        when(request.getMeasurement()).thenReturn(measurement);
+        when(request.getPoint()).thenReturn(
+            Point.measurement(measurement).addField("value", value).time(value, TimeUnit.MILLISECONDS).build());
+        return request;
+    }
+}
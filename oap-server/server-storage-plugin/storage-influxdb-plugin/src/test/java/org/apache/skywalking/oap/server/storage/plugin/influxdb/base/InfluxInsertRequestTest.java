@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.influxdb.base;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.ColumnName;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+import org.apache.skywalking.oap.server.storage.plugin.influxdb.TableMetaInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InfluxInsertRequestTest {
+    private static final String MODEL_NAME = "influx_insert_request_test";
+
+    @Test
+    public void testKeepIntegerFields() throws Exception {
+        Model model = new Model(MODEL_NAME, Arrays.asList(
+            column(Metrics.ENTITY_ID, String.class),
+            column(Metrics.TIME_BUCKET, long.class),
+            column("count", int.class),
+            column("value", double.class)
+        ), Collections.emptyList(), 0, DownSampling.Minute, false);
+        TableMetaInfo.addModel(model);
+
+        Metrics metrics = mock(Metrics.class);
+        when(metrics.id()).thenReturn("202006011200_service_a");
+        Map<String, Object> columns = new HashMap<>();
+        columns.put(Metrics.ENTITY_ID, "service_a");
+        columns.put(Metrics.TIME_BUCKET, 202006011200L);
+        columns.put("count", 3);
+        columns.put("value", 1.5D);
+
+        String line = new InfluxInsertRequest(model, metrics, new StorageBuilder<Metrics>() {
+            @Override
+            public Metrics map2Data(Map<String, Object> dbMap) {
+                return metrics;
+            }
+
+            @Override
+            public Map<String, Object> data2Map(Metrics storageData) {
+                return columns;
+            }
+        }).time(1L, TimeUnit.MILLISECONDS).getPoint().lineProtocol();
+
+        Assert.assertTrue(line, line.contains("time_bucket=202006011200i"));
+        Assert.assertTrue(line, line.contains("count=3i"));
+        Assert.assertTrue(line, line.contains("value=1.5"));
+        Assert.assertTrue(line, line.contains("_entity_id=service_a"));
+    }
+
+    private static ModelColumn column(String name, Class<?> type) {
+        return new ModelColumn(new ColumnName(MODEL_NAME, name), type, false, false, false, 0);
+    }
+}
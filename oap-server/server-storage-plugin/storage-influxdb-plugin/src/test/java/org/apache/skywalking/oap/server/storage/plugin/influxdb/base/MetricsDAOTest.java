@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.influxdb.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.ColumnName;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+import org.apache.skywalking.oap.server.storage.plugin.influxdb.InfluxClient;
+import org.apache.skywalking.oap.server.storage.plugin.influxdb.TableMetaInfo;
+import org.influxdb.dto.Query;
+import org.influxdb.dto.QueryResult;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MetricsDAOTest {
+    private static final String MODEL_NAME = "influx_metrics_test";
+
+    private InfluxClient client;
+    private MetricsDAO metricsDAO;
+    private Model model;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        model = new Model(MODEL_NAME, Arrays.asList(
+            column(Metrics.ENTITY_ID, String.class),
+            column(Metrics.TIME_BUCKET, long.class),
+            column("value", long.class)
+        ), Collections.emptyList(), 0, DownSampling.Minute, false);
+        TableMetaInfo.addModel(model);
+
+        client = mock(InfluxClient.class);
+
+        StorageBuilder<Metrics> storageBuilder = mock(StorageBuilder.class);
+        when(storageBuilder.map2Data(any(Map.class))).thenAnswer(invocation -> {
+            Map<String, Object> data = (Map<String, Object>) invocation.getArguments()[0];
+            Metrics metrics = mock(Metrics.class);
+            when(metrics.id()).thenReturn(data.get(Metrics.TIME_BUCKET) + "_" + data.get(Metrics.ENTITY_ID));
+            return metrics;
+        });
+        metricsDAO = new MetricsDAO(client, storageBuilder);
+    }
+
+    @Test
+    public void testMultiGetBySeriesTags() throws Exception {
+        // The series of the entities in the time range, including the time buckets not requested.
+        when(client.queryForSingleSeries(any(Query.class))).thenReturn(series(
+            row(202006011200L, "service_a"), row(202006011201L, "service_a"),
+            row(202006011200L, "service_b"), row(202006011201L, "service_b")
+        ));
+
+        List<Metrics> metrics = metricsDAO.multiGet(
+            model, Arrays.asList("202006011200_service_a", "202006011201_service_b"));
+
+        List<String> ids = new ArrayList<>();
+        metrics.forEach(m -> ids.add(m.id()));
+        Assert.assertEquals(Arrays.asList("202006011200_service_a", "202006011201_service_b"), ids);
+
+        String command = captureQuery();
+        Assert.assertTrue(command, command.contains(
+            "time >= " + TimeBucket.getTimestamp(202006011200L, DownSampling.Minute) + "ms"));
+        Assert.assertTrue(command, command.contains(
+            "time <= " + TimeBucket.getTimestamp(202006011201L, DownSampling.Minute) + "ms"));
+        Assert.assertTrue(command, command.contains("_entity_id = 'service_a'"));
+        Assert.assertTrue(command, command.contains("_entity_id = 'service_b'"));
+        Assert.assertFalse(command, command.contains("id =~"));
+    }
+
+    @Test
+    public void testMultiGetByIdsWithoutEntity() throws Exception {
+        when(client.queryForSingleSeries(any(Query.class))).thenReturn(null);
+
+        Assert.assertTrue(metricsDAO.multiGet(model, Collections.singletonList("no_time_bucket")).isEmpty());
+
+        String command = captureQuery();
+        Assert.assertTrue(command, command.contains("id =~ /no_time_bucket/"));
+        Assert.assertFalse(command, command.contains("_entity_id"));
+    }
+
+    private String captureQuery() throws Exception {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(client).queryForSingleSeries(captor.capture());
+        return captor.getValue().getCommand();
+    }
+
+    private ModelColumn column(String name, Class<?> type) {
+        return new ModelColumn(new ColumnName(MODEL_NAME, name), type, false, false, false, 0);
+    }
+
+    private static List<Object> row(long timeBucket, String entityId) {
+        return Arrays.asList("2020-06-01T12:00:00Z", entityId, timeBucket, 1L);
+    }
+
+    @SafeVarargs
+    private static QueryResult.Series series(List<Object>... rows) {
+        QueryResult.Series series = new QueryResult.Series();
+        series.setColumns(Arrays.asList("time", Metrics.ENTITY_ID, Metrics.TIME_BUCKET, "value"));
+        series.setValues(Arrays.asList(rows));
+        return series;
+    }
+}
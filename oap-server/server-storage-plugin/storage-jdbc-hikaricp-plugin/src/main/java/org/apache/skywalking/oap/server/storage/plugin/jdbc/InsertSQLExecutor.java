@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * The executor of the insert of a whole row into the table. The parameters are the id, then the values of the columns
+ * in the order of {@link TableMetaInfo}, so the storage could merge the rows of the same table into one statement.
+ */
+public class InsertSQLExecutor extends SQLExecutor {
+    @Getter
+    private final String tableName;
+
+    public InsertSQLExecutor(String tableName, String sql, List<Object> param) {
+        super(sql, param);
+        this.tableName = tableName;
+    }
+}
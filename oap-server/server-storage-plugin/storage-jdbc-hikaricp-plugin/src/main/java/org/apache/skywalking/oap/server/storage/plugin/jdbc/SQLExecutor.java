@@ -22,6 +22,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
+import lombok.Getter;
 import org.apache.skywalking.oap.server.library.client.request.InsertRequest;
 import org.apache.skywalking.oap.server.library.client.request.UpdateRequest;
 import org.slf4j.Logger;
@@ -34,7 +35,9 @@ public class SQLExecutor implements InsertRequest, UpdateRequest {
 
     private static final Logger logger = LoggerFactory.getLogger(SQLExecutor.class);
 
+    @Getter
     private String sql;
+    @Getter
     private List<Object> param;
 
     public SQLExecutor(String sql, List<Object> param) {
@@ -43,13 +46,23 @@ public class SQLExecutor implements InsertRequest, UpdateRequest {
     }
 
     public void invoke(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            setParameters(preparedStatement, 1);
 
-        for (int i = 0; i < param.size(); i++) {
-            preparedStatement.setObject(i + 1, param.get(i));
+            logger.debug("execute aql in batch: {}", sql);
+            preparedStatement.execute();
         }
+    }
 
-        logger.debug("execute aql in batch: {}", sql);
-        preparedStatement.execute();
+    /**
+     * Set the parameters of this executor into the statement, starting from the given index.
+     *
+     * @return the index of the next parameter.
+     */
+    public int setParameters(PreparedStatement preparedStatement, int startIndex) throws SQLException {
+        for (int i = 0; i < param.size(); i++) {
+            preparedStatement.setObject(startIndex + i, param.get(i));
+        }
+        return startIndex + param.size();
     }
 }
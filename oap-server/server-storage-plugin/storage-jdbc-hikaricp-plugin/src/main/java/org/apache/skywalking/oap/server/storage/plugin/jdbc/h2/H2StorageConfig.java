@@ -30,4 +30,8 @@ public class H2StorageConfig extends ModuleConfig {
     private String user = "";
     private String password = "";
     private int metadataQueryMaxSize = 5000;
+    /**
+     * The max number of the statements executed in one JDBC batch and committed in one transaction.
+     */
+    private int maxSizeOfBatchSql = 100;
 }
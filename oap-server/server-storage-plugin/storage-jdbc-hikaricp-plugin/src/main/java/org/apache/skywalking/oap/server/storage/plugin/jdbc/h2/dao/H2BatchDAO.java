@@ -18,9 +18,14 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
+import java.io.IOException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
@@ -39,9 +44,14 @@ import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 public class H2BatchDAO implements IBatchDAO {
     private JDBCHikariCPClient h2Client;
     private final DataCarrier<PrepareRequest> dataCarrier;
+    /**
+     * The max number of the statements executed in one batch and committed in one transaction, at least 1.
+     */
+    private final int maxSizeOfBatchSql;
 
-    public H2BatchDAO(JDBCHikariCPClient h2Client) {
+    public H2BatchDAO(JDBCHikariCPClient h2Client, int maxSizeOfBatchSql) {
         this.h2Client = h2Client;
+        this.maxSizeOfBatchSql = Math.max(1, maxSizeOfBatchSql);
 
         String name = "H2_ASYNCHRONOUS_BATCH_PERSISTENT";
         BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, 1, 20);
@@ -56,7 +66,7 @@ public class H2BatchDAO implements IBatchDAO {
     }
 
     @Override
-    public void synchronous(List<PrepareRequest> prepareRequests) {
+    public void synchronous(List<PrepareRequest> prepareRequests) throws IOException {
         if (CollectionUtils.isEmpty(prepareRequests)) {
             return;
         }
@@ -65,19 +75,67 @@ public class H2BatchDAO implements IBatchDAO {
             log.debug("batch sql statements execute, data size: {}", prepareRequests.size());
         }
 
-        try (Connection connection = h2Client.getConnection()) {
-            for (PrepareRequest prepareRequest : prepareRequests) {
-                try {
-                    SQLExecutor sqlExecutor = (SQLExecutor) prepareRequest;
-                    sqlExecutor.invoke(connection);
-                } catch (SQLException e) {
-                    // Just avoid one execution failure makes the rest of batch failure.
-                    log.error(e.getMessage(), e);
+        // The statements of the same table and the same operation share the same SQL text.
+        Map<String, List<SQLExecutor>> groups = new LinkedHashMap<>();
+        for (PrepareRequest prepareRequest : prepareRequests) {
+            SQLExecutor sqlExecutor = (SQLExecutor) prepareRequest;
+            groups.computeIfAbsent(sqlExecutor.getSql(), sql -> new ArrayList<>()).add(sqlExecutor);
+        }
+
+        int failed = 0;
+        try (Connection connection = h2Client.getTransactionConnection()) {
+            for (List<SQLExecutor> group : groups.values()) {
+                for (int from = 0; from < group.size(); from += maxSizeOfBatchSql) {
+                    List<SQLExecutor> chunk = group.subList(from, Math.min(from + maxSizeOfBatchSql, group.size()));
+                    try {
+                        executeBatch(connection, chunk);
+                        connection.commit();
+                    } catch (SQLException e) {
+                        log.warn("Batch execution failed, execute one by one. {}", e.getMessage());
+                        connection.rollback();
+                        failed += executeOneByOne(connection, chunk);
+                    }
                 }
             }
         } catch (SQLException | JDBCClientException e) {
-            log.error(e.getMessage(), e);
+            throw new IOException(e.getMessage(), e);
+        }
+        if (failed > 0) {
+            throw new IOException(
+                "Batch sql statements executed with " + failed + " failures of " + prepareRequests.size());
+        }
+    }
+
+    /**
+     * Execute the statements sharing the same SQL text in one JDBC batch. The transaction is committed by the caller.
+     */
+    protected void executeBatch(Connection connection, List<SQLExecutor> sqlExecutors) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlExecutors.get(0).getSql())) {
+            for (SQLExecutor sqlExecutor : sqlExecutors) {
+                sqlExecutor.setParameters(preparedStatement, 1);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        }
+    }
+
+    /**
+     * @return the number of the failed statements.
+     */
+    private int executeOneByOne(Connection connection, List<SQLExecutor> sqlExecutors) throws SQLException {
+        int failed = 0;
+        for (SQLExecutor sqlExecutor : sqlExecutors) {
+            try {
+                sqlExecutor.invoke(connection);
+                connection.commit();
+            } catch (SQLException e) {
+                // Just avoid one execution failure makes the rest of batch failure.
+                log.error(e.getMessage(), e);
+                connection.rollback();
+                failed++;
+            }
         }
+        return failed;
     }
 
     @Override
@@ -100,7 +158,11 @@ public class H2BatchDAO implements IBatchDAO {
 
         @Override
         public void consume(List<PrepareRequest> prepareRequests) {
-            h2BatchDAO.synchronous(prepareRequests);
+            try {
+                h2BatchDAO.synchronous(prepareRequests);
+            } catch (IOException e) {
+                log.error(e.getMessage(), e);
+            }
         }
 
         @Override
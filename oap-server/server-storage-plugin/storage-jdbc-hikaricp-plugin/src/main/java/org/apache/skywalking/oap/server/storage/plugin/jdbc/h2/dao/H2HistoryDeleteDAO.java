@@ -28,19 +28,37 @@ import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariC
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
 import org.joda.time.DateTime;
 
+/**
+ * H2HistoryDeleteDAO removes the expired rows in the bounded batches, and pauses between the batches, so the deletion
+ * doesn't hold the locks of a large range of rows or saturate the database in one statement.
+ */
 public class H2HistoryDeleteDAO implements IHistoryDeleteDAO {
-
     private final JDBCHikariCPClient client;
+    /**
+     * The max number of rows removed in one delete statement.
+     */
+    private final int deleteBatchSize;
+    /**
+     * The pause between two delete statements of the same model, in millisecond.
+     */
+    private final long deleteBatchInterval;
 
     public H2HistoryDeleteDAO(JDBCHikariCPClient client) {
+        this(client, 10_000, 50);
+    }
+
+    H2HistoryDeleteDAO(JDBCHikariCPClient client, int deleteBatchSize, long deleteBatchInterval) {
         this.client = client;
+        this.deleteBatchSize = deleteBatchSize;
+        this.deleteBatchInterval = deleteBatchInterval;
     }
 
     @Override
     public void deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException {
         SQLBuilder dataDeleteSQL = new SQLBuilder("delete from " + model.getName() + " where ")
             .append(timeBucketColumnName).append("<= ? and ")
-            .append(timeBucketColumnName).append(">= ?");
+            .append(timeBucketColumnName).append(">= ?")
+            .append(" limit " + deleteBatchSize);
         long minTimeBucket = 0;
         DateTime minDate = new DateTime(1900, 1, 1, 0, 0);
 
@@ -66,9 +84,15 @@ public class H2HistoryDeleteDAO implements IHistoryDeleteDAO {
                         return;
                 }
             }
-            client.execute(connection, dataDeleteSQL.toString(), deadline, minTimeBucket);
+            while (client.executeUpdate(connection, dataDeleteSQL.toString(), deadline, minTimeBucket)
+                >= deleteBatchSize) {
+                Thread.sleep(deleteBatchInterval);
+            }
         } catch (JDBCClientException | SQLException e) {
             throw new IOException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The deletion of " + model.getName() + " is interrupted.", e);
         }
     }
 }
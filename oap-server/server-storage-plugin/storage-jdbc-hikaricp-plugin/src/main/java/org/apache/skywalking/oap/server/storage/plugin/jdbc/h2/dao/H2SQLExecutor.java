@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
@@ -34,12 +35,19 @@ import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObje
 import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.ArrayParamBuilder;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.InsertSQLExecutor;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
 
 @Slf4j
 public class H2SQLExecutor {
+    /**
+     * The insert and update statements of the models, the columns of a model never change after it is created.
+     */
+    private static final Map<String, String> INSERT_SQL = new ConcurrentHashMap<>();
+    private static final Map<String, String> UPDATE_SQL = new ConcurrentHashMap<>();
+
     protected <T extends StorageData> List<StorageData> getByIDs(JDBCHikariCPClient h2Client,
                                                                  String modelName,
                                                                  String[] ids,
@@ -107,18 +115,29 @@ public class H2SQLExecutor {
                                                                     StorageBuilder<T> storageBuilder) throws IOException {
         Map<String, Object> objectMap = storageBuilder.data2Map(metrics);
 
-        SQLBuilder sqlBuilder = new SQLBuilder("INSERT INTO " + modelName + " VALUES");
         List<ModelColumn> columns = TableMetaInfo.get(modelName).getColumns();
-        List<Object> param = new ArrayList<>();
-        sqlBuilder.append("(?,");
+        List<Object> param = new ArrayList<>(columns.size() + 1);
         param.add(metrics.id());
-        for (int i = 0; i < columns.size(); i++) {
-            ModelColumn column = columns.get(i);
-            sqlBuilder.append("?");
-            if (i != columns.size() - 1) {
-                sqlBuilder.append(",");
-            }
+        addColumnValues(param, columns, objectMap);
 
+        return new InsertSQLExecutor(
+            modelName, INSERT_SQL.computeIfAbsent(modelName, H2SQLExecutor::buildInsertSQL), param);
+    }
+
+    protected <T extends StorageData> SQLExecutor getUpdateExecutor(String modelName, T metrics,
+                                                                    StorageBuilder<T> storageBuilder) throws IOException {
+        Map<String, Object> objectMap = storageBuilder.data2Map(metrics);
+
+        List<ModelColumn> columns = TableMetaInfo.get(modelName).getColumns();
+        List<Object> param = new ArrayList<>(columns.size() + 1);
+        addColumnValues(param, columns, objectMap);
+        param.add(metrics.id());
+
+        return new SQLExecutor(UPDATE_SQL.computeIfAbsent(modelName, H2SQLExecutor::buildUpdateSQL), param);
+    }
+
+    private static void addColumnValues(List<Object> param, List<ModelColumn> columns, Map<String, Object> objectMap) {
+        for (ModelColumn column : columns) {
             Object value = objectMap.get(column.getColumnName().getName());
             if (value instanceof StorageDataComplexObject) {
                 param.add(((StorageDataComplexObject) value).toStorageData());
@@ -126,35 +145,33 @@ public class H2SQLExecutor {
                 param.add(value);
             }
         }
-        sqlBuilder.append(")");
-
-        return new SQLExecutor(sqlBuilder.toString(), param);
     }
 
-    protected <T extends StorageData> SQLExecutor getUpdateExecutor(String modelName, T metrics,
-                                                                    StorageBuilder<T> storageBuilder) throws IOException {
-        Map<String, Object> objectMap = storageBuilder.data2Map(metrics);
+    private static String buildInsertSQL(String modelName) {
+        SQLBuilder sqlBuilder = new SQLBuilder("INSERT INTO " + modelName + " VALUES");
+        List<ModelColumn> columns = TableMetaInfo.get(modelName).getColumns();
+        sqlBuilder.append("(?,");
+        for (int i = 0; i < columns.size(); i++) {
+            sqlBuilder.append("?");
+            if (i != columns.size() - 1) {
+                sqlBuilder.append(",");
+            }
+        }
+        sqlBuilder.append(")");
+        return sqlBuilder.toString();
+    }
 
+    private static String buildUpdateSQL(String modelName) {
         SQLBuilder sqlBuilder = new SQLBuilder("UPDATE " + modelName + " SET ");
         List<ModelColumn> columns = TableMetaInfo.get(modelName).getColumns();
-        List<Object> param = new ArrayList<>();
         for (int i = 0; i < columns.size(); i++) {
             ModelColumn column = columns.get(i);
             sqlBuilder.append(column.getColumnName().getStorageName() + "= ?");
             if (i != columns.size() - 1) {
                 sqlBuilder.append(",");
             }
-
-            Object value = objectMap.get(column.getColumnName().getName());
-            if (value instanceof StorageDataComplexObject) {
-                param.add(((StorageDataComplexObject) value).toStorageData());
-            } else {
-                param.add(value);
-            }
         }
         sqlBuilder.append(" WHERE id = ?");
-        param.add(metrics.id());
-
-        return new SQLExecutor(sqlBuilder.toString(), param);
+        return sqlBuilder.toString();
     }
 }
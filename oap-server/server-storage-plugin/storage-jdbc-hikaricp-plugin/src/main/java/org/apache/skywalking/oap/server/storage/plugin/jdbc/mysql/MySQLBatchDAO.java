@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.InsertSQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2BatchDAO;
+
+/**
+ * MySQL batch DAO merges the inserts of the same table into one multi-row {@code INSERT} statement, so a batch of rows
+ * costs one round trip. An insert of a row which exists already fails the whole statement, then the rows are inserted
+ * one by one as H2 does, so the existing row is never overwritten silently. Other statements are executed in the JDBC
+ * batch as H2 does.
+ */
+public class MySQLBatchDAO extends H2BatchDAO {
+    public MySQLBatchDAO(JDBCHikariCPClient mysqlClient, int maxSizeOfBatchSql) {
+        super(mysqlClient, maxSizeOfBatchSql);
+    }
+
+    @Override
+    protected void executeBatch(Connection connection, List<SQLExecutor> sqlExecutors) throws SQLException {
+        if (sqlExecutors.size() == 1 || !(sqlExecutors.get(0) instanceof InsertSQLExecutor)) {
+            super.executeBatch(connection, sqlExecutors);
+            return;
+        }
+
+        String tableName = ((InsertSQLExecutor) sqlExecutors.get(0)).getTableName();
+        String valuesPlaceholder = valuesPlaceholder(sqlExecutors.get(0).getParam().size());
+        SQLBuilder sqlBuilder = new SQLBuilder("INSERT INTO " + tableName + " VALUES");
+        for (int i = 0; i < sqlExecutors.size(); i++) {
+            if (i > 0) {
+                sqlBuilder.append(",");
+            }
+            sqlBuilder.append(valuesPlaceholder);
+        }
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlBuilder.toString())) {
+            int index = 1;
+            for (SQLExecutor sqlExecutor : sqlExecutors) {
+                index = sqlExecutor.setParameters(preparedStatement, index);
+            }
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private static String valuesPlaceholder(int size) {
+        StringBuilder placeholder = new StringBuilder(size * 2 + 1).append("(");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                placeholder.append(",");
+            }
+            placeholder.append("?");
+        }
+        return placeholder.append(")").toString();
+    }
+}
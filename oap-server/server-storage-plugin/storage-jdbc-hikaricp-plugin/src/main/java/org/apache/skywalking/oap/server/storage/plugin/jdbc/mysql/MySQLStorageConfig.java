@@ -29,5 +29,9 @@ import java.util.Properties;
 public final class MySQLStorageConfig extends ModuleConfig {
 
     private int metadataQueryMaxSize = 5000;
+    /**
+     * The max number of the rows merged into one multi-row insert, or the statements executed in one JDBC batch.
+     */
+    private int maxSizeOfBatchSql = 100;
     private Properties properties;
 }
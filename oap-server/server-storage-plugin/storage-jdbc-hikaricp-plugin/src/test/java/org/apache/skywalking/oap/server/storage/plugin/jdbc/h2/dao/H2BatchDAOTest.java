@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.InsertSQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class H2BatchDAOTest {
+    private static final String INSERT_SQL = "INSERT INTO batch_test VALUES(?,?)";
+    private static final String UPDATE_SQL = "UPDATE batch_test SET value= ? WHERE id = ?";
+
+    private JDBCHikariCPClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties settings = new Properties();
+        settings.setProperty("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        settings.setProperty("dataSource.url", "jdbc:h2:mem:h2-batch-dao-test;DB_CLOSE_DELAY=-1");
+        settings.setProperty("dataSource.user", "sa");
+        client = new JDBCHikariCPClient(settings);
+        client.connect();
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "DROP TABLE IF EXISTS batch_test");
+            client.execute(connection, "CREATE TABLE batch_test (id VARCHAR(512) PRIMARY KEY, value BIGINT)");
+        }
+    }
+
+    @Test
+    public void testSynchronous() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(client, 2);
+
+        List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(insert("id_" + i, i));
+        }
+        batchDAO.synchronous(requests);
+
+        batchDAO.synchronous(Arrays.asList(
+            new SQLExecutor(UPDATE_SQL, Arrays.asList(100L, "id_0")),
+            new SQLExecutor(UPDATE_SQL, Arrays.asList(101L, "id_1")),
+            new SQLExecutor(UPDATE_SQL, Arrays.asList(102L, "id_2")),
+            insert("id_5", 5)
+        ));
+
+        Assert.assertEquals(6, count());
+        Assert.assertEquals(100L, value("id_0"));
+        Assert.assertEquals(102L, value("id_2"));
+        Assert.assertEquals(3L, value("id_3"));
+    }
+
+    @Test
+    public void testFailureDoesNotFailTheOthers() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(client, 10);
+
+        batchDAO.synchronous(Arrays.asList(insert("id_0", 0), insert("id_1", 1)));
+        try {
+            // id_1 exists already, the batch fails and falls back to the one by one execution.
+            batchDAO.synchronous(Arrays.asList(insert("id_1", 10), insert("id_2", 2), insert("id_3", 3)));
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("1 failures of 3"));
+        }
+
+        Assert.assertEquals(4, count());
+        Assert.assertEquals(1L, value("id_1"));
+        Assert.assertEquals(3L, value("id_3"));
+    }
+
+    @Test(timeout = 10_000)
+    public void testNonPositiveMaxSizeOfBatchSql() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(client, 0);
+
+        batchDAO.synchronous(Arrays.asList(insert("id_0", 0), insert("id_1", 1)));
+        Assert.assertEquals(2, count());
+    }
+
+    private static InsertSQLExecutor insert(String id, long value) {
+        return new InsertSQLExecutor("batch_test", INSERT_SQL, Arrays.asList(id, value));
+    }
+
+    private int count() throws Exception {
+        try (Connection connection = client.getConnection();
+             ResultSet rs = client.executeQuery(connection, "SELECT COUNT(*) FROM batch_test")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private long value(String id) throws Exception {
+        try (Connection connection = client.getConnection();
+             ResultSet rs = client.executeQuery(connection, "SELECT value FROM batch_test WHERE id = ?", id)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.Properties;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class H2HistoryDeleteDAOTest {
+    private JDBCHikariCPClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties settings = new Properties();
+        settings.setProperty("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        settings.setProperty("dataSource.url", "jdbc:h2:mem:h2-history-delete-dao-test;DB_CLOSE_DELAY=-1");
+        settings.setProperty("dataSource.user", "sa");
+        client = new JDBCHikariCPClient(settings);
+        client.connect();
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "DROP TABLE IF EXISTS delete_test");
+            client.execute(connection, "CREATE TABLE delete_test (id VARCHAR(512) PRIMARY KEY, time_bucket BIGINT)");
+            long expired = Long.parseLong(new DateTime().minusDays(10).toString("yyyyMMdd"));
+            long alive = Long.parseLong(new DateTime().toString("yyyyMMdd"));
+            for (int i = 0; i < 25; i++) {
+                client.execute(connection, "INSERT INTO delete_test VALUES(?,?)", "expired_" + i, expired);
+            }
+            for (int i = 0; i < 5; i++) {
+                client.execute(connection, "INSERT INTO delete_test VALUES(?,?)", "alive_" + i, alive);
+            }
+        }
+    }
+
+    @Test
+    public void testDeleteInBatches() throws Exception {
+        H2HistoryDeleteDAO deleteDAO = new H2HistoryDeleteDAO(client, 10, 1);
+        Model model = new Model(
+            "delete_test", Collections.emptyList(), Collections.emptyList(), 0, DownSampling.Day, false);
+
+        deleteDAO.deleteHistory(model, "time_bucket", 3);
+
+        try (Connection connection = client.getConnection()) {
+            ResultSet resultSet = client.executeQuery(connection, "SELECT count(*) FROM delete_test");
+            resultSet.next();
+            Assert.assertEquals(5, resultSet.getInt(1));
+        }
+    }
+}
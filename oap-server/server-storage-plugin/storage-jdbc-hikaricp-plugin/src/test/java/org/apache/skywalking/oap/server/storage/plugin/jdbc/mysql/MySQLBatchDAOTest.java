@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Properties;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.InsertSQLExecutor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MySQLBatchDAOTest {
+    private static final String INSERT_SQL = "INSERT INTO batch_insert_test VALUES(?,?)";
+
+    private JDBCHikariCPClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties settings = new Properties();
+        settings.setProperty("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        settings.setProperty("dataSource.url", "jdbc:h2:mem:mysql-batch-dao-test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        settings.setProperty("dataSource.user", "sa");
+        client = new JDBCHikariCPClient(settings);
+        client.connect();
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "DROP TABLE IF EXISTS batch_insert_test");
+            client.execute(connection, "CREATE TABLE batch_insert_test (id VARCHAR(512) PRIMARY KEY, value BIGINT)");
+        }
+    }
+
+    @Test
+    public void testMultiRowInsert() throws Exception {
+        MySQLBatchDAO batchDAO = new MySQLBatchDAO(client, 2);
+
+        batchDAO.synchronous(Arrays.asList(insert("id_0", 0), insert("id_1", 1), insert("id_2", 2)));
+
+        assertRows(0, 1, 2);
+    }
+
+    @Test
+    public void testDuplicateFallsBackToOneByOne() throws Exception {
+        MySQLBatchDAO batchDAO = new MySQLBatchDAO(client, 3);
+
+        batchDAO.synchronous(Arrays.asList(insert("id_0", 0), insert("id_1", 1)));
+        try {
+            // id_1 exists already, it fails rather than being overwritten, and the other rows are still inserted.
+            batchDAO.synchronous(Arrays.asList(insert("id_1", 10), insert("id_2", 2), insert("id_3", 3)));
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("1 failures of 3"));
+        }
+
+        assertRows(0, 1, 2, 3);
+    }
+
+    private void assertRows(long... expected) throws Exception {
+        try (Connection connection = client.getConnection();
+             ResultSet rs = client.executeQuery(connection, "SELECT id, value FROM batch_insert_test ORDER BY id")) {
+            for (int i = 0; i < expected.length; i++) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals("id_" + i, rs.getString(1));
+                Assert.assertEquals(expected[i], rs.getLong(2));
+            }
+            Assert.assertFalse(rs.next());
+        }
+    }
+
+    private static InsertSQLExecutor insert(String id, long value) {
+        return new InsertSQLExecutor("batch_insert_test", INSERT_SQL, Arrays.asList(id, value));
+    }
+}